@@ -20,10 +20,6 @@ export const options = {
       maxVUs: MAX_VUS,
     },
   },
-  cloud: {
-    projectID: 5505295,
-    name: "Ecommerce"
-  }
 };
 
 function randomItem(arr) {
@@ -0,0 +1,220 @@
+import http from 'k6/http';
+import { check, fail } from 'k6';
+import exec from 'k6/execution';
+
+// Mixed workload against a local stack started with the load-test profile, which seeds
+// LoadTest-Product-* rows and loadtest-user-<n>@example.com shoppers.
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOTAL_RATE = Number(__ENV.K6_REQ_RATE || 500); // iterations per second across all scenarios
+const DURATION = __ENV.K6_DURATION || '2m';
+const PRE_ALLOCATED_VUS = Number(__ENV.K6_VUS || 50);
+const MAX_VUS = Number(__ENV.K6_MAX_VUS || 300);
+
+const USER_POOL = Number(__ENV.K6_USER_POOL || 200); // seeded users logged in during setup
+const USER_PASSWORD = __ENV.LOAD_TEST_USER_PASSWORD || 'password';
+const HOT_PRODUCT_ID = __ENV.K6_HOT_PRODUCT_ID ? Number(__ENV.K6_HOT_PRODUCT_ID) : null;
+const CATALOG_SAMPLE = Number(__ENV.K6_CATALOG_SAMPLE || 500);
+
+// Share of TOTAL_RATE per scenario; override e.g. K6_WEIGHTS="browse=0.7,checkout=0.1,favorites=0.1,login=0.05,orders=0.05".
+const WEIGHTS = parseWeights(__ENV.K6_WEIGHTS || 'browse=0.6,checkout=0.15,favorites=0.15,login=0.05,orders=0.05');
+
+const CATEGORIES = ['games', 'books', 'collectibles', 'gadgets', 'home', null];
+const KEYWORDS = ['board', 'space', 'retro', 'limited', 'flash', 'sale', 'top', null];
+
+// A sold-out hot SKU answers 409; that is the expected outcome of contention, not an error.
+const CHECKOUT_STATUSES = http.expectedStatuses(200, 201, 409);
+// Two VUs sharing a token can race on the same product, so a remove may find nothing to delete.
+const REMOVE_STATUSES = http.expectedStatuses(204, 404);
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function parseWeights(spec) {
+  const weights = {};
+  for (const pair of spec.split(',')) {
+    const [name, value] = pair.split('=');
+    weights[name.trim()] = Number(value);
+  }
+  return weights;
+}
+
+function scenario(name, exec) {
+  return {
+    executor: 'constant-arrival-rate',
+    exec,
+    rate: Math.max(1, Math.round(TOTAL_RATE * (WEIGHTS[name] || 0))),
+    timeUnit: '1s',
+    duration: DURATION,
+    preAllocatedVUs: PRE_ALLOCATED_VUS,
+    maxVUs: MAX_VUS,
+  };
+}
+
+const scenarios = {};
+for (const [name, fn] of Object.entries({
+  browse: 'browse',
+  checkout: 'checkoutHotSku',
+  favorites: 'favorites',
+  login: 'login',
+  orders: 'orderReads',
+})) {
+  if ((WEIGHTS[name] || 0) > 0) {
+    scenarios[name] = scenario(name, fn);
+  }
+}
+
+export const options = {
+  scenarios,
+  // Any crossed threshold makes `k6 run` exit non-zero, so CI or a script can gate on it.
+  thresholds: {
+    checks: ['rate>0.99'],
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{scenario:browse}': ['p(95)<300', 'p(99)<800'],
+    'http_req_duration{scenario:checkout}': ['p(95)<500', 'p(99)<1000'],
+    'http_req_duration{scenario:favorites}': ['p(95)<300', 'p(99)<800'],
+    'http_req_duration{scenario:login}': ['p(95)<800', 'p(99)<1500'],
+    'http_req_duration{scenario:orders}': ['p(95)<250', 'p(99)<600'],
+  },
+};
+
+function randomItem(arr) {
+  return arr[Math.floor(Math.random() * arr.length)];
+}
+
+function userEmail(index) {
+  return `loadtest-user-${index}@example.com`;
+}
+
+function authHeaders(token) {
+  return { ...JSON_HEADERS, Authorization: `Bearer ${token}` };
+}
+
+function loginRequest(index) {
+  return {
+    method: 'POST',
+    url: `${BASE_URL}/api/v1/auth/login`,
+    body: JSON.stringify({ email: userEmail(index), password: USER_PASSWORD }),
+    params: { headers: JSON_HEADERS, tags: { name: 'login' } },
+  };
+}
+
+// Runs once: logs in the user pool and samples seeded product ids, so iterations only pay for
+// the call under test.
+export function setup() {
+  const tokens = [];
+  for (let first = 0; first < USER_POOL; first += 20) {
+    const batch = [];
+    for (let index = first; index < Math.min(USER_POOL, first + 20); index++) {
+      batch.push(loginRequest(index));
+    }
+    for (const res of http.batch(batch)) {
+      if (res.status === 200) {
+        tokens.push(res.json('data.token'));
+      }
+    }
+  }
+  if (tokens.length === 0) {
+    fail('no seeded user could log in; start the app with the load-test profile');
+  }
+
+  const productIds = [];
+  for (let page = 0; productIds.length < CATALOG_SAMPLE; page++) {
+    const res = http.get(`${BASE_URL}/api/v1/products?page=${page}&size=100`);
+    const items = res.status === 200 ? res.json('data.items') : [];
+    if (items.length === 0) {
+      break;
+    }
+    for (const item of items) {
+      productIds.push(item.id);
+    }
+  }
+  if (productIds.length === 0) {
+    fail('catalog is empty; start the app with the load-test profile');
+  }
+
+  return { tokens, productIds, hotProductId: HOT_PRODUCT_ID || productIds[0] };
+}
+
+export function browse() {
+  const params = [`page=${Math.floor(Math.random() * 10)}`, 'size=10'];
+  const category = randomItem(CATEGORIES);
+  const keyword = randomItem(KEYWORDS);
+  if (category) {
+    params.push(`category=${category}`);
+  }
+  if (keyword) {
+    params.push(`search=${keyword}`);
+  }
+
+  const res = http.get(`${BASE_URL}/api/v1/products?${params.join('&')}`, { tags: { name: 'products' } });
+  check(res, { 'browse status is 200': (r) => r.status === 200 });
+}
+
+// Every iteration buys the same SKU with a fresh idempotency key; stock must never go negative,
+// so once it runs out the expected answer is 409.
+export function checkoutHotSku(data) {
+  const res = http.post(
+    `${BASE_URL}/api/v1/orders`,
+    JSON.stringify({
+      idempotencyKey: `k6-${exec.scenario.name}-${exec.vu.idInTest}-${exec.scenario.iterationInTest}-${Date.now()}`,
+      items: [{ productId: data.hotProductId, quantity: 1 }],
+    }),
+    { headers: authHeaders(randomItem(data.tokens)), tags: { name: 'orders-create' }, responseCallback: CHECKOUT_STATUSES },
+  );
+  check(res, { 'checkout is 201, 200 or 409': (r) => [200, 201, 409].includes(r.status) });
+}
+
+export function favorites(data) {
+  const headers = authHeaders(randomItem(data.tokens));
+  const productId = randomItem(data.productIds);
+
+  const added = http.post(`${BASE_URL}/api/v1/favorites`, JSON.stringify({ productId }), {
+    headers,
+    tags: { name: 'favorites-add' },
+  });
+  // 202 when the app runs with favorites write-behind enabled.
+  check(added, { 'favorite add is 201, 200 or 202': (r) => [200, 201, 202].includes(r.status) });
+
+  const listed = http.get(`${BASE_URL}/api/v1/favorites`, { headers, tags: { name: 'favorites-list' } });
+  check(listed, { 'favorite list is 200': (r) => r.status === 200 });
+
+  const removed = http.del(`${BASE_URL}/api/v1/favorites/${productId}`, null, {
+    headers,
+    tags: { name: 'favorites-remove' },
+    responseCallback: REMOVE_STATUSES,
+  });
+  check(removed, { 'favorite remove is 204 or 404': (r) => r.status === 204 || r.status === 404 });
+}
+
+export function login() {
+  const req = loginRequest(Math.floor(Math.random() * USER_POOL));
+  const res = http.post(req.url, req.body, req.params);
+  check(res, { 'login is 200': (r) => r.status === 200 });
+}
+
+// There is no order listing endpoint, so each VU places one order of its own on first use and
+// then re-reads it, the way clients poll an order after checkout.
+const ownOrder = {};
+
+export function orderReads(data) {
+  if (!ownOrder.id) {
+    ownOrder.token = randomItem(data.tokens);
+    const res = http.post(
+      `${BASE_URL}/api/v1/orders`,
+      JSON.stringify({
+        idempotencyKey: `k6-order-reads-${exec.vu.idInTest}-${Date.now()}`,
+        items: [{ productId: randomItem(data.productIds), quantity: 1 }],
+      }),
+      { headers: authHeaders(ownOrder.token), tags: { name: 'orders-create' }, responseCallback: CHECKOUT_STATUSES },
+    );
+    if (res.status !== 201 && res.status !== 200) {
+      return; // product sold out; retry with another one next iteration
+    }
+    ownOrder.id = res.json('data.id');
+  }
+
+  const res = http.get(`${BASE_URL}/api/v1/orders/${ownOrder.id}`, {
+    headers: authHeaders(ownOrder.token),
+    tags: { name: 'orders-get' },
+  });
+  check(res, { 'order read is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,59 @@
+package com.jimmyweng.ecommerce.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request cost of recording into a Prometheus timer, with and without the SLO buckets that
+ * {@code management.metrics.distribution.slo.http.server.requests} adds to every endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HttpTimerRecordingBenchmark {
+
+    private static final Duration[] SLO_BUCKETS = {
+        Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+        Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(5)
+    };
+
+    @Param({"false", "true"})
+    public boolean sloBuckets;
+
+    private Timer timer;
+
+    @Setup
+    public void setUp() {
+        Timer.Builder builder = Timer.builder("http.server.requests")
+                .tag("uri", "/api/v1/products")
+                .tag("status", "200");
+        if (sloBuckets) {
+            builder.serviceLevelObjectives(SLO_BUCKETS);
+        }
+        timer = builder.register(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public void record() {
+        timer.record(42, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.jimmyweng.ecommerce.controller.product.dto;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Entity-to-DTO mapping for one listing page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductListResponseBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Slice<Product> slice;
+    private final Map<Long, Long> favoriteCounts = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        List<Product> products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(new Product("Product " + i, "Description " + i, "games", new BigDecimal("19.99"), 10));
+        }
+        slice = new SliceImpl<>(products, PageRequest.of(0, pageSize), true);
+    }
+
+    @Benchmark
+    public ProductListResponse from() {
+        return ProductListResponse.from(slice, favoriteCounts, null, null, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.jimmyweng.ecommerce.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routing decision taken on every connection checkout. Runs on four threads so contention on the
+ * shared round-robin counter and the routing meters shows up; {@code registry=noop} is the
+ * baseline without metric recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ReadReplicaRoutingDataSourceBenchmark {
+
+    @Param({"noop", "prometheus"})
+    public String registry;
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = "prometheus".equals(registry)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                // A composite with no children hands out no-op meters.
+                : new CompositeMeterRegistry();
+        dataSource = new ReadReplicaRoutingDataSource(List.of("replica-1", "replica-2", "replica-3"), meterRegistry);
+    }
+
+    /**
+     * Transaction flags are thread-bound, so each benchmark thread sets its own.
+     */
+    @State(Scope.Thread)
+    public static class TransactionState {
+
+        @Param({"true", "false"})
+        public boolean readOnly;
+
+        @Setup
+        public void enter() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        }
+
+        @TearDown
+        public void exit() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Benchmark
+    public Object determineCurrentLookupKey(TransactionState transaction) {
+        return dataSource.determineCurrentLookupKey();
+    }
+}
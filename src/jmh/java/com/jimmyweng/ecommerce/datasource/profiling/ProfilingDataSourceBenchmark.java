@@ -0,0 +1,71 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One connection checkout, prepared query and ten-row read against in-memory H2, with and without
+ * a profile on the thread. {@code profiled=false} is what unsampled requests pay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfilingDataSourceBenchmark {
+
+    @Param({"false", "true"})
+    public boolean profiled;
+
+    private ProfilingDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling-benchmark;DB_CLOSE_DELAY=-1");
+        dataSource = new ProfilingDataSource("PRIMARY", h2);
+    }
+
+    @Setup(Level.Iteration)
+    public void startProfile() {
+        if (profiled) {
+            SqlProfile.start();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void endProfile() {
+        SqlProfile.end();
+    }
+
+    @Benchmark
+    public long query() throws SQLException {
+        long sum = 0;
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("select x from system_range(1, 10)");
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                sum += resultSet.getLong(1);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,57 @@
+package com.jimmyweng.ecommerce.framework;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Envelope wrapping applied to every successful JSON response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseEnvelopeAdviceBenchmark {
+
+    private final ApiResponseEnvelopeAdvice advice = new ApiResponseEnvelopeAdvice();
+    private final Object body = Map.of("id", 1L, "title", "Lamp");
+    private MethodParameter returnType;
+    private ServletServerHttpRequest request;
+    private ServletServerHttpResponse response;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        returnType = new MethodParameter(ApiResponseEnvelopeAdviceBenchmark.class.getMethod("beforeBodyWrite"), -1);
+        request = new ServletServerHttpRequest(new MockHttpServletRequest("GET", "/api/v1/products/1"));
+        response = new ServletServerHttpResponse(new MockHttpServletResponse());
+    }
+
+    @Benchmark
+    public Object beforeBodyWrite() {
+        return advice.beforeBodyWrite(
+                body,
+                returnType,
+                MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class,
+                request,
+                response);
+    }
+}
@@ -0,0 +1,75 @@
+package com.jimmyweng.ecommerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Cost the {@code @LogExecution} aspect adds to a trivial call, against calling the target
+ * directly: timer recording into a Prometheus registry plus, for the sampled fraction, a log
+ * event. The target's logger is at INFO with no appenders, so console and file I/O (handed to
+ * async appenders in the application) is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogExecutionAspectBenchmark {
+
+    @Param({"0.0", "0.01", "1.0"})
+    public double sampleRate;
+
+    private Target direct;
+    private Target advised;
+
+    @Setup
+    public void setUp() {
+        Logger logger = (Logger) LoggerFactory.getLogger(Target.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.detachAndStopAllAppenders();
+
+        direct = new Target();
+        AspectJProxyFactory factory = new AspectJProxyFactory(direct);
+        factory.setProxyTargetClass(true);
+        LogExecutionProperties properties = new LogExecutionProperties();
+        properties.setSampleRate(sampleRate);
+        factory.addAspect(new LogExecutionAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), properties));
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public String direct() {
+        return direct.lookup("games", 42L);
+    }
+
+    @Benchmark
+    public String advised() {
+        return advised.lookup("games", 42L);
+    }
+
+    public static class Target {
+
+        @LogExecution
+        public String lookup(String category, Long id) {
+            return category;
+        }
+    }
+}
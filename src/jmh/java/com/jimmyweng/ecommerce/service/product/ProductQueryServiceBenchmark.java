@@ -0,0 +1,78 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.jimmyweng.ecommerce.EcommerceApplication;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.product.dto.ProductListingCriteria;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * The listing call as controllers make it: through the transactional and logging proxies into
+ * embedded H2 (the test profile). Keyword and category are passed untrimmed so normalization is
+ * on the measured path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductQueryServiceBenchmark {
+
+    private static final int PRODUCTS = 2_000;
+
+    private final Pageable firstPage = PageRequest.of(0, 20);
+    private ConfigurableApplicationContext context;
+    private ProductQueryService productQueryService;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .profiles("test")
+                .properties("logging.level.root=WARN", "spring.main.banner-mode=off")
+                .run();
+        productQueryService = context.getBean(ProductQueryService.class);
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String category = i % 2 == 0 ? "games" : "books";
+            products.add(new Product("Board game " + i, "Family fun " + i, category, new BigDecimal("19.99"), 10));
+        }
+        context.getBean(ProductRepository.class).saveAll(products);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Product> listByCategory() {
+        return productQueryService.listProducts(ProductListingCriteria.of(" Games ", null), firstPage);
+    }
+
+    @Benchmark
+    public Slice<Product> listByKeyword() {
+        return productQueryService.listProducts(ProductListingCriteria.of(" Games ", "  board "), firstPage);
+    }
+}
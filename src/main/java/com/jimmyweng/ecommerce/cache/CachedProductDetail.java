@@ -0,0 +1,34 @@
+package com.jimmyweng.ecommerce.cache;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.time.Instant;
+
+/**
+ * A product detail payload serialized once and written verbatim into every response that serves
+ * it. {@code version} is the {@code Product.version} the bytes were rendered from and {@code etag}
+ * is a strong validator over those bytes. {@code category} is kept alongside for callers that
+ * need it without parsing the payload.
+ */
+public record CachedProductDetail(
+        Long productId,
+        Long version,
+        String category,
+        Instant updatedAt,
+        String etag,
+        @JsonValue RawValue json,
+        long loadedAtMillis) {
+
+    /**
+     * The same payload with a trailing {@code favorited} member, for authenticated callers. The
+     * cached bytes are shared by everyone, so the flag is spliced in per response, and the ETag
+     * gets a suffix so the two variants never validate against each other.
+     */
+    public CachedProductDetail withFavorited(boolean favorited) {
+        String body = json.rawValue().toString();
+        String flagged = body.substring(0, body.length() - 1) + ",\"favorited\":" + favorited + "}";
+        String variantEtag = etag.substring(0, etag.length() - 1) + (favorited ? "-f1\"" : "-f0\"");
+        return new CachedProductDetail(
+                productId, version, category, updatedAt, variantEtag, new RawValue(flagged), loadedAtMillis);
+    }
+}
@@ -0,0 +1,71 @@
+package com.jimmyweng.ecommerce.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of a user's favorited product ids, held as a sorted primitive array: 8 bytes per
+ * id and no boxing, probed with a binary search. Updates copy the array, which is cheap for the
+ * per-user sizes admitted by {@link FavoriteIdSetCache}.
+ */
+public final class FavoriteIdSet {
+
+    private static final FavoriteIdSet EMPTY = new FavoriteIdSet(new long[0], 0);
+    // Array header plus object and map entry overhead, roughly.
+    private static final long OVERHEAD_BYTES = 96;
+
+    private final long[] productIds;
+    private final long loadedAtMillis;
+
+    private FavoriteIdSet(long[] productIds, long loadedAtMillis) {
+        this.productIds = productIds;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public static FavoriteIdSet empty() {
+        return EMPTY;
+    }
+
+    public static FavoriteIdSet of(Collection<Long> productIds, long loadedAtMillis) {
+        long[] sorted = productIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new FavoriteIdSet(sorted, loadedAtMillis);
+    }
+
+    public boolean contains(long productId) {
+        return Arrays.binarySearch(productIds, productId) >= 0;
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    long loadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    long sizeInBytes() {
+        return OVERHEAD_BYTES + 8L * productIds.length;
+    }
+
+    /**
+     * This set with {@code productId} added or removed; {@code this} when nothing changes. Keeps
+     * the original load time, so a set patched by local writes still expires on schedule.
+     */
+    FavoriteIdSet with(long productId, boolean favorited) {
+        int index = Arrays.binarySearch(productIds, productId);
+        if ((index >= 0) == favorited) {
+            return this;
+        }
+        long[] updated = new long[productIds.length + (favorited ? 1 : -1)];
+        if (favorited) {
+            int insertAt = -index - 1;
+            System.arraycopy(productIds, 0, updated, 0, insertAt);
+            updated[insertAt] = productId;
+            System.arraycopy(productIds, insertAt, updated, insertAt + 1, productIds.length - insertAt);
+        } else {
+            System.arraycopy(productIds, 0, updated, 0, index);
+            System.arraycopy(productIds, index + 1, updated, index, productIds.length - index - 1);
+        }
+        return new FavoriteIdSet(updated, loadedAtMillis);
+    }
+}
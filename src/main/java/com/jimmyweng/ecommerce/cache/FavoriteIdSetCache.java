@@ -0,0 +1,142 @@
+package com.jimmyweng.ecommerce.cache;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user {@link FavoriteIdSet}s keyed by email, under a byte budget rather than an entry count,
+ * since one heavy user can outweigh thousands of light ones. When the budget is used up, expired
+ * sets are swept before a new user is turned away.
+ *
+ * <p>Sets are loaded from a replica, which may not have a write this instance just made yet. Each
+ * local write is therefore also remembered for one staleness window and applied over every set
+ * loaded in that time, including loads that started before the write.
+ */
+@Component
+public class FavoriteIdSetCache {
+
+    private final FavoriteIdSetCacheProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<String, FavoriteIdSet> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ConcurrentMap<String, Map<Long, RecentWrite>> recentWrites = new ConcurrentHashMap<>();
+
+    public FavoriteIdSetCache(FavoriteIdSetCacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public int maxIdsPerUser() {
+        return properties.getMaxIdsPerUser();
+    }
+
+    public Optional<FavoriteIdSet> getIfFresh(String email) {
+        FavoriteIdSet cached = entries.get(email);
+        if (cached == null || isExpired(cached, clock.millis())) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Admits a freshly loaded set if it fits the budget, after applying this instance's recent
+     * writes the load may have missed. The patched set is returned either way, so the caller can
+     * answer the current request from it.
+     */
+    public FavoriteIdSet store(String email, FavoriteIdSet loaded) {
+        if (!properties.isEnabled()) {
+            return withRecentWrites(email, loaded);
+        }
+        if (!entries.containsKey(email) && !hasRoomFor(loaded.sizeInBytes())) {
+            sweepExpired();
+            if (!hasRoomFor(loaded.sizeInBytes())) {
+                return withRecentWrites(email, loaded);
+            }
+        }
+        // Patched inside compute: a concurrent update() either recorded its write before this runs
+        // or patches the stored set after it.
+        return entries.compute(email, (key, existing) -> {
+            FavoriteIdSet patched = withRecentWrites(email, loaded);
+            usedBytes.addAndGet(patched.sizeInBytes() - (existing == null ? 0 : existing.sizeInBytes()));
+            return patched;
+        });
+    }
+
+    /**
+     * {@code loaded} with this instance's writes from the last staleness window applied, for sets
+     * that are not stored (users above the per-user cap).
+     */
+    public FavoriteIdSet withRecentWrites(String email, FavoriteIdSet loaded) {
+        Map<Long, RecentWrite> writes = recentWrites.get(email);
+        if (writes == null) {
+            return loaded;
+        }
+        long now = clock.millis();
+        FavoriteIdSet patched = loaded;
+        for (Map.Entry<Long, RecentWrite> write : writes.entrySet()) {
+            if (!isExpired(write.getValue().atMillis(), now)) {
+                patched = patched.with(write.getKey(), write.getValue().favorited());
+            }
+        }
+        return patched;
+    }
+
+    /**
+     * Records a favorite write on this instance and patches the user's set if it is cached.
+     */
+    public void update(String email, long productId, boolean favorited) {
+        recentWrites
+                .computeIfAbsent(email, key -> new ConcurrentHashMap<>())
+                .put(productId, new RecentWrite(favorited, clock.millis()));
+        entries.computeIfPresent(email, (key, existing) -> {
+            FavoriteIdSet updated = existing.with(productId, favorited);
+            usedBytes.addAndGet(updated.sizeInBytes() - existing.sizeInBytes());
+            return updated;
+        });
+    }
+
+    /**
+     * Forgets writes older than the staleness window; any set loaded since then already has them.
+     */
+    @Scheduled(fixedDelayString = "PT30S", initialDelayString = "PT30S")
+    public void pruneRecentWrites() {
+        long now = clock.millis();
+        recentWrites.forEach((email, writes) -> {
+            writes.values().removeIf(write -> isExpired(write.atMillis(), now));
+            recentWrites.computeIfPresent(email, (key, current) -> current.isEmpty() ? null : current);
+        });
+    }
+
+    long usedBytes() {
+        return usedBytes.get();
+    }
+
+    private boolean hasRoomFor(long bytes) {
+        return usedBytes.get() + bytes <= properties.getMaxSize().toBytes();
+    }
+
+    private void sweepExpired() {
+        long now = clock.millis();
+        entries.forEach((email, set) -> {
+            if (isExpired(set, now) && entries.remove(email, set)) {
+                usedBytes.addAndGet(-set.sizeInBytes());
+            }
+        });
+    }
+
+    private boolean isExpired(FavoriteIdSet set, long now) {
+        return isExpired(set.loadedAtMillis(), now);
+    }
+
+    private boolean isExpired(long atMillis, long now) {
+        return now - atMillis >= properties.getStaleness().toMillis();
+    }
+
+    private record RecentWrite(boolean favorited, long atMillis) {}
+}
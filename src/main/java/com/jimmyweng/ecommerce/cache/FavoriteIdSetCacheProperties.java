@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "cache.favorite-ids")
+public class FavoriteIdSetCacheProperties {
+
+    /**
+     * Whether per-user favorite id sets are kept in memory. When off, every flagged listing runs
+     * one query for the ids on the page.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a set is used before it is reloaded. Favorite writes on this instance patch the
+     * set immediately and are applied over sets loaded for this long afterwards, so this bounds how
+     * long writes made through other instances stay invisible and how much replica lag is covered.
+     */
+    private Duration staleness = Duration.ofSeconds(30);
+
+    /**
+     * Memory budget for all sets together; new users are not admitted once it is used up.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Users with more favorites than this are not cached; their flags are looked up per page.
+     */
+    private int maxIdsPerUser = 10_000;
+}
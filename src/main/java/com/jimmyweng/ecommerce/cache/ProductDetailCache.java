@@ -0,0 +1,212 @@
+package com.jimmyweng.ecommerce.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.service.product.ProductQueryService;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Per-product cache of serialized {@link ProductResponse} bytes. Hits are served without touching
+ * a transaction or a connection; entries older than the configured staleness are reloaded from a
+ * replica. Admin writes leave a version tombstone so a lagging replica cannot re-admit the
+ * previous version.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final ProductQueryService productQueryService;
+    private final ObjectMapper objectMapper;
+    private final ProductDetailCacheProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<Long, CachedProductDetail> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Tombstone> tombstones = new ConcurrentHashMap<>();
+    private final Object trimLock = new Object();
+
+    public ProductDetailCache(
+            ProductQueryService productQueryService,
+            ObjectMapper objectMapper,
+            ProductDetailCacheProperties properties,
+            Clock clock) {
+        this.productQueryService = productQueryService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public CachedProductDetail get(Long productId) {
+        return getIfFresh(productId).orElseGet(() -> load(productId));
+    }
+
+    /**
+     * Resolves each distinct id in request order. Fresh entries come from memory; every miss is
+     * loaded with a single IN query. Ids that do not resolve to an active product are absent from
+     * the returned map.
+     */
+    public Map<Long, CachedProductDetail> getAll(List<Long> productIds) {
+        Map<Long, CachedProductDetail> details = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (details.containsKey(productId)) {
+                continue;
+            }
+            Optional<CachedProductDetail> cached = getIfFresh(productId);
+            details.put(productId, cached.orElse(null));
+            if (cached.isEmpty()) {
+                misses.add(productId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Product product : productQueryService.getProducts(misses)) {
+                details.put(product.getId(), store(product));
+            }
+            for (Long productId : misses) {
+                if (details.get(productId) == null) {
+                    details.remove(productId);
+                    entries.remove(productId);
+                }
+            }
+        }
+        return details;
+    }
+
+    public Optional<CachedProductDetail> getIfFresh(Long productId) {
+        CachedProductDetail cached = entries.get(productId);
+        if (cached == null || clock.millis() - cached.loadedAtMillis() >= properties.getStaleness().toMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Serializes a freshly loaded product and admits it unless a newer version is cached or
+     * tombstoned; admitting past the size bound trims the cache. The serialized detail is returned
+     * either way.
+     */
+    public CachedProductDetail store(Product product) {
+        CachedProductDetail detail = serialize(product);
+        if (!properties.isEnabled()) {
+            return detail;
+        }
+
+        entries.compute(product.getId(), (id, existing) -> {
+            if (existing != null && existing.version() > detail.version()) {
+                return existing;
+            }
+            return isBelowTombstone(id, detail.version()) ? existing : detail;
+        });
+        if (entries.size() > properties.getMaxEntries()) {
+            trim();
+        }
+        return detail;
+    }
+
+    /**
+     * Called by admin writes with the version they committed. Cached versions below it are dropped
+     * and stay inadmissible until the tombstone expires.
+     */
+    public void evict(Long productId, Long committedVersion) {
+        evictAll(Map.of(productId, committedVersion));
+    }
+
+    /**
+     * Bulk form of {@link #evict} for imports: one pass over the tombstones for the whole batch of
+     * committed versions, keyed by product id.
+     */
+    public void evictAll(Map<Long, Long> committedVersions) {
+        long now = clock.millis();
+        long expiresAtMillis = now + properties.getTombstoneRetention().toMillis();
+        tombstones.values().removeIf(tombstone -> tombstone.expiresAtMillis() <= now);
+        committedVersions.forEach((productId, committedVersion) -> {
+            tombstones.merge(
+                    productId,
+                    new Tombstone(committedVersion, expiresAtMillis),
+                    (current, next) -> current.version() > next.version() ? current : next);
+            entries.computeIfPresent(
+                    productId, (id, existing) -> existing.version() < committedVersion ? null : existing);
+        });
+    }
+
+    private CachedProductDetail load(Long productId) {
+        try {
+            return store(productQueryService.getProduct(productId));
+        } catch (ResourceNotFoundException ex) {
+            entries.remove(productId);
+            throw ex;
+        }
+    }
+
+    /**
+     * Stale entries are never served, so they go first. If the cache is still over its bound, the
+     * least recently loaded entries are dropped down to 90% of it, so a full cache trims once per
+     * tenth of its capacity rather than on every admission.
+     */
+    private void trim() {
+        synchronized (trimLock) {
+            int maxEntries = properties.getMaxEntries();
+            if (entries.size() <= maxEntries) {
+                return;
+            }
+            long now = clock.millis();
+            long stalenessMillis = properties.getStaleness().toMillis();
+            entries.values().removeIf(cached -> now - cached.loadedAtMillis() >= stalenessMillis);
+            int excess = entries.size() - (maxEntries - maxEntries / 10);
+            if (excess <= 0) {
+                return;
+            }
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAtMillis()))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> entries.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private boolean isBelowTombstone(Long productId, Long version) {
+        Tombstone tombstone = tombstones.get(productId);
+        if (tombstone == null) {
+            return false;
+        }
+        if (version >= tombstone.version()) {
+            tombstones.remove(productId, tombstone);
+            return false;
+        }
+        return tombstone.expiresAtMillis() > clock.millis();
+    }
+
+    private CachedProductDetail serialize(Product product) {
+        try {
+            SerializedString json = new SerializedString(
+                    objectMapper.writeValueAsString(ProductResponse.from(product)));
+            // Encode the UTF-8 form now so every response copies bytes instead of re-encoding.
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json.asUnquotedUTF8()) + "\"";
+            return new CachedProductDetail(
+                    product.getId(),
+                    product.getVersion(),
+                    product.getCategory(),
+                    product.getUpdatedAt(),
+                    etag,
+                    new RawValue(json),
+                    clock.millis());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize product " + product.getId(), ex);
+        }
+    }
+
+    private record Tombstone(Long version, long expiresAtMillis) {}
+}
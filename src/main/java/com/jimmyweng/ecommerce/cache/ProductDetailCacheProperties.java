@@ -0,0 +1,36 @@
+package com.jimmyweng.ecommerce.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "cache.product-detail")
+public class ProductDetailCacheProperties {
+
+    /**
+     * Whether product detail responses are cached in memory.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a cached entry is served before it is reloaded. Checkout decrements stock without
+     * bumping the product version, so this is the upper bound on how stale a displayed stock can be.
+     */
+    private Duration staleness = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of cached products. Admitting past it drops stale entries, then the least
+     * recently loaded ones.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * How long an admin write keeps older versions out of the cache. Should exceed replica lag.
+     */
+    private Duration tombstoneRetention = Duration.ofMinutes(1);
+}
@@ -0,0 +1,33 @@
+package com.jimmyweng.ecommerce.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Port the actuator's own server listens on once {@code management.server.port} starts it. The
+ * management context shares the application's security filter chain, so rules that only apply to
+ * the internal port match on the request's local port.
+ */
+@Component
+public class ManagementServerPort implements ApplicationListener<WebServerInitializedEvent> {
+
+    private static final String MANAGEMENT_NAMESPACE = "management";
+
+    private volatile int port = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (MANAGEMENT_NAMESPACE.equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    /**
+     * False while no separate management server runs, so nothing is relaxed on the API port.
+     */
+    public boolean matches(HttpServletRequest request) {
+        return port > 0 && request.getLocalPort() == port;
+    }
+}
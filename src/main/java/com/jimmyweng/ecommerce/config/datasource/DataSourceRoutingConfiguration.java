@@ -1,13 +1,18 @@
 package com.jimmyweng.ecommerce.config.datasource;
 
 import com.jimmyweng.ecommerce.datasource.ReadReplicaRoutingDataSource;
+import com.jimmyweng.ecommerce.datasource.profiling.ProfilingDataSource;
+import com.jimmyweng.ecommerce.datasource.profiling.SqlProfilingProperties;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -22,17 +27,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Configuration
-@EnableConfigurationProperties(ReadReplicaProperties.class)
+@EnableConfigurationProperties({ReadReplicaProperties.class, ExportDataSourceProperties.class})
 public class DataSourceRoutingConfiguration {
 
     private static final Logger log = LoggerFactory.getLogger(DataSourceRoutingConfiguration.class);
 
     public static final String PRIMARY_KEY = "PRIMARY";
+    public static final String EXPORT_DATA_SOURCE = "exportDataSource";
 
     @Bean
     @ConfigurationProperties("spring.datasource.hikari")
     public HikariDataSource primaryDataSource(DataSourceProperties properties) {
-        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Named before the pool starts, so its metrics are tagged pool=PrimaryPool unless overridden.
+        dataSource.setPoolName("PrimaryPool");
+        return dataSource;
     }
 
     @Bean
@@ -40,13 +49,12 @@ public class DataSourceRoutingConfiguration {
     public DataSource dataSource(
             DataSourceProperties properties,
             ReadReplicaProperties readReplicaProperties,
-            DataSource primaryDataSource,
-            Environment environment) {
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            SqlProfilingProperties sqlProfilingProperties) {
 
-        List<ReadReplicaProperties.Replica> replicas = new ArrayList<>(readReplicaProperties.getNodes());
-        if (replicas.isEmpty()) {
-            replicas.addAll(loadReplicasFromEnvironment(environment, properties));
-        }
+        List<ReadReplicaProperties.Replica> replicas = resolveReplicas(readReplicaProperties, environment, properties);
 
         if (log.isDebugEnabled()) {
             log.debug("Primary datasource configured for URL={}", properties.determineUrl());
@@ -57,8 +65,11 @@ public class DataSourceRoutingConfiguration {
             }
         }
 
+        // Targets are wrapped one by one, so a profiled statement knows which of them served it.
+        boolean profiling = sqlProfilingProperties.isEnabled();
+        DataSource primaryTarget = profiling ? new ProfilingDataSource(PRIMARY_KEY, primaryDataSource) : primaryDataSource;
         Map<Object, Object> targetDataSources = new HashMap<>();
-        targetDataSources.put(PRIMARY_KEY, primaryDataSource);
+        targetDataSources.put(PRIMARY_KEY, primaryTarget);
 
         List<String> replicaKeys = new ArrayList<>();
         AtomicInteger replicaIndex = new AtomicInteger(1);
@@ -69,15 +80,12 @@ public class DataSourceRoutingConfiguration {
             }
 
             String key = "REPLICA_" + replicaIndex.getAndIncrement();
-            DataSource replicaDataSource = buildReplicaDataSource(properties, replica);
-            targetDataSources.put(key, replicaDataSource);
+            DataSource replicaDataSource = buildReplicaDataSource(properties, replica, meterRegistry);
+            targetDataSources.put(key, profiling ? new ProfilingDataSource(key, replicaDataSource) : replicaDataSource);
             replicaKeys.add(key);
         }
 
         if (log.isInfoEnabled() && primaryDataSource instanceof HikariDataSource hikariPrimary) {
-            if (!StringUtils.hasText(hikariPrimary.getPoolName())) {
-                hikariPrimary.setPoolName("PrimaryPool");
-            }
             log.info(
                     "Primary Hikari pool initialized with maxPoolSize={} minIdle={} poolName={}",
                     hikariPrimary.getMaximumPoolSize(),
@@ -85,15 +93,73 @@ public class DataSourceRoutingConfiguration {
                     hikariPrimary.getPoolName());
         }
 
-        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(replicaKeys);
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(replicaKeys, meterRegistry);
         routingDataSource.setTargetDataSources(targetDataSources);
-        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.setDefaultTargetDataSource(primaryTarget);
         routingDataSource.afterPropertiesSet();
         return new LazyConnectionDataSourceProxy(routingDataSource);
     }
 
+    /**
+     * Small, read-only pool for long-running streaming exports. It is not part of the routing
+     * datasource, so a slow export client can never hold a connection that interactive reads need.
+     */
+    @Bean(name = EXPORT_DATA_SOURCE)
+    public HikariDataSource exportDataSource(
+            DataSourceProperties properties,
+            ReadReplicaProperties readReplicaProperties,
+            ExportDataSourceProperties exportProperties,
+            Environment environment) {
+
+        ReadReplicaProperties.Replica source = resolveReplicas(readReplicaProperties, environment, properties).stream()
+                .filter(ReadReplicaProperties.Replica::isConfigured)
+                .filter(replica -> !StringUtils.hasText(exportProperties.getReplica())
+                        || exportProperties.getReplica().equals(replica.getName()))
+                .findFirst()
+                .orElse(null);
+
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class);
+        if (source != null) {
+            builder.url(source.getUrl());
+            builder.username(StringUtils.hasText(source.getUsername()) ? source.getUsername() : properties.getUsername());
+            builder.password(StringUtils.hasText(source.getPassword()) ? source.getPassword() : properties.getPassword());
+        } else {
+            builder.url(properties.determineUrl());
+            builder.username(properties.determineUsername());
+            builder.password(properties.determinePassword());
+        }
+        if (StringUtils.hasText(properties.getDriverClassName())) {
+            builder.driverClassName(properties.getDriverClassName());
+        }
+
+        HikariDataSource dataSource = builder.build();
+        dataSource.setMaximumPoolSize(exportProperties.getPoolSize());
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionTimeout(exportProperties.getConnectionTimeout().toMillis());
+        dataSource.setPoolName("ExportPool");
+
+        if (log.isInfoEnabled()) {
+            log.info(
+                    "Export Hikari pool initialized (source={}, maxPoolSize={})",
+                    source != null ? source.getName() : PRIMARY_KEY,
+                    dataSource.getMaximumPoolSize());
+        }
+        return dataSource;
+    }
+
+    private List<ReadReplicaProperties.Replica> resolveReplicas(
+            ReadReplicaProperties readReplicaProperties, Environment environment, DataSourceProperties properties) {
+        List<ReadReplicaProperties.Replica> replicas = new ArrayList<>(readReplicaProperties.getNodes());
+        if (replicas.isEmpty()) {
+            replicas.addAll(loadReplicasFromEnvironment(environment, properties));
+        }
+        return replicas;
+    }
+
     private DataSource buildReplicaDataSource(DataSourceProperties primaryProperties,
-                                              ReadReplicaProperties.Replica replica) {
+                                              ReadReplicaProperties.Replica replica,
+                                              MeterRegistry meterRegistry) {
 
         DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class);
         builder.url(replica.getUrl());
@@ -112,6 +178,8 @@ public class DataSourceRoutingConfiguration {
         dataSource.setMaximumPoolSize(50);
         dataSource.setMinimumIdle(20);
         dataSource.setPoolName("ReplicaPool-" + replica.getName());
+        // Replica pools are not beans, so Boot's Hikari metrics binder never sees them.
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
 
         if (log.isInfoEnabled()) {
             log.info(
@@ -0,0 +1,34 @@
+package com.jimmyweng.ecommerce.config.datasource;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "app.export")
+public class ExportDataSourceProperties {
+
+    /**
+     * Name of the replica that serves bulk exports; the first configured replica when blank, the
+     * primary when no replica is configured.
+     */
+    private String replica;
+
+    /**
+     * Connections in the dedicated export pool, which is also the number of concurrent exports.
+     */
+    private int poolSize = 2;
+
+    /**
+     * JDBC fetch size for the export cursor. {@code Integer.MIN_VALUE} makes MySQL Connector/J
+     * stream rows one at a time instead of buffering the whole result set.
+     */
+    private int fetchSize = Integer.MIN_VALUE;
+
+    /**
+     * How long an export waits for a pooled connection before failing.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+}
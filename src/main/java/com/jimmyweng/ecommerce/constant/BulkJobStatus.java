@@ -0,0 +1,7 @@
+package com.jimmyweng.ecommerce.constant;
+
+public enum BulkJobStatus {
+    RUNNING,
+    FAILED,
+    COMPLETED
+}
@@ -10,15 +10,30 @@ public final class ErrorMessages {
     public static final String ACCESS_DENIED = "Access is denied";
     public static final String VALIDATION_FAILED = "Validation failed";
     public static final String UNEXPECTED_ERROR = "Unexpected error";
+    public static final String EXPORT_CAPACITY_EXCEEDED = "Too many exports in progress, retry later";
+    public static final String BULK_JOB_PAYLOAD_MISMATCH = "Resumed items do not match the original bulk job";
+    public static final String BULK_JOB_ALREADY_COMPLETED = "Bulk job already completed";
+    public static final String BULK_JOB_CHECKPOINT_MOVED = "Bulk job is being resumed by another request";
+    public static final String INVALID_CURSOR = "Invalid or expired page cursor";
+    public static final String INVALID_PRICE_RANGE = "minPrice must not be greater than maxPrice";
+    public static final String LISTING_OPTIONS_WITH_SEARCH =
+            "Price and stock filters, sort and cursor cannot be combined with search";
+    private static final String UNKNOWN_SORT_PREFIX = "Unknown sort: ";
     private static final String PRODUCT_NOT_FOUND_PREFIX = "Product not found: ";
     private static final String OUT_OF_STOCK_PREFIX = "Product out of stock: ";
     private static final String USER_NOT_FOUND_PREFIX = "User not found: ";
     private static final String ORDER_NOT_FOUND_PREFIX = "Order not found: ";
+    private static final String BULK_JOB_NOT_FOUND_PREFIX = "Bulk job not found: ";
+    private static final String FAVORITE_NOT_FOUND_PREFIX = "Favorite not found: ";
 
     public static String productNotFound(long productId) {
         return PRODUCT_NOT_FOUND_PREFIX + productId;
     }
 
+    public static String unknownSort(String sort) {
+        return UNKNOWN_SORT_PREFIX + sort;
+    }
+
     public static String outOfStock(long productId) {
         return OUT_OF_STOCK_PREFIX + productId;
     }
@@ -30,4 +45,12 @@ public final class ErrorMessages {
     public static String orderNotFound(long orderId) {
         return ORDER_NOT_FOUND_PREFIX + orderId;
     }
+
+    public static String bulkJobNotFound(long jobId) {
+        return BULK_JOB_NOT_FOUND_PREFIX + jobId;
+    }
+
+    public static String favoriteNotFound(long productId) {
+        return FAVORITE_NOT_FOUND_PREFIX + productId;
+    }
 }
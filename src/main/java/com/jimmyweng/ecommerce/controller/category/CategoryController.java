@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.controller.category;
+
+import com.jimmyweng.ecommerce.config.OpenApiConfig;
+import com.jimmyweng.ecommerce.controller.category.dto.CategoryListResponse;
+import com.jimmyweng.ecommerce.controller.common.doc.CategoryListEnvelopeDoc;
+import com.jimmyweng.ecommerce.service.catalog.CategoryFacets;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/categories")
+public class CategoryController {
+
+    private final CategoryFacets categoryFacets;
+
+    public CategoryController(CategoryFacets categoryFacets) {
+        this.categoryFacets = categoryFacets;
+    }
+
+    @Operation(
+            summary = "List categories with their active product counts",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Categories with at least one active product, by name",
+                content = @Content(schema = @Schema(implementation = CategoryListEnvelopeDoc.class)))
+    })
+    @GetMapping
+    public CategoryListResponse listCategories() {
+        return CategoryListResponse.from(categoryFacets.categories());
+    }
+}
@@ -0,0 +1,11 @@
+package com.jimmyweng.ecommerce.controller.category.dto;
+
+import com.jimmyweng.ecommerce.repository.product.CategoryCount;
+import java.util.List;
+
+public record CategoryListResponse(List<CategoryResponse> items) {
+
+    public static CategoryListResponse from(List<CategoryCount> counts) {
+        return new CategoryListResponse(counts.stream().map(CategoryResponse::from).toList());
+    }
+}
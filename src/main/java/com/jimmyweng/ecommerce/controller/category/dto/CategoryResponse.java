@@ -0,0 +1,10 @@
+package com.jimmyweng.ecommerce.controller.category.dto;
+
+import com.jimmyweng.ecommerce.repository.product.CategoryCount;
+
+public record CategoryResponse(String name, long productCount) {
+
+    public static CategoryResponse from(CategoryCount count) {
+        return new CategoryResponse(count.category(), count.productCount());
+    }
+}
@@ -1,10 +1,8 @@
 package com.jimmyweng.ecommerce.controller.common.doc;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import com.jimmyweng.ecommerce.controller.favorite.dto.FavoriteListResponse;
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.util.List;
 import java.util.Map;
 
 @Schema(name = "FavoriteListEnvelope")
@@ -12,5 +10,5 @@ public record FavoriteListEnvelopeDoc(
         @JsonProperty("ret_code")
         @Schema(example = "0") int retCode,
         @Schema(example = "OK") String msg,
-        @ArraySchema(schema = @Schema(implementation = ProductResponse.class)) List<ProductResponse> data,
+        @Schema(implementation = FavoriteListResponse.class) FavoriteListResponse data,
         @Schema(example = "{'timestamp':'2024-01-01T00:00:00Z'}") Map<String, Object> meta) {}
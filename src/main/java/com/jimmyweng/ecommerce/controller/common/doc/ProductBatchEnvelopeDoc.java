@@ -0,0 +1,23 @@
+package com.jimmyweng.ecommerce.controller.common.doc;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "ProductBatchEnvelope")
+public record ProductBatchEnvelopeDoc(
+        @JsonProperty("ret_code")
+        @Schema(example = "0") int retCode,
+        @Schema(example = "OK") String msg,
+        ProductBatchData data,
+        @Schema(example = "{'timestamp':'2024-01-01T00:00:00Z'}") Map<String, Object> meta) {
+
+    @Schema(name = "ProductBatch")
+    public record ProductBatchData(
+            @ArraySchema(schema = @Schema(implementation = ProductResponse.class)) List<ProductResponse> items,
+            @Schema(description = "Requested ids that are unknown or deleted", example = "[42]")
+                    List<Long> missingIds) {}
+}
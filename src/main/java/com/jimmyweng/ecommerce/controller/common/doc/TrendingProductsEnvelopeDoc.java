@@ -0,0 +1,29 @@
+package com.jimmyweng.ecommerce.controller.common.doc;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "TrendingProductsEnvelope")
+public record TrendingProductsEnvelopeDoc(
+        @JsonProperty("ret_code")
+        @Schema(example = "0") int retCode,
+        @Schema(example = "OK") String msg,
+        TrendingProductsData data,
+        @Schema(example = "{'timestamp':'2024-01-01T00:00:00Z'}") Map<String, Object> meta) {
+
+    @Schema(name = "TrendingProducts")
+    public record TrendingProductsData(
+            @Schema(description = "Requested category, or null for all categories", example = "games")
+                    String category,
+            @ArraySchema(schema = @Schema(implementation = TrendingItem.class)) List<TrendingItem> items) {}
+
+    @Schema(name = "TrendingProduct")
+    public record TrendingItem(
+            @Schema(description = "Time-decayed popularity; compare only within one response", example = "42.5")
+                    double score,
+            @Schema(implementation = ProductResponse.class) ProductResponse product) {}
+}
@@ -1,22 +1,27 @@
 package com.jimmyweng.ecommerce.controller.favorite;
 
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
 import com.jimmyweng.ecommerce.config.OpenApiConfig;
 import com.jimmyweng.ecommerce.controller.common.doc.EnvelopeErrorDoc;
 import com.jimmyweng.ecommerce.controller.common.doc.FavoriteListEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.common.doc.ProductResponseEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.favorite.dto.AddFavoriteRequest;
-import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import com.jimmyweng.ecommerce.controller.favorite.dto.FavoriteListResponse;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteCursor;
 import com.jimmyweng.ecommerce.service.favorite.FavoriteService;
 import com.jimmyweng.ecommerce.service.favorite.FavoriteService.AddFavoriteResult;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteService.FavoritePage;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.security.Principal;
-import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -27,6 +32,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,6 +42,8 @@ import org.springframework.web.bind.annotation.RestController;
 @PreAuthorize("hasRole('USER')")
 public class FavoriteController {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final FavoriteService favoriteService;
 
     public FavoriteController(FavoriteService favoriteService) {
@@ -50,6 +58,8 @@ public class FavoriteController {
                 content = @Content(schema = @Schema(implementation = ProductResponseEnvelopeDoc.class))),
         @ApiResponse(responseCode = "200", description = "Product already in favorites",
                 content = @Content(schema = @Schema(implementation = ProductResponseEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "202", description = "Accepted by write-behind mode; stored on the next flush",
+                content = @Content(schema = @Schema(implementation = ProductResponseEnvelopeDoc.class))),
         @ApiResponse(responseCode = "400", description = "Validation failed",
                 content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required",
@@ -58,30 +68,44 @@ public class FavoriteController {
                 content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
     })
     @PostMapping
-    public ResponseEntity<ProductResponse> addFavorite(
+    public ResponseEntity<CachedProductDetail> addFavorite(
             Principal principal, @Valid @RequestBody AddFavoriteRequest request) {
         AddFavoriteResult result = favoriteService.addFavorite(principal.getName(), request.productId());
-        HttpStatus status = result.created() ? HttpStatus.CREATED : HttpStatus.OK;
+        HttpStatus status = switch (result.outcome()) {
+            case CREATED -> HttpStatus.CREATED;
+            case ALREADY_FAVORITED -> HttpStatus.OK;
+            case QUEUED -> HttpStatus.ACCEPTED;
+        };
 
-        return ResponseEntity.status(status).body(ProductResponse.from(result.product()));
+        return ResponseEntity.status(status).body(result.product());
     }
 
     @Operation(
-            summary = "List favorite products for the authenticated user",
+            summary = "List favorite products for the authenticated user, newest first, one page at a time",
             security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Favorites retrieved",
                 content = @Content(schema = @Schema(implementation = FavoriteListEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required",
                 content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
     })
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> listFavorites(Principal principal) {
-        List<ProductResponse> favorites = favoriteService.listFavorites(principal.getName()).stream()
-                .map(ProductResponse::from)
-                .toList();
+    public ResponseEntity<FavoriteListResponse> listFavorites(
+            Principal principal,
+            @Parameter(description = "Opaque cursor from the previous page's pagination.nextCursor")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Page size", example = "20")
+                    @RequestParam(defaultValue = "20")
+                    @Min(1)
+                    @Max(MAX_PAGE_SIZE)
+                    int size) {
+        FavoriteCursor after = cursor == null || cursor.isBlank() ? null : FavoriteCursor.decode(cursor);
+        FavoritePage page = favoriteService.listFavorites(principal.getName(), after, size);
 
-        return ResponseEntity.ok(favorites);
+        return ResponseEntity.ok(FavoriteListResponse.from(page, size));
     }
 
     @Operation(
@@ -90,6 +114,8 @@ public class FavoriteController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Favorite removed"),
         @ApiResponse(responseCode = "401", description = "Authentication required",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "404", description = "Product is not in the user's favorites",
                 content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
     })
     @DeleteMapping("/{productId}")
@@ -0,0 +1,6 @@
+package com.jimmyweng.ecommerce.controller.favorite.dto;
+
+/**
+ * Keyset pagination state; pass {@code nextCursor} back as {@code cursor} to fetch the next page.
+ */
+public record CursorMetadata(int size, int numberOfElements, boolean hasNext, String nextCursor) {}
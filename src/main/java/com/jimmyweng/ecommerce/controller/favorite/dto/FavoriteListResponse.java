@@ -0,0 +1,20 @@
+package com.jimmyweng.ecommerce.controller.favorite.dto;
+
+import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteService.FavoritePage;
+import java.util.List;
+
+public record FavoriteListResponse(List<ProductResponse> items, CursorMetadata pagination) {
+
+    public static FavoriteListResponse from(FavoritePage page, int size) {
+        List<ProductResponse> responses = page.products().stream()
+                .map(ProductResponse::from)
+                .toList();
+        CursorMetadata metadata = new CursorMetadata(
+                size,
+                responses.size(),
+                page.next() != null,
+                page.next() != null ? page.next().encode() : null);
+        return new FavoriteListResponse(responses, metadata);
+    }
+}
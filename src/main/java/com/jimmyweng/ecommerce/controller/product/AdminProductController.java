@@ -1,34 +1,66 @@
 package com.jimmyweng.ecommerce.controller.product;
 
 import com.jimmyweng.ecommerce.config.OpenApiConfig;
+import com.jimmyweng.ecommerce.controller.common.doc.BulkAdjustmentEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.common.doc.EnvelopeErrorDoc;
+import com.jimmyweng.ecommerce.controller.common.doc.ProductImportEnvelopeDoc;
+import com.jimmyweng.ecommerce.controller.product.dto.BulkAdjustmentRequest;
 import com.jimmyweng.ecommerce.controller.product.dto.CreateProductRequest;
 import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
 import com.jimmyweng.ecommerce.controller.common.doc.ProductResponseEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.product.dto.UpdateProductRequest;
 import com.jimmyweng.ecommerce.model.product.Product;
 import com.jimmyweng.ecommerce.service.product.AdminProductService;
+import com.jimmyweng.ecommerce.service.product.ProductBulkAdjustmentService;
+import com.jimmyweng.ecommerce.service.product.ProductExportService;
+import com.jimmyweng.ecommerce.service.product.ProductExportService.ProductExport;
+import com.jimmyweng.ecommerce.service.product.ProductFileFormat;
+import com.jimmyweng.ecommerce.service.product.ProductImportService;
+import com.jimmyweng.ecommerce.service.product.dto.BulkAdjustmentResult;
 import com.jimmyweng.ecommerce.service.product.dto.CreateProductCommand;
+import com.jimmyweng.ecommerce.service.product.dto.ProductAdjustment;
+import com.jimmyweng.ecommerce.service.product.dto.ProductImportResult;
 import com.jimmyweng.ecommerce.service.product.dto.UpdateProductCommand;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
@@ -36,10 +68,22 @@ import org.springframework.web.bind.annotation.RestController;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminProductController {
 
+    private static final String EXPORT_SLOT_INTERCEPTOR = AdminProductController.class.getName() + ".exportSlot";
+
     private final AdminProductService adminProductService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductBulkAdjustmentService productBulkAdjustmentService;
 
-    public AdminProductController(AdminProductService adminProductService) {
+    public AdminProductController(
+            AdminProductService adminProductService,
+            ProductExportService productExportService,
+            ProductImportService productImportService,
+            ProductBulkAdjustmentService productBulkAdjustmentService) {
         this.adminProductService = adminProductService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.productBulkAdjustmentService = productBulkAdjustmentService;
     }
 
     @Operation(
@@ -117,4 +161,141 @@ public class AdminProductController {
     public void deleteProduct(@PathVariable Long productId) {
         adminProductService.deleteProduct(productId);
     }
+
+    @Operation(
+            summary = "Stream every active product as NDJSON or CSV",
+            description = "Rows are read through a forward-only cursor on a dedicated replica pool and "
+                    + "written as they arrive; the body is gzip-encoded when the client accepts it.",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export stream",
+                content = {
+                    @Content(mediaType = "application/x-ndjson"),
+                    @Content(mediaType = "text/csv")
+                }),
+        @ApiResponse(responseCode = "400", description = "Unsupported format",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "403", description = "Only admins may export products",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "503", description = "All export slots are busy",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Export format", example = "ndjson")
+                    @RequestParam(defaultValue = "ndjson")
+                    @Pattern(regexp = "(?i)ndjson|csv")
+                    String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        ProductFileFormat exportFormat = ProductFileFormat.fromParameter(format);
+        ProductExport export = productExportService.openExport(exportFormat);
+        // The body may never run (client gone before dispatch, async timeout, rejected executor);
+        // async completion fires in every case and returns the slot if the body did not.
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(
+                EXPORT_SLOT_INTERCEPTOR, new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        export.close();
+                    }
+                });
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getContentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(export::writeTo);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(out, 8192);
+            export.writeTo(gzipStream);
+            gzipStream.finish();
+        });
+    }
+
+    @Operation(
+            summary = "Create or update products from an NDJSON or CSV upload",
+            description = "Rows with an id update that product, rows without one create a product. The body is "
+                    + "read incrementally and written in batches that commit independently; rows that fail "
+                    + "validation or are rejected by the database are listed in the report. Send "
+                    + "Content-Encoding: gzip to upload a compressed file.",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import report, including per-row errors",
+                content = @Content(schema = @Schema(implementation = ProductImportEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "400", description = "CSV header is missing required columns",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "403", description = "Only admins may import products",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "415", description = "Body is neither application/x-ndjson nor text/csv",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ProductImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        boolean gzip = contentEncoding != null && contentEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        InputStream in = gzip ? new GZIPInputStream(body, 8192) : body;
+        ProductImportResult result =
+                productImportService.importProducts(ProductFileFormat.fromContentType(contentType), in);
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(
+            summary = "Set price and/or stock for many products",
+            description = "Items are applied in order, in chunks that each commit with the job checkpoint. Items "
+                    + "with a version are skipped unless the product is still at that version. If a run fails, "
+                    + "resubmit the same items with resumeJobId to continue from the last committed chunk.",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Job completed; counters include version conflicts and "
+                        + "unknown products",
+                content = @Content(schema = @Schema(implementation = BulkAdjustmentEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "400", description = "Validation failed",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "403", description = "Only admins may adjust products",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "404", description = "Resumed job not found",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "409", description = "Items differ from the resumed job, or it is being resumed "
+                        + "concurrently",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @PostMapping("/bulk-adjustments")
+    public ResponseEntity<BulkAdjustmentResult> adjustProducts(@Valid @RequestBody BulkAdjustmentRequest request) {
+        List<ProductAdjustment> adjustments = request.items().stream()
+                .map(item -> new ProductAdjustment(item.productId(), item.price(), item.stock(), item.version()))
+                .toList();
+        return ResponseEntity.ok(productBulkAdjustmentService.adjust(adjustments, request.resumeJobId()));
+    }
+
+    @Operation(
+            summary = "Get the progress and throughput of a bulk adjustment job",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Job progress",
+                content = @Content(schema = @Schema(implementation = BulkAdjustmentEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "403", description = "Only admins may view bulk jobs",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @GetMapping("/bulk-adjustments/{jobId}")
+    public ResponseEntity<BulkAdjustmentResult> getAdjustmentJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(productBulkAdjustmentService.getJob(jobId));
+    }
 }
@@ -1,14 +1,31 @@
 package com.jimmyweng.ecommerce.controller.product;
 
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+import com.jimmyweng.ecommerce.cache.FavoriteIdSet;
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
 import com.jimmyweng.ecommerce.config.OpenApiConfig;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
 import com.jimmyweng.ecommerce.controller.common.doc.EnvelopeErrorDoc;
+import com.jimmyweng.ecommerce.controller.common.doc.ProductBatchEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.common.doc.ProductListEnvelopeDoc;
 import com.jimmyweng.ecommerce.controller.common.doc.ProductResponseEnvelopeDoc;
+import com.jimmyweng.ecommerce.controller.common.doc.TrendingProductsEnvelopeDoc;
+import com.jimmyweng.ecommerce.controller.product.dto.ProductBatchResponse;
 import com.jimmyweng.ecommerce.controller.product.dto.ProductListResponse;
-import com.jimmyweng.ecommerce.controller.product.dto.ProductResponse;
+import com.jimmyweng.ecommerce.controller.product.dto.TrendingProductsResponse;
+import com.jimmyweng.ecommerce.exception.InvalidListingQueryException;
+import com.jimmyweng.ecommerce.framework.ApiResponseEnvelopeAdvice;
 import com.jimmyweng.ecommerce.logging.LogExecution;
 import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import com.jimmyweng.ecommerce.service.catalog.CategoryFacets;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteCounter;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteService;
+import com.jimmyweng.ecommerce.service.product.ProductCursor;
 import com.jimmyweng.ecommerce.service.product.ProductQueryService;
+import com.jimmyweng.ecommerce.service.product.dto.ProductListingCriteria;
+import com.jimmyweng.ecommerce.service.trending.TrendingProduct;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,26 +33,63 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Validated
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    public static final int MAX_BATCH_IDS = 100;
+    public static final int MAX_TRENDING_LIMIT = 50;
+
     private final ProductQueryService productQueryService;
+    private final ProductDetailCache productDetailCache;
+    private final FavoriteCounter favoriteCounter;
+    private final FavoriteService favoriteService;
+    private final TrendingService trendingService;
+    private final CategoryFacets categoryFacets;
 
-    public ProductController(ProductQueryService productQueryService) {
+    public ProductController(
+            ProductQueryService productQueryService,
+            ProductDetailCache productDetailCache,
+            FavoriteCounter favoriteCounter,
+            FavoriteService favoriteService,
+            TrendingService trendingService,
+            CategoryFacets categoryFacets) {
         this.productQueryService = productQueryService;
+        this.productDetailCache = productDetailCache;
+        this.favoriteCounter = favoriteCounter;
+        this.favoriteService = favoriteService;
+        this.trendingService = trendingService;
+        this.categoryFacets = categoryFacets;
     }
 
     @Operation(
@@ -43,11 +97,15 @@ public class ProductController {
             security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Products retrieved",
-                content = @Content(schema = @Schema(implementation = ProductListEnvelopeDoc.class)))
+                content = @Content(schema = @Schema(implementation = ProductListEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the supplied ETag"),
+        @ApiResponse(responseCode = "400", description = "Unknown sort, invalid price range or cursor, or options combined with search",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
     })
     @LogExecution
     @GetMapping
-    public ProductListResponse listProducts(
+    public ResponseEntity<ProductListResponse> listProducts(
+            @Parameter(hidden = true) Principal principal,
             @Parameter(description = "Page number (0-indexed)", example = "0")
                     @RequestParam(defaultValue = "0")
                     @Min(0)
@@ -59,11 +117,91 @@ public class ProductController {
             @Parameter(description = "Filter by category") @RequestParam(required = false) String category,
             @Parameter(description = "Keyword search across title and description")
                     @RequestParam(name = "search", required = false)
-                    String keyword) {
+                    String keyword,
+            @Parameter(description = "Lowest price, inclusive", example = "10.00")
+                    @RequestParam(required = false)
+                    @DecimalMin("0.0")
+                    BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive", example = "99.99")
+                    @RequestParam(required = false)
+                    @DecimalMin("0.0")
+                    BigDecimal maxPrice,
+            @Parameter(description = "Only products with stock left") @RequestParam(defaultValue = "false")
+                    boolean inStock,
+            @Parameter(description = "newest, price_asc or price_desc; only newest with search", example = "price_asc")
+                    @RequestParam(defaultValue = "newest")
+                    String sort,
+            @Parameter(description = "Opaque cursor from the previous page's pagination.nextCursor; replaces page")
+                    @RequestParam(required = false)
+                    String cursor) {
+        ProductSort productSort = ProductSort.fromParam(sort)
+                .orElseThrow(() -> new InvalidListingQueryException(ErrorMessages.unknownSort(sort)));
         Pageable pageable = PageRequest.of(page, size);
-        Slice<Product> sliceResult = productQueryService.listProducts(category, keyword, pageable);
+        Slice<Product> sliceResult = productQueryService.listProducts(
+                new ProductListingCriteria(category, keyword, minPrice, maxPrice, inStock, productSort, cursor), pageable);
+        List<Long> productIds = sliceResult.map(Product::getId).getContent();
+        Map<Long, Long> favoriteCounts = favoriteCounter.countsFor(productIds);
+        FavoriteIdSet favorites =
+                principal == null ? null : favoriteService.favoriteIds(principal.getName(), productIds);
+        boolean keyset = !StringUtils.hasText(keyword);
+        Long totalElements =
+                keyset && minPrice == null && maxPrice == null && !inStock ? totalActive(category) : null;
+        String nextCursor = keyset && sliceResult.hasNext()
+                ? ProductCursor.after(productSort, sliceResult.getContent().get(sliceResult.getNumberOfElements() - 1))
+                        .encode()
+                : null;
+
+        Instant newestChange = newestChange(sliceResult);
+        if (newestChange == null) {
+            return ResponseEntity.ok()
+                    .body(ProductListResponse.from(sliceResult, favoriteCounts, favorites, totalElements, nextCursor));
+        }
+        stampResponse(newestChange);
+        return withEtag(ResponseEntity.ok(), listingEtag(sliceResult, favoriteCounts, favorites, totalElements))
+                .body(ProductListResponse.from(sliceResult, favoriteCounts, favorites, totalElements, nextCursor));
+    }
 
-        return ProductListResponse.from(sliceResult);
+    @Operation(
+            summary = "Retrieve several products by id in request order",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Products resolved; unknown or deleted ids are listed in missingIds",
+                content = @Content(schema = @Schema(implementation = ProductBatchEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "400", description = "No ids, an empty id or more than " + MAX_BATCH_IDS + " ids",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @GetMapping("/batch")
+    public ProductBatchResponse getProducts(
+            @Parameter(description = "Comma-separated product ids", example = "1,2,3")
+                    @RequestParam
+                    @Size(min = 1, max = MAX_BATCH_IDS)
+                    List<@NotNull Long> ids) {
+        return ProductBatchResponse.from(ids, productDetailCache.getAll(ids));
+    }
+
+    @Operation(
+            summary = "Products trending by recent favorites and purchases",
+            security = @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Trending products, most popular first",
+                content = @Content(schema = @Schema(implementation = TrendingProductsEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "400", description = "Limit out of range",
+                content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
+    })
+    @GetMapping("/trending")
+    public TrendingProductsResponse getTrending(
+            @Parameter(description = "Restrict to one category") @RequestParam(required = false) String category,
+            @Parameter(description = "Number of products", example = "10")
+                    @RequestParam(defaultValue = "10")
+                    @Min(1)
+                    @Max(MAX_TRENDING_LIMIT)
+                    int limit) {
+        // Ask for spare candidates: products deleted since they trended are dropped below.
+        List<TrendingProduct> ranked = trendingService.top(category, limit * 2);
+        List<Long> productIds = ranked.stream().map(TrendingProduct::productId).toList();
+        Map<Long, CachedProductDetail> details =
+                productIds.isEmpty() ? Map.of() : productDetailCache.getAll(productIds);
+        return TrendingProductsResponse.from(category, ranked, details, limit);
     }
 
     @Operation(
@@ -72,11 +210,90 @@ public class ProductController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Product details",
                 content = @Content(schema = @Schema(implementation = ProductResponseEnvelopeDoc.class))),
+        @ApiResponse(responseCode = "304", description = "Product unchanged since the supplied ETag"),
         @ApiResponse(responseCode = "404", description = "Product not found",
                 content = @Content(schema = @Schema(implementation = EnvelopeErrorDoc.class)))
     })
     @GetMapping("/{productId}")
-    public ProductResponse getProduct(@PathVariable Long productId) {
-        return ProductResponse.from(productQueryService.getProduct(productId));
+    public ResponseEntity<CachedProductDetail> getProduct(
+            @Parameter(hidden = true) Principal principal, @PathVariable Long productId) {
+        CachedProductDetail detail = productDetailCache.get(productId);
+        if (principal != null) {
+            detail = detail.withFavorited(
+                    favoriteService.favoriteIds(principal.getName(), List.of(productId)).contains(productId));
+        }
+        stampResponse(detail.updatedAt());
+        return withEtag(ResponseEntity.ok(), detail.etag()).body(detail);
+    }
+
+    /**
+     * Spring answers a matching {@code If-None-Match} with 304 before the body is serialized.
+     * {@code no-cache} lets clients store the response but forces revalidation, since stock changes
+     * continuously. Authenticated callers get their own {@code favorited} flags, hence
+     * {@code Vary: Authorization}.
+     *
+     * <p>No Last-Modified is sent: a favorite toggle changes a detail's flag, and deletes, reorders,
+     * favorite counts, totals and flags change a listing page, all without moving the product
+     * change time, so an {@code If-Modified-Since} check would answer 304 for a different body.
+     */
+    private static ResponseEntity.BodyBuilder withEtag(ResponseEntity.BodyBuilder builder, String etag) {
+        return builder.cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .eTag(etag);
+    }
+
+    /**
+     * Stamps the envelope with the product (or newest page) change time instead of the wall clock,
+     * so the same ETag always means the same bytes. Empty listing pages have none and go out
+     * without a validator.
+     */
+    private static void stampResponse(Instant changedAt) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(ApiResponseEnvelopeAdvice.TIMESTAMP_ATTRIBUTE, changedAt, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Favorite counts and the caller's flags are part of the fingerprint, so a page whose counts or
+     * flags moved is not answered with 304. The total moves when products on other pages come and go, so it is included
+     * as well.
+     *
+     * <p>The fingerprint is taken from the loaded page, so a listing 304 still runs the page, count,
+     * flag and total lookups and saves only serialization and transfer. Answering before the query
+     * would need a cluster-wide watermark covering product, favorite and flag changes, which the
+     * catalog does not keep.
+     */
+    private static String listingEtag(
+            Slice<Product> slice, Map<Long, Long> favoriteCounts, FavoriteIdSet favorites, Long totalElements) {
+        StringBuilder fingerprint = new StringBuilder(32 + slice.getNumberOfElements() * 48)
+                .append(slice.getNumber()).append('/')
+                .append(slice.getSize()).append('/')
+                .append(slice.hasNext()).append('/')
+                .append(totalElements);
+        for (Product product : slice) {
+            fingerprint.append('|').append(product.getId())
+                    .append(':').append(product.getVersion())
+                    .append(':').append(product.getStock())
+                    .append(':').append(product.getUpdatedAt())
+                    .append(':').append(favoriteCounts.getOrDefault(product.getId(), 0L));
+            if (favorites != null) {
+                fingerprint.append(favorites.contains(product.getId()) ? ":f1" : ":f0");
+            }
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private Long totalActive(String category) {
+        OptionalLong total = categoryFacets.activeCount(StringUtils.hasText(category) ? category.trim() : null);
+        return total.isPresent() ? total.getAsLong() : null;
+    }
+
+    private static Instant newestChange(Slice<Product> slice) {
+        Instant latest = null;
+        for (Product product : slice) {
+            if (latest == null || product.getUpdatedAt().isAfter(latest)) {
+                latest = product.getUpdatedAt();
+            }
+        }
+        return latest;
     }
 }
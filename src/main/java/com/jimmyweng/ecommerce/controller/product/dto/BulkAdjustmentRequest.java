@@ -0,0 +1,35 @@
+package com.jimmyweng.ecommerce.controller.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BulkAdjustmentRequest(
+        @NotEmpty @Size(max = BulkAdjustmentRequest.MAX_ITEMS) List<@NotNull @Valid Item> items,
+        @Schema(description = "Job to continue; items must be identical to the original submission", example = "7")
+                Long resumeJobId) {
+
+    public static final int MAX_ITEMS = 250_000;
+
+    public record Item(
+            @NotNull Long productId,
+            @DecimalMin(value = "0.0", inclusive = false) BigDecimal price,
+            @Min(0) Integer stock,
+            @Schema(description = "Skip the row unless the product is still at this version; omit to skip the check")
+                    Long version) {
+
+        @JsonIgnore
+        @AssertTrue(message = "price or stock is required")
+        public boolean isAdjusting() {
+            return price != null || stock != null;
+        }
+    }
+}
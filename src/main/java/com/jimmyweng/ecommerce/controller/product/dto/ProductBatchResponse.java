@@ -0,0 +1,16 @@
+package com.jimmyweng.ecommerce.controller.product.dto;
+
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+import java.util.List;
+import java.util.Map;
+
+public record ProductBatchResponse(List<CachedProductDetail> items, List<Long> missingIds) {
+
+    public static ProductBatchResponse from(List<Long> requestedIds, Map<Long, CachedProductDetail> details) {
+        List<Long> missingIds = requestedIds.stream()
+                .distinct()
+                .filter(id -> !details.containsKey(id))
+                .toList();
+        return new ProductBatchResponse(List.copyOf(details.values()), missingIds);
+    }
+}
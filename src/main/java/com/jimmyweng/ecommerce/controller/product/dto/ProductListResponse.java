@@ -1,21 +1,39 @@
 package com.jimmyweng.ecommerce.controller.product.dto;
 
+import com.jimmyweng.ecommerce.cache.FavoriteIdSet;
 import com.jimmyweng.ecommerce.model.product.Product;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Slice;
 
 public record ProductListResponse(List<ProductResponse> items, SliceMetadata pagination) {
 
-    public static ProductListResponse from(Slice<Product> slice) {
+    /**
+     * Products missing from {@code favoriteCounts} have not been favorited yet and report 0.
+     * {@code favorites} is the caller's favorite id set, or {@code null} for anonymous callers, whose
+     * items carry no {@code favorited} flag. {@code totalElements} may be {@code null} when no exact
+     * total is known, {@code nextCursor} when the listing has no keyset cursor.
+     */
+    public static ProductListResponse from(
+            Slice<Product> slice,
+            Map<Long, Long> favoriteCounts,
+            FavoriteIdSet favorites,
+            Long totalElements,
+            String nextCursor) {
         List<ProductResponse> responses = slice.getContent().stream()
-                .map(ProductResponse::from)
+                .map(product -> ProductResponse.from(
+                        product,
+                        favoriteCounts.getOrDefault(product.getId(), 0L),
+                        favorites == null ? null : favorites.contains(product.getId())))
                 .toList();
         SliceMetadata metadata = new SliceMetadata(
                 slice.getNumber(),
                 slice.getSize(),
                 slice.getNumberOfElements(),
                 slice.hasNext(),
-                slice.hasPrevious());
+                slice.hasPrevious(),
+                totalElements,
+                nextCursor);
         return new ProductListResponse(responses, metadata);
     }
 }
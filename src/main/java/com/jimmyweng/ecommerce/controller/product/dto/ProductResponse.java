@@ -1,5 +1,6 @@
 package com.jimmyweng.ecommerce.controller.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.jimmyweng.ecommerce.model.product.Product;
 
 import java.math.BigDecimal;
@@ -15,9 +16,19 @@ public record ProductResponse(
         Instant createdAt,
         Instant updatedAt,
         Instant deletedAt,
-        Long version) {
+        Long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long favoriteCount,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean favorited) {
 
     public static ProductResponse from(Product product) {
+        return from(product, null, null);
+    }
+
+    /**
+     * {@code favoriteCount} is only set on listings and {@code favorited} only for authenticated
+     * callers; responses without them omit the fields.
+     */
+    public static ProductResponse from(Product product, Long favoriteCount, Boolean favorited) {
         return new ProductResponse(
                 product.getId(),
                 product.getTitle(),
@@ -28,6 +39,8 @@ public record ProductResponse(
                 product.getCreatedAt(),
                 product.getUpdatedAt(),
                 product.getDeletedAt(),
-                product.getVersion());
+                product.getVersion(),
+                favoriteCount,
+                favorited);
     }
 }
@@ -1,3 +1,18 @@
 package com.jimmyweng.ecommerce.controller.product.dto;
 
-public record SliceMetadata(int page, int size, int numberOfElements, boolean hasNext, boolean hasPrevious) {}
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * {@code totalElements} is only reported for listings without a keyword, price bounds or stock
+ * filter, where it comes from the in-memory category counts rather than a count query.
+ * {@code nextCursor} is set for keyword-less listings with another page; pass it back as
+ * {@code cursor}.
+ */
+public record SliceMetadata(
+        int page,
+        int size,
+        int numberOfElements,
+        boolean hasNext,
+        boolean hasPrevious,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long totalElements,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {}
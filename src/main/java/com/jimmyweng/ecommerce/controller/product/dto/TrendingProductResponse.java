@@ -0,0 +1,9 @@
+package com.jimmyweng.ecommerce.controller.product.dto;
+
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+
+/**
+ * {@code score} is the product's decayed popularity; only its order relative to other scores in
+ * the same response is meaningful.
+ */
+public record TrendingProductResponse(double score, CachedProductDetail product) {}
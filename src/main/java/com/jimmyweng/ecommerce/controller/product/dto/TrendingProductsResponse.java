@@ -0,0 +1,29 @@
+package com.jimmyweng.ecommerce.controller.product.dto;
+
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+import com.jimmyweng.ecommerce.service.trending.TrendingProduct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public record TrendingProductsResponse(String category, List<TrendingProductResponse> items) {
+
+    /**
+     * Keeps the ranking order and skips products without a detail (deleted since they trended),
+     * up to {@code limit} items.
+     */
+    public static TrendingProductsResponse from(
+            String category, List<TrendingProduct> ranked, Map<Long, CachedProductDetail> details, int limit) {
+        List<TrendingProductResponse> items = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (TrendingProduct trending : ranked) {
+            CachedProductDetail detail = details.get(trending.productId());
+            if (detail != null) {
+                items.add(new TrendingProductResponse(trending.score(), detail));
+                if (items.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return new TrendingProductsResponse(category, items);
+    }
+}
@@ -1,6 +1,8 @@
 package com.jimmyweng.ecommerce.datasource;
 
 import com.jimmyweng.ecommerce.config.datasource.DataSourceRoutingConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,11 +15,27 @@ public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
 
     private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
 
+    static final String ROUTING_METRIC = "datasource.routing";
+
     private final List<String> replicaKeys;
     private final AtomicInteger counter = new AtomicInteger();
+    // Registered up front and indexed like replicaKeys, so routing never does a meter lookup.
+    private final Counter primaryRoutes;
+    private final Counter[] replicaRoutes;
 
-    public ReadReplicaRoutingDataSource(List<String> replicaKeys) {
+    public ReadReplicaRoutingDataSource(List<String> replicaKeys, MeterRegistry meterRegistry) {
         this.replicaKeys = replicaKeys == null ? Collections.emptyList() : List.copyOf(replicaKeys);
+        this.primaryRoutes = routeCounter(meterRegistry, DataSourceRoutingConfiguration.PRIMARY_KEY);
+        this.replicaRoutes = this.replicaKeys.stream()
+                .map(key -> routeCounter(meterRegistry, key))
+                .toArray(Counter[]::new);
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder(ROUTING_METRIC)
+                .description("Connections routed by the read/write splitting datasource")
+                .tag("target", target)
+                .register(meterRegistry);
     }
 
     @Override
@@ -34,11 +52,12 @@ public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
                         readOnlyTx,
                         hasReplicas);
             }
+            primaryRoutes.increment();
             return DataSourceRoutingConfiguration.PRIMARY_KEY;
         }
 
-        int index = Math.abs(counter.getAndIncrement());
-        String key = replicaKeys.get(index % replicaKeys.size());
+        int index = Math.floorMod(counter.getAndIncrement(), replicaKeys.size());
+        String key = replicaKeys.get(index);
         if (log.isDebugEnabled()) {
             log.debug(
                     "Routing read-only transaction to {} (forcePrimary={}, readOnlyTx=true, replicaCount={})",
@@ -46,6 +65,7 @@ public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
                     forcePrimary,
                     replicaKeys.size());
         }
+        replicaRoutes[index].increment();
         return key;
     }
 }
@@ -0,0 +1,160 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps one routing target so statements run on its connections are charged to the current
+ * {@link SqlProfile} under that target's routing key. When the thread has no profile (the request
+ * was not sampled), the pooled connection is returned as is.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final String routingKey;
+
+    public ProfilingDataSource(String routingKey, DataSource target) {
+        super(target);
+        this.routingKey = routingKey;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection profiled(Connection connection) {
+        SqlProfile profile = SqlProfile.current();
+        if (profile == null) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, routingKey, profile));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        private final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Hibernate keeps statements in hash-based registries, so identity must be the proxy's.
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handle(method, args);
+            };
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+
+        private final String routingKey;
+        private final SqlProfile profile;
+
+        ConnectionHandler(Connection target, String routingKey, SqlProfile profile) {
+            super(target);
+            this.routingKey = routingKey;
+            this.profile = profile;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall carry their SQL; createStatement passes it on execute.
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(
+                        method.getReturnType().asSubclass(Statement.class),
+                        new StatementHandler(statement, sql, routingKey, profile));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+
+        private final String sql;
+        private final String routingKey;
+        private final SqlProfile profile;
+
+        StatementHandler(Statement target, String sql, String routingKey, SqlProfile profile) {
+            super(target);
+            this.sql = sql;
+            this.routingKey = routingKey;
+            this.profile = profile;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = delegate(method, args);
+                } finally {
+                    String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                    profile.recordExecution(routingKey, executed, System.nanoTime() - start);
+                }
+            } else {
+                result = delegate(method, args);
+            }
+            if (result instanceof ResultSet resultSet && !"getGeneratedKeys".equals(method.getName())) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, profile));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        private final SqlProfile profile;
+
+        ResultSetHandler(ResultSet target, SqlProfile profile) {
+            super(target);
+            this.profile = profile;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                profile.recordRow();
+            }
+            return result;
+        }
+    }
+}
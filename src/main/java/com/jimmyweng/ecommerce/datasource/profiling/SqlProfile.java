@@ -0,0 +1,81 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC activity of one request, bound to the request thread between {@link #start()} and
+ * {@link #end()}. Only that thread touches it, so nothing here is synchronized.
+ */
+public final class SqlProfile {
+
+    private static final ThreadLocal<SqlProfile> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private final Set<String> routingKeys = new LinkedHashSet<>(4);
+    private int statements;
+    private long dbNanos;
+    private long rows;
+
+    public static SqlProfile start() {
+        SqlProfile profile = new SqlProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static SqlProfile current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void recordExecution(String routingKey, String sql, long nanos) {
+        statements++;
+        dbNanos += nanos;
+        routingKeys.add(routingKey);
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Routing targets ({@code PRIMARY}, {@code REPLICA_n}) that served a statement, in first-use order.
+     */
+    public Set<String> getRoutingKeys() {
+        return Collections.unmodifiableSet(routingKeys);
+    }
+
+    /**
+     * The statement text executed most often, or {@code null} when nothing ran.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
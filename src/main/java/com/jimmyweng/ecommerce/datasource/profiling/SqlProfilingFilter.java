@@ -0,0 +1,97 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import com.jimmyweng.ecommerce.logging.RequestCorrelationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Profiles a sampled share of requests at the JDBC level and writes one summary line per profiled
+ * request: WARN when it was slow or repeated one statement like an N+1 loop, DEBUG otherwise. Runs
+ * right inside {@link RequestCorrelationFilter} so the line carries the correlation id and the
+ * profile also covers the authentication lookup.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfilingFilter.class);
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final SqlProfilingProperties properties;
+
+    public SqlProfilingFilter(SqlProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!sampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SqlProfile profile = SqlProfile.start();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlProfile.end();
+            report(request, response, profile, System.nanoTime() - start);
+        }
+    }
+
+    private boolean sampled() {
+        double sampleRate = properties.getSampleRate();
+        return properties.isEnabled()
+                && sampleRate > 0
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlProfile profile, long elapsedNanos) {
+        if (profile.getStatements() == 0) {
+            return;
+        }
+        Map.Entry<String, Integer> repeated = profile.mostRepeated();
+        boolean slow = elapsedNanos >= properties.getSlowThreshold().toNanos();
+        boolean nPlusOne = repeated != null && repeated.getValue() >= properties.getRepeatedStatementThreshold();
+        if (!slow && !nPlusOne && !log.isDebugEnabled()) {
+            return;
+        }
+        String summary = String.format(
+                "SQL profile %s %s -> %d: statements=%d, dbTimeMs=%d, rows=%d, routing=%s, elapsedMs=%d, correlationId=%s%s",
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                profile.getStatements(),
+                TimeUnit.NANOSECONDS.toMillis(profile.getDbNanos()),
+                profile.getRows(),
+                String.join(",", profile.getRoutingKeys()),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                MDC.get(RequestCorrelationFilter.CORRELATION_ID_KEY),
+                nPlusOne ? ", repeated " + repeated.getValue() + "x: " + abbreviate(repeated.getKey()) : "");
+        if (slow || nPlusOne) {
+            log.warn(summary);
+        } else {
+            log.debug(summary);
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,36 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.sql-profiling")
+public class SqlProfilingProperties {
+
+    /**
+     * Wraps the routing targets in {@link ProfilingDataSource}; read once at startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Fraction of requests whose JDBC calls are profiled. Unsampled requests get the pooled
+     * connection unwrapped, so they pay nothing beyond one thread-local lookup.
+     */
+    private double sampleRate = 0.05;
+
+    /**
+     * Sampled requests at least this slow are summarized at WARN.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Sampled requests running the same statement text at least this often are summarized at WARN
+     * as likely N+1 access.
+     */
+    private int repeatedStatementThreshold = 10;
+}
@@ -0,0 +1,8 @@
+package com.jimmyweng.ecommerce.exception;
+
+public class BulkJobConflictException extends RuntimeException {
+
+    public BulkJobConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.jimmyweng.ecommerce.exception;
+
+public class ExportCapacityExceededException extends RuntimeException {
+
+    public ExportCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,10 @@ package com.jimmyweng.ecommerce.exception;
 
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
 import com.jimmyweng.ecommerce.controller.common.ApiResponseEnvelope;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ElementKind;
+import jakarta.validation.Path;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
@@ -15,6 +19,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -40,6 +45,18 @@ public class GlobalExceptionHandler {
         return buildExceptionResponse(HttpStatus.BAD_REQUEST, message);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleConstraintViolation(ConstraintViolationException ex) {
+        String message = ex.getConstraintViolations().stream()
+                .map(this::formatConstraintViolation)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (message.isBlank()) {
+            message = ErrorMessages.VALIDATION_FAILED;
+        }
+        return buildExceptionResponse(HttpStatus.BAD_REQUEST, message);
+    }
+
     @ExceptionHandler({AuthenticationException.class, BadCredentialsException.class})
     public ResponseEntity<ApiResponseEnvelope> handleAuthentication(AuthenticationException ex) {
         return buildExceptionResponse(HttpStatus.UNAUTHORIZED, ErrorMessages.AUTHENTICATION_FAILED);
@@ -60,6 +77,36 @@ public class GlobalExceptionHandler {
         return buildExceptionResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(BulkJobConflictException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleBulkJobConflict(BulkJobConflictException ex) {
+        return buildExceptionResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex) {
+        return buildExceptionResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleInvalidImportFile(InvalidImportFileException ex) {
+        return buildExceptionResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleInvalidCursor(InvalidCursorException ex) {
+        return buildExceptionResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidListingQueryException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleInvalidListingQuery(InvalidListingQueryException ex) {
+        return buildExceptionResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(ExportCapacityExceededException.class)
+    public ResponseEntity<ApiResponseEnvelope> handleExportCapacityExceeded(ExportCapacityExceededException ex) {
+        return buildExceptionResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponseEnvelope> handleGeneric(Exception ex) {
         log.error("Unhandled exception", ex);
@@ -76,4 +123,18 @@ public class GlobalExceptionHandler {
     private String formatFieldError(FieldError error) {
         return error.getField() + " " + error.getDefaultMessage();
     }
+
+    private String formatConstraintViolation(ConstraintViolation<?> violation) {
+        // Method parameter paths look like "getProducts.ids" or "getProducts.ids[1].<list element>";
+        // clients only know the parameter name and the position of the offending element.
+        String parameter = "";
+        for (Path.Node node : violation.getPropertyPath()) {
+            if (node.getKind() == ElementKind.PARAMETER || node.getKind() == ElementKind.PROPERTY) {
+                parameter = node.getName();
+            } else if (node.getKind() == ElementKind.CONTAINER_ELEMENT && node.getIndex() != null) {
+                parameter += "[" + node.getIndex() + "]";
+            }
+        }
+        return parameter + " " + violation.getMessage();
+    }
 }
@@ -0,0 +1,8 @@
+package com.jimmyweng.ecommerce.exception;
+
+public class InvalidListingQueryException extends RuntimeException {
+
+    public InvalidListingQueryException(String message) {
+        super(message);
+    }
+}
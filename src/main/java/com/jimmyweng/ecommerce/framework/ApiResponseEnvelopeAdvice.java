@@ -5,11 +5,13 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -18,9 +20,16 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 @RestControllerAdvice
 public class ApiResponseEnvelopeAdvice implements ResponseBodyAdvice<Object> {
 
+    /**
+     * Request attribute holding the {@link Instant} to stamp an ETag-validated response with when it
+     * carries no Last-Modified header.
+     */
+    public static final String TIMESTAMP_ATTRIBUTE = ApiResponseEnvelopeAdvice.class.getName() + ".timestamp";
+
     private static final String[] EXCLUDED_PATHS = {
         "/v3/api-docs",
-        "/v3/api-docs.yaml"
+        "/v3/api-docs.yaml",
+        "/actuator/prometheus"
     };
 
     @Override
@@ -48,10 +57,29 @@ public class ApiResponseEnvelopeAdvice implements ResponseBodyAdvice<Object> {
         }
 
         Object payload = body == null ? Collections.emptyMap() : body;
-        Map<String, Object> meta = Map.of("timestamp", Instant.now().toString());
+        Map<String, Object> meta = Map.of("timestamp", responseTimestamp(request, response).toString());
         return new ApiResponseEnvelope(0, "OK", payload, meta);
     }
 
+    /**
+     * Responses that carry an ETag promise byte-identical bodies for the same validator, so they are
+     * stamped with their Last-Modified time, or the {@link #TIMESTAMP_ATTRIBUTE} the handler set,
+     * instead of the wall clock.
+     */
+    private Instant responseTimestamp(ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getETag() != null) {
+            if (headers.getLastModified() >= 0) {
+                return Instant.ofEpochMilli(headers.getLastModified());
+            }
+            if (request instanceof ServletServerHttpRequest servletRequest
+                    && servletRequest.getServletRequest().getAttribute(TIMESTAMP_ATTRIBUTE) instanceof Instant stamp) {
+                return stamp;
+            }
+        }
+        return Instant.now();
+    }
+
     private boolean shouldBypass(ServerHttpRequest request) {
         String path = request.getURI().getPath();
         for (String excluded : EXCLUDED_PATHS) {
@@ -0,0 +1,355 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticFavorite;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticItem;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticOrder;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticUser;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds synthetic shoppers with their favorites and order history on top of the synthetic catalog.
+ * Users are generated in batches of {@code loadtest.batch-size}; each batch's users, favorites,
+ * orders and order items are inserted and committed together before the next batch is built, so
+ * heap use depends on the batch size and catalog size but not on how many rows are generated.
+ */
+@Component
+@Profile("load-test")
+public class ActivityLoadTestSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLoadTestSeeder.class);
+
+    private static final String EMAIL_PATTERN =
+            SyntheticActivity.EMAIL_PREFIX + "%" + SyntheticActivity.EMAIL_DOMAIN;
+    private static final String TITLE_PATTERN = SyntheticProducts.TITLE_PREFIX + "%";
+    private static final String ID_RANGE_SQL = "select min(id) as min_id, max(id) as max_id from users where email like ?";
+    // Favorites, orders and order items go with their user through the foreign-key cascades.
+    private static final String DELETE_SQL = "delete from users where id between ? and ? and email like ?";
+    private static final int DELETE_CHUNK = 1_000;
+    private static final String CATALOG_SIZE_SQL =
+            "select count(*) from products where title like ? and deleted_at is null";
+    private static final String CATALOG_PAGE_SQL = """
+            select id, price from products
+            where title like ? and deleted_at is null and id > ?
+            order by id
+            limit 10000
+            """;
+    private static final String USER_INSERT =
+            "insert into users (email, password_hash, role, created_at, updated_at) values ";
+    private static final String USER_ROW = "(?, ?, ?, ?, ?)";
+    private static final String FAVORITE_INSERT = "insert into favorites (user_id, product_id, created_at) values ";
+    private static final String FAVORITE_ROW = "(?, ?, ?)";
+    private static final String ORDER_INSERT =
+            "insert into orders (user_id, status, idempotency_key, total_amount, created_at, updated_at) values ";
+    private static final String ORDER_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String ITEM_INSERT =
+            "insert into order_items (order_id, product_id, quantity, unit_price) values ";
+    private static final String ITEM_ROW = "(?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductSeedProperties seedProperties;
+    private final ActivitySeedProperties properties;
+    private final PasswordEncoder passwordEncoder;
+
+    public ActivityLoadTestSeeder(
+            @Qualifier("primaryDataSource") DataSource dataSource,
+            ProductSeedProperties seedProperties,
+            ActivitySeedProperties properties,
+            PasswordEncoder passwordEncoder) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.seedProperties = seedProperties;
+        this.properties = properties;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Deletes earlier synthetic users, and through the cascades their favorites and orders, in
+     * primary-key ranges so no single statement locks the whole set.
+     */
+    public long deleteExisting() {
+        long start = System.nanoTime();
+        Map<String, Object> range = jdbcTemplate.queryForMap(ID_RANGE_SQL, EMAIL_PATTERN);
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+        long deleted = 0;
+        if (minId != null && maxId != null) {
+            for (long low = minId.longValue(); low <= maxId.longValue(); low += DELETE_CHUNK) {
+                deleted += jdbcTemplate.update(DELETE_SQL, low, low + DELETE_CHUNK - 1, EMAIL_PATTERN);
+            }
+        }
+        log.info("Removed {} previously seeded users in {} ms", deleted, (System.nanoTime() - start) / 1_000_000);
+        return deleted;
+    }
+
+    public void seed() {
+        int userCount = properties.getUserCount();
+        if (userCount <= 0) {
+            return;
+        }
+        Catalog catalog = loadCatalog();
+        if (catalog.size() == 0) {
+            log.warn("No synthetic products found; skipping seeding of {} users", userCount);
+            return;
+        }
+        int batchSize = Math.max(1, seedProperties.getBatchSize());
+        log.info(
+                "Seeding {} users over {} products (favoritesPerUser={}, ordersPerUser={}, zipfExponent={}, workers={})",
+                userCount,
+                catalog.size(),
+                properties.getFavoritesPerUser(),
+                properties.getOrdersPerUser(),
+                properties.getZipfExponent(),
+                seedProperties.getWorkers());
+
+        SyntheticActivity activity = new SyntheticActivity(seedProperties.getRandomSeed(), catalog.size(), properties);
+        // BCrypt is deliberately slow; one hash shared by every synthetic user.
+        String passwordHash = passwordEncoder.encode(properties.getUserPassword());
+        Instant newest = Instant.now();
+        Totals totals = new Totals();
+        long elapsedMillis = SeedWorkers.run(
+                "users",
+                userCount,
+                seedProperties.getWorkers(),
+                (from, to, progress) -> seedRange(
+                        activity, catalog, passwordHash, from, to, batchSize, newest, totals, progress));
+
+        long rows = totals.users.get() + totals.favorites.get() + totals.orders.get() + totals.items.get();
+        log.info(
+                "Load-test activity seed completed: {} users, {} favorites, {} orders, {} order items in {} ms ({} rows/s)",
+                totals.users.get(),
+                totals.favorites.get(),
+                totals.orders.get(),
+                totals.items.get(),
+                elapsedMillis,
+                SeedWorkers.perSecond(rows, elapsedMillis));
+    }
+
+    /**
+     * Synthetic product ids and prices by catalog position, read with keyset pages. Primitive
+     * arrays keep this at 16 bytes per product.
+     */
+    private Catalog loadCatalog() {
+        Integer size = jdbcTemplate.queryForObject(CATALOG_SIZE_SQL, Integer.class, TITLE_PATTERN);
+        long[] ids = new long[size == null ? 0 : size];
+        long[] priceCents = new long[ids.length];
+        int loaded = 0;
+        long lastId = 0;
+        while (loaded < ids.length) {
+            int before = loaded;
+            List<long[]> page = jdbcTemplate.query(
+                    CATALOG_PAGE_SQL,
+                    (rs, rowNum) -> new long[] {
+                        rs.getLong("id"), rs.getBigDecimal("price").movePointRight(2).longValueExact()
+                    },
+                    TITLE_PATTERN,
+                    lastId);
+            for (long[] row : page) {
+                if (loaded == ids.length) {
+                    break;
+                }
+                ids[loaded] = row[0];
+                priceCents[loaded] = row[1];
+                loaded++;
+                lastId = row[0];
+            }
+            if (loaded == before) {
+                break;
+            }
+        }
+        if (loaded < ids.length) {
+            // Rows deleted between the count and the last page.
+            return new Catalog(Arrays.copyOf(ids, loaded), Arrays.copyOf(priceCents, loaded));
+        }
+        return new Catalog(ids, priceCents);
+    }
+
+    private void seedRange(
+            SyntheticActivity activity,
+            Catalog catalog,
+            String passwordHash,
+            long from,
+            long to,
+            int batchSize,
+            Instant newest,
+            Totals totals,
+            SeedWorkers progress) throws SQLException {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (long index = from; index < to; index += batchSize) {
+                    int users = (int) Math.min(batchSize, to - index);
+                    insertBatch(connection, activity, catalog, passwordHash, index, users, batchSize, newest, utc, totals);
+                    connection.commit();
+                    progress.advance(users);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    private void insertBatch(
+            Connection connection,
+            SyntheticActivity activity,
+            Catalog catalog,
+            String passwordHash,
+            long firstIndex,
+            int users,
+            int batchSize,
+            Instant newest,
+            Calendar utc,
+            Totals totals) throws SQLException {
+        List<SyntheticUser> batch = new ArrayList<>(users);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int slot = 0; slot < users; slot++) {
+            SyntheticUser user = activity.user(firstIndex + slot, newest);
+            batch.add(user);
+            userRows.add(new Object[] {
+                user.email(), passwordHash, Role.USER.name(), user.createdAt(), user.createdAt()
+            });
+        }
+        long[] userIds = insert(connection, USER_INSERT, USER_ROW, userRows, batchSize, true, utc);
+
+        List<Object[]> favoriteRows = new ArrayList<>();
+        List<Object[]> orderRows = new ArrayList<>();
+        List<SyntheticOrder> orders = new ArrayList<>();
+        for (int slot = 0; slot < users; slot++) {
+            SyntheticUser user = batch.get(slot);
+            for (SyntheticFavorite favorite : user.favorites()) {
+                favoriteRows.add(new Object[] {userIds[slot], catalog.ids[favorite.product()], favorite.createdAt()});
+            }
+            for (SyntheticOrder order : user.orders()) {
+                long totalCents = 0;
+                for (SyntheticItem item : order.items()) {
+                    totalCents += catalog.priceCents[item.product()] * item.quantity();
+                }
+                orders.add(order);
+                orderRows.add(new Object[] {
+                    userIds[slot],
+                    order.status().name(),
+                    order.idempotencyKey(),
+                    BigDecimal.valueOf(totalCents, 2),
+                    order.createdAt(),
+                    order.createdAt()
+                });
+            }
+        }
+        insert(connection, FAVORITE_INSERT, FAVORITE_ROW, favoriteRows, batchSize, false, utc);
+        long[] orderIds = insert(connection, ORDER_INSERT, ORDER_ROW, orderRows, batchSize, true, utc);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        for (int slot = 0; slot < orders.size(); slot++) {
+            for (SyntheticItem item : orders.get(slot).items()) {
+                itemRows.add(new Object[] {
+                    orderIds[slot],
+                    catalog.ids[item.product()],
+                    item.quantity(),
+                    BigDecimal.valueOf(catalog.priceCents[item.product()], 2)
+                });
+            }
+        }
+        insert(connection, ITEM_INSERT, ITEM_ROW, itemRows, batchSize, false, utc);
+
+        totals.users.addAndGet(users);
+        totals.favorites.addAndGet(favoriteRows.size());
+        totals.orders.addAndGet(orderRows.size());
+        totals.items.addAndGet(itemRows.size());
+    }
+
+    /**
+     * Writes {@code rows} as multi-row INSERTs of at most {@code batchSize} rows and, when asked,
+     * returns the generated ids in row order.
+     */
+    private static long[] insert(
+            Connection connection,
+            String prefix,
+            String placeholders,
+            List<Object[]> rows,
+            int batchSize,
+            boolean returnKeys,
+            Calendar utc) throws SQLException {
+        long[] keys = new long[returnKeys ? rows.size() : 0];
+        for (int first = 0; first < rows.size(); first += batchSize) {
+            List<Object[]> chunk = rows.subList(first, Math.min(rows.size(), first + batchSize));
+            String sql = prefix + String.join(", ", Collections.nCopies(chunk.size(), placeholders));
+            try (PreparedStatement statement = returnKeys
+                    ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : connection.prepareStatement(sql)) {
+                int parameter = 1;
+                for (Object[] row : chunk) {
+                    for (Object value : row) {
+                        bind(statement, parameter++, value, utc);
+                    }
+                }
+                statement.executeUpdate();
+                if (returnKeys) {
+                    try (ResultSet generated = statement.getGeneratedKeys()) {
+                        int key = first;
+                        while (generated.next()) {
+                            keys[key++] = generated.getLong(1);
+                        }
+                        if (key != first + chunk.size()) {
+                            throw new IllegalStateException(
+                                    "Expected " + chunk.size() + " generated ids, got " + (key - first));
+                        }
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void bind(PreparedStatement statement, int parameter, Object value, Calendar utc)
+            throws SQLException {
+        switch (value) {
+            case String text -> statement.setString(parameter, text);
+            case Long number -> statement.setLong(parameter, number);
+            case Integer number -> statement.setInt(parameter, number);
+            case BigDecimal amount -> statement.setBigDecimal(parameter, amount);
+            case Instant instant -> statement.setTimestamp(parameter, Timestamp.from(instant), utc);
+            default -> throw new IllegalArgumentException("Unsupported column value " + value.getClass());
+        }
+    }
+
+    private record Catalog(long[] ids, long[] priceCents) {
+
+        int size() {
+            return ids.length;
+        }
+    }
+
+    private static final class Totals {
+
+        private final AtomicLong users = new AtomicLong();
+        private final AtomicLong favorites = new AtomicLong();
+        private final AtomicLong orders = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+    }
+}
@@ -0,0 +1,49 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "loadtest.activity")
+public class ActivitySeedProperties {
+
+    /**
+     * Number of synthetic shoppers ({@code loadtest-user-<n>@example.com}); 0 disables activity seeding.
+     */
+    private int userCount = 1000;
+
+    /**
+     * Password shared by every synthetic shopper, so load scripts can log in as any of them.
+     */
+    private String userPassword = "password";
+
+    /**
+     * Mean favorites per user; each user gets between 0 and twice this many.
+     */
+    private int favoritesPerUser = 10;
+
+    /**
+     * Mean historical orders per user; each user gets between 0 and twice this many.
+     */
+    private int ordersPerUser = 2;
+
+    /**
+     * Upper bound on line items per order.
+     */
+    private int maxItemsPerOrder = 3;
+
+    /**
+     * Skew of product popularity for favorites and order items; 1.0 is classic Zipf, 0 is uniform.
+     */
+    private double zipfExponent = 1.0;
+
+    /**
+     * How far back user sign-ups, favorites and orders are spread.
+     */
+    private Duration history = Duration.ofDays(365);
+}
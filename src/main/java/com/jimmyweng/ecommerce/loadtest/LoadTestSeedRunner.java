@@ -0,0 +1,43 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import com.jimmyweng.ecommerce.service.catalog.CategoryFacets;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteCounter;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the load-test data set at startup. Seeded users go first because their order items
+ * reference the seeded products; the new shoppers are generated against the new catalog. The
+ * seeders write products and favorites with plain SQL, so category facets and favorite counts are
+ * rebuilt from the primary at the end rather than waiting for their scheduled reconciles.
+ */
+@Component
+@Profile("load-test")
+public class LoadTestSeedRunner implements CommandLineRunner {
+
+    private final ProductLoadTestSeeder productSeeder;
+    private final ActivityLoadTestSeeder activitySeeder;
+    private final FavoriteCounter favoriteCounter;
+    private final CategoryFacets categoryFacets;
+
+    public LoadTestSeedRunner(
+            ProductLoadTestSeeder productSeeder,
+            ActivityLoadTestSeeder activitySeeder,
+            FavoriteCounter favoriteCounter,
+            CategoryFacets categoryFacets) {
+        this.productSeeder = productSeeder;
+        this.activitySeeder = activitySeeder;
+        this.favoriteCounter = favoriteCounter;
+        this.categoryFacets = categoryFacets;
+    }
+
+    @Override
+    public void run(String... args) {
+        activitySeeder.deleteExisting();
+        productSeeder.seed();
+        activitySeeder.seed();
+        categoryFacets.reconcileFromPrimary();
+        favoriteCounter.reconcile();
+    }
+}
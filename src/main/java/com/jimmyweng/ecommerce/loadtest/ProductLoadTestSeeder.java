@@ -1,85 +1,174 @@
 package com.jimmyweng.ecommerce.loadtest;
 
-import com.jimmyweng.ecommerce.model.product.Product;
-import com.jimmyweng.ecommerce.repository.product.ProductRepository;
-import java.math.BigDecimal;
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import com.jimmyweng.ecommerce.loadtest.SyntheticProducts.SyntheticProduct;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Seeds the synthetic catalog with plain JDBC on the primary. The index range is split across
+ * workers; each holds its own connection and commits one multi-row INSERT at a time. Rows are
+ * derived from {@code loadtest.random-seed}, so every run produces the same data set.
+ */
 @Component
 @Profile("load-test")
-public class ProductLoadTestSeeder implements CommandLineRunner {
+public class ProductLoadTestSeeder {
 
     private static final Logger log = LoggerFactory.getLogger(ProductLoadTestSeeder.class);
-    private static final String TITLE_PREFIX = "LoadTest-Product-";
-    private static final List<String> CATEGORIES = List.of("games", "books", "collectibles", "gadgets", "home");
-    private static final List<String> KEYWORDS = List.of("board", "space", "retro", "limited", "flash", "sale", "top");
 
-    private final ProductRepository productRepository;
+    private static final String TITLE_PATTERN = SyntheticProducts.TITLE_PREFIX + "%";
+    private static final String ID_RANGE_SQL = "select min(id) as min_id, max(id) as max_id from products where title like ?";
+    private static final String DELETE_SQL = "delete from products where id between ? and ? and title like ?";
+    private static final int DELETE_CHUNK = 10_000;
+    private static final String INSERT_PREFIX =
+            "insert into products (title, description, category, price, stock, created_at, updated_at, version) values ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int COLUMNS_PER_ROW = 7;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
     private final ProductSeedProperties properties;
-    private final Random random = new SecureRandom();
 
-    public ProductLoadTestSeeder(ProductRepository productRepository, ProductSeedProperties properties) {
-        this.productRepository = productRepository;
+    public ProductLoadTestSeeder(
+            @Qualifier("primaryDataSource") DataSource dataSource, ProductSeedProperties properties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.properties = properties;
     }
 
-    @Override
-    @Transactional
-    public void run(String... args) {
+    /**
+     * Replaces any earlier synthetic catalog. Callers must remove seeded orders first, since order
+     * items keep their products from being deleted.
+     */
+    public void seed() {
         int count = properties.getSeedCount();
-        log.info("Load-test profile active: seeding {} products with prefix '{}'", count, TITLE_PREFIX);
-
-        productRepository.deleteByTitleStartingWith(TITLE_PREFIX);
-
         int batchSize = Math.max(1, properties.getBatchSize());
-        List<Product> batch = new ArrayList<>(batchSize);
-        for (int i = 0; i < count; i++) {
-            String keyword = randomKeyword();
-            String category = randomCategory();
-            Product product = new Product(
-                    TITLE_PREFIX + keyword + "-" + i,
-                    "Synthetic " + keyword + " item " + i,
-                    category,
-                    randomPrice(),
-                    randomStock());
-            batch.add(product);
+        log.info(
+                "Load-test profile active: seeding {} products with prefix '{}' (workers={}, batchSize={}, seed={})",
+                count,
+                SyntheticProducts.TITLE_PREFIX,
+                properties.getWorkers(),
+                batchSize,
+                properties.getRandomSeed());
 
-            if (batch.size() == batchSize) {
-                productRepository.saveAll(batch);
-                batch.clear();
-            }
+        long deleteStart = System.nanoTime();
+        long deleted = deleteExisting();
+        log.info("Removed {} previously seeded products in {} ms", deleted, (System.nanoTime() - deleteStart) / 1_000_000);
+        if (count <= 0) {
+            return;
         }
 
-        if (!batch.isEmpty()) {
-            productRepository.saveAll(batch);
-        }
-
-        log.info("Load-test seed completed.");
+        SyntheticProducts products = new SyntheticProducts(properties.getRandomSeed());
+        Instant newest = Instant.now();
+        long elapsedMillis = SeedWorkers.run(
+                "products",
+                count,
+                properties.getWorkers(),
+                (from, to, progress) -> seedRange(products, from, to, count, batchSize, newest, progress));
+        log.info(
+                "Load-test seed completed: {} products in {} ms ({} rows/s)",
+                count,
+                elapsedMillis,
+                SeedWorkers.perSecond(count, elapsedMillis));
     }
 
-    private String randomCategory() {
-        return CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+    /**
+     * Deletes earlier seed rows in primary-key ranges, so each statement is a short range scan and
+     * no single transaction has to hold hundreds of thousands of row locks.
+     */
+    private long deleteExisting() {
+        Map<String, Object> range = jdbcTemplate.queryForMap(ID_RANGE_SQL, TITLE_PATTERN);
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+        long deleted = 0;
+        for (long low = minId.longValue(); low <= maxId.longValue(); low += DELETE_CHUNK) {
+            deleted += jdbcTemplate.update(DELETE_SQL, low, low + DELETE_CHUNK - 1, TITLE_PATTERN);
+        }
+        return deleted;
     }
 
-    private String randomKeyword() {
-        return KEYWORDS.get(random.nextInt(KEYWORDS.size()));
+    private void seedRange(
+            SyntheticProducts products,
+            long from,
+            long to,
+            int count,
+            int batchSize,
+            Instant newest,
+            SeedWorkers progress) throws SQLException {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement fullBatch = connection.prepareStatement(insertSql(batchSize))) {
+                long index = from;
+                while (index < to) {
+                    int rows = (int) Math.min(batchSize, to - index);
+                    if (rows == batchSize) {
+                        insert(fullBatch, products, index, rows, count, newest, utc);
+                    } else {
+                        try (PreparedStatement tail = connection.prepareStatement(insertSql(rows))) {
+                            insert(tail, products, index, rows, count, newest, utc);
+                        }
+                    }
+                    connection.commit();
+                    index += rows;
+                    progress.advance(rows);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
     }
 
-    private BigDecimal randomPrice() {
-        double value = 5 + (200 - 5) * random.nextDouble();
-        return BigDecimal.valueOf(Math.round(value * 100.0) / 100.0);
+    private static void insert(
+            PreparedStatement statement,
+            SyntheticProducts products,
+            long firstIndex,
+            int rows,
+            int count,
+            Instant newest,
+            Calendar utc) throws SQLException {
+        for (int row = 0; row < rows; row++) {
+            long index = firstIndex + row;
+            SyntheticProduct product = products.row(index);
+            // One second apart, highest index newest, so created_at sorts like the seed order.
+            Timestamp createdAt = Timestamp.from(newest.minusSeconds(count - 1 - index));
+            int offset = row * COLUMNS_PER_ROW;
+            statement.setString(offset + 1, product.title());
+            statement.setString(offset + 2, product.description());
+            statement.setString(offset + 3, product.category());
+            statement.setBigDecimal(offset + 4, product.price());
+            statement.setInt(offset + 5, product.stock());
+            statement.setTimestamp(offset + 6, createdAt, utc);
+            statement.setTimestamp(offset + 7, createdAt, utc);
+        }
+        statement.executeUpdate();
     }
 
-    private int randomStock() {
-        return 10 + random.nextInt(90);
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
     }
 }
@@ -17,7 +17,18 @@ public class ProductSeedProperties {
     private int seedCount = 1000;
 
     /**
-     * Batch size used when persisting synthetic products.
+     * Rows per multi-row INSERT; each statement commits on its own.
      */
     private int batchSize = 200;
+
+    /**
+     * Parallel seeding workers, each holding one primary connection for the whole run. Keep it
+     * below the primary pool size.
+     */
+    private int workers = 4;
+
+    /**
+     * Seed for the synthetic data; the same seed and count always produce the same rows.
+     */
+    private long randomSeed = 42L;
 }
@@ -0,0 +1,96 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits an index range across a fixed pool of seeding threads and reports progress every
+ * completed tenth, whichever worker crosses it.
+ */
+final class SeedWorkers {
+
+    private static final Logger log = LoggerFactory.getLogger(SeedWorkers.class);
+
+    private final String entity;
+    private final long total;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong done = new AtomicLong();
+    private final AtomicInteger reportedTenths = new AtomicInteger();
+
+    private SeedWorkers(String entity, long total) {
+        this.entity = entity;
+        this.total = total;
+    }
+
+    /**
+     * Runs {@code range} on {@code workers} threads over disjoint slices of {@code [0, total)} and
+     * returns the elapsed milliseconds.
+     */
+    static long run(String entity, long total, int workers, RangeSeeder range) {
+        SeedWorkers progress = new SeedWorkers(entity, total);
+        int threads = (int) Math.max(1, Math.min(workers, total));
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threads, runnable -> new Thread(runnable, "seed-worker-" + threadIds.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int worker = 0; worker < threads; worker++) {
+                long from = total * worker / threads;
+                long to = total * (worker + 1) / threads;
+                futures.add(executor.submit(() -> {
+                    range.seed(from, to, progress);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Load-test seeding of " + entity + " failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load-test seeding of " + entity + " interrupted", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        return progress.elapsedMillis();
+    }
+
+    void advance(int rows) {
+        long seeded = done.addAndGet(rows);
+        int tenths = (int) (seeded * 10 / total);
+        int reported = reportedTenths.get();
+        if (tenths > reported && reportedTenths.compareAndSet(reported, tenths)) {
+            log.info(
+                    "Seeded {}/{} {} ({}%), {} rows/s",
+                    seeded,
+                    total,
+                    entity,
+                    tenths * 10,
+                    perSecond(seeded, elapsedMillis()));
+        }
+    }
+
+    static long perSecond(long rows, long elapsedMillis) {
+        return elapsedMillis == 0 ? rows : rows * 1000L / elapsedMillis;
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    interface RangeSeeder {
+
+        void seed(long from, long to, SeedWorkers progress) throws SQLException;
+    }
+}
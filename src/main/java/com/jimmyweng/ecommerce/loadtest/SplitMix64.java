@@ -0,0 +1,49 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+/**
+ * Steele, Lea and Flood's SplitMix64: a few multiplies per draw, no locking and no entropy source,
+ * so it is cheap to create one per row. Not for anything security-related.
+ */
+final class SplitMix64 {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * A generator whose sequence depends only on {@code seed} and {@code index}, so row
+     * {@code index} comes out the same no matter which worker produces it.
+     */
+    static SplitMix64 forIndex(long seed, long index) {
+        return new SplitMix64(mix(seed + mix(index + GOLDEN_GAMMA)));
+    }
+
+    long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Uniform in {@code [0, bound)} using Lemire's multiply-shift reduction.
+     */
+    int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Uniform in {@code [0, 1)} with 53 bits of precision.
+     */
+    double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,115 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import com.jimmyweng.ecommerce.constant.OrderStatus;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic shoppers: user {@code index}, with its favorites and order history, is a
+ * pure function of the seed and the index. Products are referenced by catalog position and drawn
+ * from a Zipf distribution, so a small head of the catalog collects most favorites and sales.
+ */
+final class SyntheticActivity {
+
+    static final String EMAIL_PREFIX = "loadtest-user-";
+    static final String EMAIL_DOMAIN = "@example.com";
+
+    // Keeps user streams independent of the product stream drawn from the same seed.
+    private static final long USER_STREAM = 0x7F4A7C159E3779B9L;
+    private static final int FAILED_ORDER_PERCENT = 5;
+    private static final int MAX_QUANTITY = 3;
+
+    private final long seed;
+    private final ZipfDistribution popularity;
+    private final int[] productByRank;
+    private final int favoritesPerUser;
+    private final int ordersPerUser;
+    private final int maxItemsPerOrder;
+    private final long historySeconds;
+
+    SyntheticActivity(long seed, int catalogSize, ActivitySeedProperties properties) {
+        this.seed = seed ^ USER_STREAM;
+        this.popularity = new ZipfDistribution(catalogSize, properties.getZipfExponent());
+        this.productByRank = shuffledPositions(catalogSize, seed);
+        this.favoritesPerUser = Math.max(0, properties.getFavoritesPerUser());
+        this.ordersPerUser = Math.max(0, properties.getOrdersPerUser());
+        this.maxItemsPerOrder = Math.max(1, properties.getMaxItemsPerOrder());
+        this.historySeconds = Math.max(1, properties.getHistory().toSeconds());
+    }
+
+    static String email(long index) {
+        return EMAIL_PREFIX + index + EMAIL_DOMAIN;
+    }
+
+    SyntheticUser user(long index, Instant newest) {
+        SplitMix64 random = SplitMix64.forIndex(seed, index);
+        long signedUpAgo = (long) (random.nextDouble() * historySeconds);
+        Instant createdAt = newest.minusSeconds(signedUpAgo);
+
+        int favoriteCount = Math.min(random.nextInt(2 * favoritesPerUser + 1), productByRank.length);
+        List<SyntheticFavorite> favorites = new ArrayList<>(favoriteCount);
+        Set<Integer> favorited = new HashSet<>();
+        // Popular products collide often under a steep skew; bound the retries instead of
+        // looping until the quota is met.
+        for (int attempt = 0; attempt < favoriteCount * 4 && favorites.size() < favoriteCount; attempt++) {
+            int product = popularProduct(random);
+            if (favorited.add(product)) {
+                favorites.add(new SyntheticFavorite(product, after(createdAt, signedUpAgo, random)));
+            }
+        }
+
+        int orderCount = random.nextInt(2 * ordersPerUser + 1);
+        List<SyntheticOrder> orders = new ArrayList<>(orderCount);
+        for (int order = 0; order < orderCount; order++) {
+            int itemCount = 1 + random.nextInt(maxItemsPerOrder);
+            List<SyntheticItem> items = new ArrayList<>(itemCount);
+            for (int item = 0; item < itemCount; item++) {
+                items.add(new SyntheticItem(popularProduct(random), 1 + random.nextInt(MAX_QUANTITY)));
+            }
+            OrderStatus status =
+                    random.nextInt(100) < FAILED_ORDER_PERCENT ? OrderStatus.FAILED : OrderStatus.COMPLETED;
+            orders.add(new SyntheticOrder(
+                    "loadtest-" + index + "-" + order, status, after(createdAt, signedUpAgo, random), items));
+        }
+        return new SyntheticUser(email(index), createdAt, favorites, orders);
+    }
+
+    private int popularProduct(SplitMix64 random) {
+        return productByRank[popularity.sample(random)];
+    }
+
+    private static Instant after(Instant createdAt, long signedUpAgo, SplitMix64 random) {
+        return createdAt.plusSeconds((long) (random.nextDouble() * signedUpAgo));
+    }
+
+    /**
+     * Fisher-Yates over catalog positions, so the most popular ranks land anywhere in the catalog
+     * rather than on its oldest rows.
+     */
+    private static int[] shuffledPositions(int size, long seed) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        SplitMix64 random = new SplitMix64(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = positions[i];
+            positions[i] = positions[j];
+            positions[j] = swap;
+        }
+        return positions;
+    }
+
+    record SyntheticUser(
+            String email, Instant createdAt, List<SyntheticFavorite> favorites, List<SyntheticOrder> orders) {}
+
+    record SyntheticFavorite(int product, Instant createdAt) {}
+
+    record SyntheticOrder(String idempotencyKey, OrderStatus status, Instant createdAt, List<SyntheticItem> items) {}
+
+    record SyntheticItem(int product, int quantity) {}
+}
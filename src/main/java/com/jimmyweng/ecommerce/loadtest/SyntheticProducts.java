@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Deterministic synthetic catalog: row {@code index} is a pure function of the seed and the index.
+ */
+final class SyntheticProducts {
+
+    static final String TITLE_PREFIX = "LoadTest-Product-";
+
+    private static final List<String> CATEGORIES = List.of("games", "books", "collectibles", "gadgets", "home");
+    private static final List<String> KEYWORDS = List.of("board", "space", "retro", "limited", "flash", "sale", "top");
+
+    private final long seed;
+
+    SyntheticProducts(long seed) {
+        this.seed = seed;
+    }
+
+    SyntheticProduct row(long index) {
+        SplitMix64 random = SplitMix64.forIndex(seed, index);
+        String keyword = KEYWORDS.get(random.nextInt(KEYWORDS.size()));
+        String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+        // 5.00 to 200.00 in whole cents
+        BigDecimal price = BigDecimal.valueOf(500 + random.nextInt(19_501), 2);
+        int stock = 10 + random.nextInt(90);
+        return new SyntheticProduct(
+                TITLE_PREFIX + keyword + "-" + index,
+                "Synthetic " + keyword + " item " + index,
+                category,
+                price,
+                stock);
+    }
+
+    record SyntheticProduct(String title, String description, String category, BigDecimal price, int stock) {}
+}
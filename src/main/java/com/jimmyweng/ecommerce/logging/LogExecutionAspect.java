@@ -1,59 +1,120 @@
 package com.jimmyweng.ecommerce.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 
+/**
+ * Times every {@code @LogExecution} call into a {@code method.execution} timer and logs only the
+ * calls worth reading: failures, calls over the slow threshold, and a sampled fraction of the
+ * rest. Arguments are formatted only when a line is actually written.
+ */
 @Aspect
 @Component
 public class LogExecutionAspect {
 
+    static final String TIMER = "method.execution";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final ConcurrentMap<Method, Instrumented> instrumented = new ConcurrentHashMap<>();
+
+    public LogExecutionAspect(MeterRegistry meterRegistry, LogExecutionProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.sampleRate = properties.getSampleRate();
+    }
+
     @Around("@annotation(com.jimmyweng.ecommerce.logging.LogExecution)")
     public Object logAround(ProceedingJoinPoint pjp) throws Throwable {
-        Logger logger = LoggerFactory.getLogger(pjp.getTarget().getClass());
-        String method = pjp.getSignature().toShortString();
-        String args = Arrays.stream(pjp.getArgs())
-                .map(arg -> arg == null ? "null" : arg.toString())
-                .collect(Collectors.joining(", "));
-
-        String correlationId = MDC.get(RequestCorrelationFilter.CORRELATION_ID_KEY);
-        if (logger.isInfoEnabled()) {
-            logger.info(
-                    "{} - entering with args: {} (corrId={})",
-                    method,
-                    args,
-                    correlationId);
-        }
-
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        Instrumented target = instrumented.computeIfAbsent(
+                ((MethodSignature) pjp.getSignature()).getMethod(), method -> instrument(pjp, method));
+        long start = System.nanoTime();
         try {
             Object result = pjp.proceed();
-            stopWatch.stop();
-            if (logger.isInfoEnabled()) {
-                logger.info(
-                        "{} - completed in {} ms (corrId={})",
-                        method,
-                        stopWatch.getTotalTimeMillis(),
-                        correlationId);
+            long elapsedNanos = System.nanoTime() - start;
+            target.succeeded.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (elapsedNanos >= slowThresholdNanos) {
+                target.logger.warn(
+                        "{} - slow call completed in {} ms with args: {} (corrId={})",
+                        target.name,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                        new LazyArgs(pjp.getArgs()),
+                        MDC.get(RequestCorrelationFilter.CORRELATION_ID_KEY));
+            } else if (sampleRate > 0
+                    && target.logger.isInfoEnabled()
+                    && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                target.logger.info(
+                        "{} - completed in {} ms with args: {} (corrId={}, sampled)",
+                        target.name,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                        new LazyArgs(pjp.getArgs()),
+                        MDC.get(RequestCorrelationFilter.CORRELATION_ID_KEY));
             }
             return result;
         } catch (Throwable ex) {
-            stopWatch.stop();
-            logger.error(
-                    "{} - failed after {} ms (corrId={})",
-                    method,
-                    stopWatch.getTotalTimeMillis(),
-                    correlationId,
+            long elapsedNanos = System.nanoTime() - start;
+            target.failed.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            target.logger.error(
+                    "{} - failed after {} ms with args: {} (corrId={})",
+                    target.name,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    new LazyArgs(pjp.getArgs()),
+                    MDC.get(RequestCorrelationFilter.CORRELATION_ID_KEY),
                     ex);
             throw ex;
         }
     }
+
+    private Instrumented instrument(ProceedingJoinPoint pjp, Method method) {
+        Class<?> targetClass = pjp.getTarget().getClass();
+        return new Instrumented(
+                LoggerFactory.getLogger(targetClass),
+                pjp.getSignature().toShortString(),
+                timer(targetClass, method, "success"),
+                timer(targetClass, method, "error"));
+    }
+
+    private Timer timer(Class<?> targetClass, Method method, String outcome) {
+        return Timer.builder(TIMER)
+                .description("Duration of @LogExecution methods")
+                .tag("class", targetClass.getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Per-method state resolved on the first call instead of on every call.
+     */
+    private record Instrumented(Logger logger, String name, Timer succeeded, Timer failed) {}
+
+    /**
+     * Joins the arguments only if the logger formats the message.
+     */
+    private record LazyArgs(Object[] args) {
+
+        @Override
+        public String toString() {
+            return Arrays.stream(args)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "));
+        }
+    }
 }
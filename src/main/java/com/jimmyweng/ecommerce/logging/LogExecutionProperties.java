@@ -0,0 +1,24 @@
+package com.jimmyweng.ecommerce.logging;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.log-execution")
+public class LogExecutionProperties {
+
+    /**
+     * {@code @LogExecution} calls at least this slow are always logged, at WARN, with their arguments.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Fraction of faster calls logged at INFO; 0 logs slow calls and failures only.
+     */
+    private double sampleRate = 0.01;
+}
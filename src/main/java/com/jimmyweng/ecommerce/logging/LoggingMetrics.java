@@ -0,0 +1,50 @@
+package com.jimmyweng.ecommerce.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@code logback.events.dropped}, {@code logback.warn.events.dropped} and
+ * {@code logback.queue.depth} for every
+ * {@link NonBlockingAsyncAppender} attached to the root logger.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+                loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof NonBlockingAsyncAppender appender) {
+                FunctionCounter.builder("logback.events.dropped", appender, NonBlockingAsyncAppender::getDroppedCount)
+                        .description("DEBUG/INFO events dropped because the async log queue was near full")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                FunctionCounter.builder(
+                                "logback.warn.events.dropped", appender, NonBlockingAsyncAppender::getDroppedWarnCount)
+                        .description("WARN/ERROR events dropped after waiting maxBlockMillis on a full async log queue")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logback.queue.depth", appender, NonBlockingAsyncAppender::getQueueDepth)
+                        .description("Events waiting for the async log writer")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
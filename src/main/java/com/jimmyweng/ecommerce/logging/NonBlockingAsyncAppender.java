@@ -0,0 +1,198 @@
+package com.jimmyweng.ecommerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands events to a single background thread through a bounded queue, so request threads never
+ * do console or file I/O. Unlike logback's {@code AsyncAppender} with {@code neverBlock}, the drop
+ * policy depends on the level:
+ * <ul>
+ *   <li>below WARN, events are dropped (and counted) once the free capacity falls under
+ *       {@code discardingThreshold}, or if the queue is full;</li>
+ *   <li>WARN and ERROR take the reserved capacity. If even that is used up, the caller waits for
+ *       the writer to make room, but for at most {@code maxBlockMillis}; after that the event is
+ *       dropped and counted separately. That wait is the only time a request thread is held up
+ *       by log I/O, and it is bounded.</li>
+ * </ul>
+ * Dropped and queued counts are published by {@link LoggingMetrics}.
+ */
+public class NonBlockingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder droppedWarn = new LongAdder();
+    private int queueSize = 8192;
+    private int discardingThreshold = -1;
+    private int maxBlockMillis = 100;
+    private int maxFlushTimeMillis = 1000;
+    private BlockingQueue<ILoggingEvent> queue;
+    private Thread writer;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queueSize " + queueSize);
+            return;
+        }
+        if (discardingThreshold < 0) {
+            discardingThreshold = queueSize / 5;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        writer = new Thread(this::drain, "logback-async-" + getName());
+        writer.setDaemon(true);
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        writer.interrupt();
+        try {
+            writer.join(maxFlushTimeMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            addWarn("Writer still busy after " + maxFlushTimeMillis + " ms, " + queue.size() + " events not flushed");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean mustKeep = event.getLevel().isGreaterOrEqual(Level.WARN);
+        if (!mustKeep && queue.remainingCapacity() < discardingThreshold) {
+            dropped.increment();
+            return;
+        }
+        // MDC (correlationId), thread name and the formatted message must be captured on the caller.
+        event.prepareForDeferredProcessing();
+        if (queue.offer(event)) {
+            return;
+        }
+        if (!mustKeep) {
+            dropped.increment();
+            return;
+        }
+        try {
+            if (!queue.offer(event, maxBlockMillis, TimeUnit.MILLISECONDS)) {
+                droppedWarn.increment();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            droppedWarn.increment();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (isStarted()) {
+                appenders.appendLoopOnAppenders(queue.take());
+            }
+        } catch (InterruptedException ex) {
+            // stop() requested; flush what is already queued
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxFlushTimeMillis);
+        ILoggingEvent event;
+        while (System.nanoTime() < deadline && (event = queue.poll()) != null) {
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getDroppedWarnCount() {
+        return droppedWarn.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    /**
+     * Free slots kept for WARN and ERROR; below this, lower levels are dropped. Defaults to a fifth
+     * of the queue.
+     */
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    /**
+     * Longest a WARN or ERROR caller waits for room in a completely full queue before the event is
+     * dropped.
+     */
+    public void setMaxBlockMillis(int maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    public void setMaxFlushTimeMillis(int maxFlushTimeMillis) {
+        this.maxFlushTimeMillis = maxFlushTimeMillis;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.model.favorite;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized number of users who favorited a product. Rows are only written by
+ * {@code FavoriteCounter} flushes, which add accumulated deltas, so a count trails the
+ * {@code favorites} table by up to one flush interval.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "product_favorite_counts")
+public class ProductFavoriteCount {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "favorite_count", nullable = false)
+    private long favoriteCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public ProductFavoriteCount(Long productId, long favoriteCount, Instant updatedAt) {
+        this.productId = productId;
+        this.favoriteCount = favoriteCount;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -5,12 +5,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Locale;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -19,7 +21,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
-@Table(name = "products")
+// Mirrors the Liquibase indexes so schemas generated for tests plan listings against the same
+// indexes; the full-text index is MySQL-only and lives in Liquibase alone.
+@Table(
+        name = "products",
+        indexes = {
+            @Index(name = "idx_products_deleted_category_created", columnList = "deleted_at, category, created_at"),
+            @Index(name = "idx_products_deleted_created", columnList = "deleted_at, created_at"),
+            @Index(name = "idx_products_deleted_category_price", columnList = "deleted_at, category, price"),
+            @Index(name = "idx_products_deleted_price", columnList = "deleted_at, price")
+        })
 public class Product {
 
     @Id
@@ -76,7 +87,7 @@ public class Product {
 
     @PrePersist
     void onCreate() {
-        Instant now = Instant.now();
+        Instant now = now();
         this.createdAt = now;
         this.updatedAt = now;
         this.category = normalizeCategory(this.category);
@@ -84,11 +95,24 @@ public class Product {
 
     @PreUpdate
     void onUpdate() {
-        this.updatedAt = Instant.now();
+        this.updatedAt = now();
         this.category = normalizeCategory(this.category);
     }
 
-    private static String normalizeCategory(String category) {
+    public static String normalizeCategory(String category) {
         return category == null ? null : category.trim().toLowerCase(Locale.ROOT);
     }
+
+    private static Instant now() {
+        return atColumnPrecision(Instant.now());
+    }
+
+    /**
+     * The product timestamp columns are {@code TIMESTAMP(6)} (migration 0014; H2 also keeps
+     * microseconds). Every writer truncates to that, so the managed entity equals the stored row and
+     * keyset cursors built from it compare exactly against the column.
+     */
+    public static Instant atColumnPrecision(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MICROS);
+    }
 }
@@ -0,0 +1,73 @@
+package com.jimmyweng.ecommerce.model.product;
+
+import com.jimmyweng.ecommerce.constant.BulkJobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one bulk price/stock adjustment. {@code checkpointRows} is advanced in the same
+ * transaction as each applied chunk, so a resumed run continues exactly where the last commit
+ * left off.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "product_bulk_jobs")
+public class ProductBulkJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BulkJobStatus status;
+
+    @Column(name = "payload_checksum", nullable = false, length = 64)
+    private String payloadChecksum;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(name = "checkpoint_rows", nullable = false)
+    private int checkpointRows;
+
+    @Column(name = "updated_rows", nullable = false)
+    private int updatedRows;
+
+    @Column(name = "conflict_rows", nullable = false)
+    private int conflictRows;
+
+    @Column(name = "missing_rows", nullable = false)
+    private int missingRows;
+
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public ProductBulkJob(String payloadChecksum, int totalRows, Instant createdAt) {
+        this.status = BulkJobStatus.RUNNING;
+        this.payloadChecksum = payloadChecksum;
+        this.totalRows = totalRows;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+}
@@ -0,0 +1,43 @@
+package com.jimmyweng.ecommerce.repository;
+
+import com.jimmyweng.ecommerce.model.JobLease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Compare-and-set on the expiry: returns 0 while another instance still holds the lease.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update JobLease l
+            set l.lockedUntil = :lockedUntil, l.lockedBy = :lockedBy
+            where l.name = :name and l.lockedUntil <= :now
+            """)
+    int claimIfExpired(
+            @Param("name") String name,
+            @Param("lockedBy") String lockedBy,
+            @Param("lockedUntil") Instant lockedUntil,
+            @Param("now") Instant now);
+
+    /**
+     * First claim of a job; fails on the primary key when another instance inserted it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            value = "insert into job_leases (name, locked_until, locked_by) values (:name, :lockedUntil, :lockedBy)",
+            nativeQuery = true)
+    int insert(
+            @Param("name") String name,
+            @Param("lockedBy") String lockedBy,
+            @Param("lockedUntil") Instant lockedUntil);
+}
@@ -2,12 +2,116 @@ package com.jimmyweng.ecommerce.repository.favorite;
 
 import com.jimmyweng.ecommerce.model.favorite.Favorite;
 import com.jimmyweng.ecommerce.model.favorite.FavoriteId;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, FavoriteId> {
 
     List<Favorite> findAllByIdUserIdOrderByCreatedAtDesc(Long userId);
+
+    @Query("select f.id.productId from Favorite f where f.id.userId = :userId and f.id.productId in :productIds")
+    List<Long> findStoredProductIds(
+            @Param("userId") Long userId, @Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Favorited product ids of the user, in no particular order and including deleted products;
+     * feeds the per-user id sets behind the {@code favorited} flags.
+     */
+    @Transactional(readOnly = true)
+    @Query("select f.id.productId from Favorite f join User u on u.id = f.id.userId where u.email = :email")
+    List<Long> findProductIdsByUserEmail(@Param("email") String email, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select f.id.productId
+            from Favorite f
+            join User u on u.id = f.id.userId
+            where u.email = :email
+              and f.id.productId in :productIds
+            """)
+    List<Long> findProductIdsByUserEmailAmong(
+            @Param("email") String email, @Param("productIds") Collection<Long> productIds);
+
+    @Query("""
+            select new com.jimmyweng.ecommerce.repository.favorite.FavoritedProduct(p, f.createdAt)
+            from Favorite f
+            join Product p on p.id = f.id.productId
+            where f.id.userId = :userId
+              and p.deletedAt is null
+            order by f.createdAt desc, f.id.productId desc
+            """)
+    List<FavoritedProduct> findActiveFavorites(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            select new com.jimmyweng.ecommerce.repository.favorite.FavoritedProduct(p, f.createdAt)
+            from Favorite f
+            join Product p on p.id = f.id.productId
+            where f.id.userId = :userId
+              and p.deletedAt is null
+              and (f.createdAt < :createdAt
+                   or (f.createdAt = :createdAt and f.id.productId < :productId))
+            order by f.createdAt desc, f.id.productId desc
+            """)
+    List<FavoritedProduct> findActiveFavoritesBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("productId") Long productId,
+            Limit limit);
+
+    /**
+     * Inserts the favorite only if the user exists, the product is active and the pair is not
+     * already stored; returns the number of rows inserted (0 or 1). Concurrent adds of the same
+     * pair can still collide on the primary key.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(
+            value = """
+                    insert into favorites (user_id, product_id, created_at)
+                    select u.id, p.id, :createdAt
+                    from users u
+                    join products p on p.id = :productId and p.deleted_at is null
+                    where u.email = :email
+                      and not exists (
+                          select 1 from favorites f where f.user_id = u.id and f.product_id = p.id)
+                    """,
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("email") String email,
+            @Param("productId") Long productId,
+            @Param("createdAt") Instant createdAt);
+
+    /**
+     * Explains an {@link #insertIfAbsent} that inserted nothing. Read-write, so it runs on the
+     * primary the insert just saw rather than a replica that may lag behind it.
+     */
+    @Transactional
+    @Query(
+            value = """
+                    select count(*) from favorites f
+                    join users u on u.id = f.user_id
+                    where u.email = :email and f.product_id = :productId
+                    """,
+            nativeQuery = true)
+    long countOnPrimary(@Param("email") String email, @Param("productId") Long productId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(
+            value = """
+                    delete from favorites
+                    where product_id = :productId
+                      and user_id = (select u.id from users u where u.email = :email)
+                    """,
+            nativeQuery = true)
+    int deleteByUserEmail(@Param("email") String email, @Param("productId") Long productId);
 }
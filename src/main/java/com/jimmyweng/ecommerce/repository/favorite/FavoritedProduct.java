@@ -0,0 +1,10 @@
+package com.jimmyweng.ecommerce.repository.favorite;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import java.time.Instant;
+
+/**
+ * An active product together with the moment the user favorited it, which is the listing's sort
+ * key and therefore what a page cursor is built from.
+ */
+public record FavoritedProduct(Product product, Instant favoritedAt) {}
@@ -0,0 +1,8 @@
+package com.jimmyweng.ecommerce.repository.favorite;
+
+import com.jimmyweng.ecommerce.model.favorite.ProductFavoriteCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductFavoriteCountRepository extends JpaRepository<ProductFavoriteCount, Long> {}
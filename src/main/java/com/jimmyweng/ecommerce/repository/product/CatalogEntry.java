@@ -0,0 +1,19 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Compact, description-less view of a product used by in-memory catalog structures.
+ * {@code active} is false for soft-deleted rows returned by the change feed.
+ */
+public record CatalogEntry(
+        Long id,
+        String title,
+        String category,
+        BigDecimal price,
+        Integer stock,
+        Long version,
+        Instant createdAt,
+        Instant updatedAt,
+        boolean active) {}
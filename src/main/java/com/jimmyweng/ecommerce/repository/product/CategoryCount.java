@@ -0,0 +1,6 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+/**
+ * Number of active products in one (normalized) category.
+ */
+public record CategoryCount(String category, long productCount) {}
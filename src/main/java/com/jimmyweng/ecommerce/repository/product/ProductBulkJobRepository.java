@@ -0,0 +1,52 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import com.jimmyweng.ecommerce.constant.BulkJobStatus;
+import com.jimmyweng.ecommerce.model.product.ProductBulkJob;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductBulkJobRepository extends JpaRepository<ProductBulkJob, Long> {
+
+    /**
+     * Compare-and-set on the checkpoint: returns 0 when another run already moved it, in which case
+     * the caller must roll back the chunk it just applied.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update ProductBulkJob j
+            set j.checkpointRows = :checkpointRows,
+                j.updatedRows = j.updatedRows + :updatedRows,
+                j.conflictRows = j.conflictRows + :conflictRows,
+                j.missingRows = j.missingRows + :missingRows,
+                j.elapsedMillis = j.elapsedMillis + :elapsedMillis,
+                j.status = com.jimmyweng.ecommerce.constant.BulkJobStatus.RUNNING,
+                j.updatedAt = :updatedAt
+            where j.id = :jobId and j.checkpointRows = :expectedCheckpointRows
+            """)
+    int advanceCheckpoint(
+            @Param("jobId") Long jobId,
+            @Param("expectedCheckpointRows") int expectedCheckpointRows,
+            @Param("checkpointRows") int checkpointRows,
+            @Param("updatedRows") int updatedRows,
+            @Param("conflictRows") int conflictRows,
+            @Param("missingRows") int missingRows,
+            @Param("elapsedMillis") long elapsedMillis,
+            @Param("updatedAt") Instant updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update ProductBulkJob j
+            set j.status = :status, j.updatedAt = :updatedAt, j.completedAt = :completedAt
+            where j.id = :jobId
+            """)
+    int updateStatus(
+            @Param("jobId") Long jobId,
+            @Param("status") BulkJobStatus status,
+            @Param("updatedAt") Instant updatedAt,
+            @Param("completedAt") Instant completedAt);
+}
@@ -0,0 +1,20 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Keyword-less listing filters. {@code null} fields are absent filters; {@code inStock} keeps only
+ * products with stock left. {@code afterId} marks a
+ * keyset position together with {@code afterCreatedAt} (newest) or {@code afterPrice} (price
+ * sorts); without it the listing starts at the pageable's offset.
+ */
+public record ProductListingQuery(
+        String category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        boolean inStock,
+        ProductSort sort,
+        Instant afterCreatedAt,
+        BigDecimal afterPrice,
+        Long afterId) {}
@@ -0,0 +1,16 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface ProductListingRepository {
+
+    Slice<Product> findListing(ProductListingQuery query, Pageable pageable);
+
+    /**
+     * Keyword search, newest first with {@code LIKE} or by relevance with the MySQL full-text
+     * index. {@code category} may be {@code null}.
+     */
+    Slice<Product> searchListing(String category, String keyword, boolean fullText, Pageable pageable);
+}
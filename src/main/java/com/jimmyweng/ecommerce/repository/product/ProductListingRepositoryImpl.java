@@ -0,0 +1,80 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductListingStatements.Shape;
+import com.jimmyweng.ecommerce.repository.product.ProductListingStatements.Statement;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Runs the statement {@link ProductListingStatements} holds for each listing's shape:
+ * <ul>
+ *   <li>newest: {@code (deleted_at, category, created_at)} or {@code (deleted_at, created_at)}</li>
+ *   <li>price sorts: {@code (deleted_at, category, price)} or {@code (deleted_at, price)}</li>
+ * </ul>
+ * InnoDB appends the primary key to each, which covers the id tie-breaker.
+ */
+class ProductListingRepositoryImpl implements ProductListingRepository {
+
+    private final EntityManager entityManager;
+
+    ProductListingRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Product> findListing(ProductListingQuery query, Pageable pageable) {
+        boolean keyset = query.afterId() != null;
+        Query nativeQuery = createQuery(ProductListingStatements.statementFor(Shape.of(query)));
+        if (query.category() != null) {
+            nativeQuery.setParameter("category", query.category());
+        }
+        if (query.minPrice() != null) {
+            nativeQuery.setParameter("minPrice", query.minPrice());
+        }
+        if (query.maxPrice() != null) {
+            nativeQuery.setParameter("maxPrice", query.maxPrice());
+        }
+        if (keyset) {
+            nativeQuery.setParameter(
+                    "afterKey", query.sort() == ProductSort.NEWEST ? query.afterCreatedAt() : query.afterPrice());
+            nativeQuery.setParameter("afterId", query.afterId());
+        }
+        return slice(nativeQuery, keyset ? 0 : pageable.getOffset(), pageable);
+    }
+
+    @Override
+    public Slice<Product> searchListing(String category, String keyword, boolean fullText, Pageable pageable) {
+        Query nativeQuery = createQuery(ProductListingStatements.statementFor(Shape.search(category != null, fullText)));
+        if (category != null) {
+            nativeQuery.setParameter("category", category);
+        }
+        nativeQuery.setParameter("keyword", keyword);
+        return slice(nativeQuery, pageable.getOffset(), pageable);
+    }
+
+    /** Listings only read; read-only entities skip Hibernate's dirty-checking snapshots. */
+    private Query createQuery(Statement statement) {
+        return entityManager.createNativeQuery(statement.sql(), Product.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Slice<Product> slice(Query query, long offset, Pageable pageable) {
+        query.setFirstResult(Math.toIntExact(offset));
+        // One extra row tells whether another page exists, without a count query.
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Product> rows = new ArrayList<>(query.getResultList());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows.remove(rows.size() - 1);
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+}
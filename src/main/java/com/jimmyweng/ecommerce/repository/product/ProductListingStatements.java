@@ -0,0 +1,135 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One native statement per listing shape, built on first use and cached. Each statement carries
+ * only the predicates its shape has, so the optimizer never plans a {@code (:param is null or
+ * ...)} disjunction. Every index-ordered shape names its index with {@code USE INDEX}: the
+ * category and no-category indexes share their leading columns, and with {@code ORDER BY ...
+ * LIMIT} MySQL may otherwise pick the one that filters best and sort afterwards. {@code USE INDEX}
+ * still lets it fall back to a table scan. Full-text shapes carry no hint, since
+ * {@code MATCH ... AGAINST} already drives the full-text index.
+ */
+final class ProductListingStatements {
+
+    static final String CATEGORY_CREATED_INDEX = "idx_products_deleted_category_created";
+    static final String CREATED_INDEX = "idx_products_deleted_created";
+    static final String CATEGORY_PRICE_INDEX = "idx_products_deleted_category_price";
+    static final String PRICE_INDEX = "idx_products_deleted_price";
+
+    private static final String MATCH = "match(p.title, p.description) against (:keyword in natural language mode)";
+
+    private static final Map<Shape, Statement> STATEMENTS = new ConcurrentHashMap<>();
+
+    private ProductListingStatements() {
+    }
+
+    enum Search {
+        NONE,
+        LIKE,
+        FULL_TEXT
+    }
+
+    /**
+     * Which filters a listing has, not their values. Keyword searches only vary by category and are
+     * always newest-first (LIKE) or by relevance (full text).
+     */
+    record Shape(
+            boolean category,
+            boolean minPrice,
+            boolean maxPrice,
+            boolean inStock,
+            ProductSort sort,
+            boolean keyset,
+            Search search) {
+
+        static Shape of(ProductListingQuery query) {
+            return new Shape(
+                    query.category() != null,
+                    query.minPrice() != null,
+                    query.maxPrice() != null,
+                    query.inStock(),
+                    query.sort(),
+                    query.afterId() != null,
+                    Search.NONE);
+        }
+
+        static Shape search(boolean category, boolean fullText) {
+            return new Shape(
+                    category, false, false, false, ProductSort.NEWEST, false, fullText ? Search.FULL_TEXT : Search.LIKE);
+        }
+    }
+
+    /** {@code index} is the index named in the hint, or {@code null} for full-text shapes. */
+    record Statement(String sql, String index) {}
+
+    static Statement statementFor(Shape shape) {
+        return STATEMENTS.computeIfAbsent(shape, ProductListingStatements::build);
+    }
+
+    private static Statement build(Shape shape) {
+        String index = index(shape);
+        StringBuilder sql = new StringBuilder("select p.* from products p");
+        if (index != null) {
+            sql.append(" use index (").append(index).append(')');
+        }
+        sql.append(" where p.deleted_at is null");
+        if (shape.category()) {
+            sql.append(" and p.category = :category");
+        }
+        if (shape.minPrice()) {
+            sql.append(" and p.price >= :minPrice");
+        }
+        if (shape.maxPrice()) {
+            sql.append(" and p.price <= :maxPrice");
+        }
+        if (shape.inStock()) {
+            sql.append(" and p.stock > 0");
+        }
+        switch (shape.search()) {
+            case LIKE -> sql.append(" and (lower(p.title) like lower(concat('%', :keyword, '%'))")
+                    .append(" or lower(coalesce(p.description, '')) like lower(concat('%', :keyword, '%')))");
+            case FULL_TEXT -> sql.append(" and ").append(MATCH);
+            case NONE -> {
+            }
+        }
+        if (shape.search() == Search.FULL_TEXT) {
+            sql.append(" order by ").append(MATCH).append(" desc, p.created_at desc, p.id desc");
+            return new Statement(sql.toString(), null);
+        }
+        // Keyset positions are written as key >= :k and (key > :k or id > :id) so the range stays sargable.
+        switch (shape.sort()) {
+            case NEWEST -> {
+                if (shape.keyset()) {
+                    sql.append(" and p.created_at <= :afterKey and (p.created_at < :afterKey or p.id < :afterId)");
+                }
+                sql.append(" order by p.created_at desc, p.id desc");
+            }
+            case PRICE_ASC -> {
+                if (shape.keyset()) {
+                    sql.append(" and p.price >= :afterKey and (p.price > :afterKey or p.id > :afterId)");
+                }
+                sql.append(" order by p.price asc, p.id asc");
+            }
+            case PRICE_DESC -> {
+                if (shape.keyset()) {
+                    sql.append(" and p.price <= :afterKey and (p.price < :afterKey or p.id < :afterId)");
+                }
+                sql.append(" order by p.price desc, p.id desc");
+            }
+        }
+        return new Statement(sql.toString(), index);
+    }
+
+    private static String index(Shape shape) {
+        if (shape.search() == Search.FULL_TEXT) {
+            return null;
+        }
+        if (shape.sort() == ProductSort.NEWEST) {
+            return shape.category() ? CATEGORY_CREATED_INDEX : CREATED_INDEX;
+        }
+        return shape.category() ? CATEGORY_PRICE_INDEX : PRICE_INDEX;
+    }
+}
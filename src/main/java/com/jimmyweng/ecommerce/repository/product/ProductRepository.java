@@ -1,63 +1,71 @@
 package com.jimmyweng.ecommerce.repository.product;
 
 import com.jimmyweng.ecommerce.model.product.Product;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductListingRepository {
 
     Optional<Product> findByIdAndDeletedAtIsNull(Long id);
 
     List<Product> findAllByIdInAndDeletedAtIsNull(Collection<Long> ids);
 
+    /**
+     * Read-write, so it runs on the primary; for telling a product deleted on another instance
+     * from one this instance still serves from cache.
+     */
+    @Transactional
+    @Query("select count(p) > 0 from Product p where p.id = :productId and p.deletedAt is null")
+    boolean existsActiveOnPrimary(@Param("productId") Long productId);
+
     @Modifying(clearAutomatically = true)
-    @Query("update Product p set p.stock = p.stock - :quantity "
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedAt = :updatedAt "
                     + "where p.id = :productId and p.deletedAt is null and p.stock >= :quantity")
-    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+    int decrementStock(
+            @Param("productId") Long productId,
+            @Param("quantity") int quantity,
+            @Param("updatedAt") Instant updatedAt);
 
     @Query("""
-            select p from Product p
+            select new com.jimmyweng.ecommerce.repository.product.CatalogEntry(
+                p.id, p.title, p.category, p.price, p.stock, p.version, p.createdAt, p.updatedAt, true)
+            from Product p
             where p.deletedAt is null
-              and (:category is null or p.category = :category)
-              and (:keyword is null or
-                   lower(p.title) like lower(concat('%', :keyword, '%')) or
-                   lower(coalesce(p.description, '')) like lower(concat('%', :keyword, '%')))
-            order by p.createdAt desc
+              and p.id > :afterId
+            order by p.id
+            """)
+    List<CatalogEntry> findActiveCatalogEntriesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+            select new com.jimmyweng.ecommerce.repository.product.CatalogEntry(
+                p.id, p.title, p.category, p.price, p.stock, p.version, p.createdAt, p.updatedAt,
+                case when p.deletedAt is null then true else false end)
+            from Product p
+            where p.updatedAt > :since
+               or (p.updatedAt = :since and p.id > :afterId)
+            order by p.updatedAt, p.id
             """)
-    Slice<Product> searchActiveProductsLike(
-            @Param("category") String category, @Param("keyword") String keyword, Pageable pageable);
-
-    @Query(
-            value = """
-                    select p.*
-                    from products p
-                    where p.deleted_at is null
-                      and (:category is null or p.category = :category)
-                      and match(p.title, p.description) against (:keyword in natural language mode)
-                    order by match(p.title, p.description) against (:keyword in natural language mode) desc,
-                             p.created_at desc
-                    """,
-            nativeQuery = true)
-    Slice<Product> searchActiveProductsFullText(
-            @Param("category") String category, @Param("keyword") String keyword, Pageable pageable);
+    List<CatalogEntry> findCatalogChangesSince(
+            @Param("since") Instant since, @Param("afterId") Long afterId, Limit limit);
 
     @Query("""
-            select p from Product p
+            select new com.jimmyweng.ecommerce.repository.product.CategoryCount(p.category, count(p))
+            from Product p
             where p.deletedAt is null
-              and (:category is null or p.category = :category)
-            order by p.createdAt desc
+            group by p.category
             """)
-    Slice<Product> searchActiveProductsByCategory(
-            @Param("category") String category, Pageable pageable);
+    List<CategoryCount> countActiveByCategory();
 
-    void deleteByTitleStartingWith(String titlePrefix);
+    @Query("select max(p.updatedAt) from Product p")
+    Optional<Instant> findLatestUpdatedAt();
 }
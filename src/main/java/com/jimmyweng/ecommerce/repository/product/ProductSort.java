@@ -0,0 +1,28 @@
+package com.jimmyweng.ecommerce.repository.product;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Orders supported by the product listing. Each ends with the id as a tie-breaker, so keyset
+ * cursors are unambiguous.
+ */
+public enum ProductSort {
+    NEWEST("newest"),
+    PRICE_ASC("price_asc"),
+    PRICE_DESC("price_desc");
+
+    private final String param;
+
+    ProductSort(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public static Optional<ProductSort> fromParam(String param) {
+        return Arrays.stream(values()).filter(sort -> sort.param.equals(param)).findFirst();
+    }
+}
@@ -0,0 +1,75 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of every active product, keyed by id. Populated by {@link CatalogSnapshotService}
+ * from a snapshot or a cold scan, then kept current by replaying the {@code updated_at} change feed.
+ */
+@Component
+public class ActiveCatalog {
+
+    private final ConcurrentMap<Long, CatalogEntry> entries = new ConcurrentHashMap<>();
+    private volatile Instant changeFeedOffset = Instant.EPOCH;
+    // Bumped by every load and every change that alters an entry; 0 until the first load.
+    private volatile long generation;
+
+    public Optional<CatalogEntry> get(Long productId) {
+        return Optional.ofNullable(entries.get(productId));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Instant changeFeedOffset() {
+        return changeFeedOffset;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    synchronized void replaceAll(CatalogSnapshot snapshot) {
+        entries.clear();
+        for (CatalogEntry entry : snapshot.entries()) {
+            entries.put(entry.id(), entry);
+        }
+        changeFeedOffset = snapshot.changeFeedOffset();
+        generation++;
+    }
+
+    /**
+     * Applies one change-feed row. Replays overlap on purpose, so rows older than the held version are
+     * ignored and soft-deleted rows simply drop out.
+     */
+    synchronized void apply(CatalogEntry change) {
+        CatalogEntry current = entries.get(change.id());
+        if (current == null || current.version() <= change.version()) {
+            if (change.active()) {
+                if (!change.equals(entries.put(change.id(), change))) {
+                    generation++;
+                }
+            } else if (entries.remove(change.id()) != null) {
+                generation++;
+            }
+        }
+        if (change.updatedAt().isAfter(changeFeedOffset)) {
+            changeFeedOffset = change.updatedAt();
+        }
+    }
+
+    synchronized CatalogSnapshot snapshot() {
+        List<CatalogEntry> copy = new ArrayList<>(entries.values());
+        copy.sort(Comparator.comparing(CatalogEntry::id));
+        return new CatalogSnapshot(changeFeedOffset, copy);
+    }
+}
@@ -0,0 +1,287 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import com.jimmyweng.ecommerce.repository.product.ProductListingQuery;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable bitmap index over the active catalog. Ordinals are ranks in the newest-first order
+ * {@code (created_at desc, id desc)}; there is one bitmap per category, per configured price band
+ * and for in-stock products, plus a price-ordered permutation of the ordinals. A listing ANDs the
+ * bitmaps of its filters (ORing the bands its price range touches) and walks the sort order until
+ * the page is full, so only the ids of that page leave the index.
+ */
+public final class CatalogFilterIndex {
+
+    private static final Comparator<CatalogEntry> NEWEST_FIRST = Comparator
+            .comparing(CatalogEntry::createdAt, Comparator.reverseOrder())
+            .thenComparing(CatalogEntry::id, Comparator.reverseOrder());
+
+    private final long generation;
+    private final long[] ids;
+    private final long[] createdAtNanos;
+    private final long[] priceCents;
+    // Ordinals in (price asc, id asc) order; price_desc walks it backwards.
+    private final int[] byPriceAsc;
+    private final BitSet all;
+    private final BitSet inStock;
+    private final Map<String, BitSet> byCategory;
+    // Band i holds prices below bandBounds[i] and at or above bandBounds[i - 1]; the last band is open.
+    private final long[] bandBounds;
+    private final BitSet[] byPriceBand;
+
+    private CatalogFilterIndex(long generation, List<CatalogEntry> entries, long[] bandBounds) {
+        int size = entries.size();
+        this.generation = generation;
+        this.ids = new long[size];
+        this.createdAtNanos = new long[size];
+        this.priceCents = new long[size];
+        this.all = new BitSet(size);
+        this.inStock = new BitSet(size);
+        this.byCategory = new HashMap<>();
+        this.bandBounds = bandBounds;
+        this.byPriceBand = new BitSet[bandBounds.length + 1];
+        for (int band = 0; band < byPriceBand.length; band++) {
+            byPriceBand[band] = new BitSet(size);
+        }
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            CatalogEntry entry = entries.get(ordinal);
+            ids[ordinal] = entry.id();
+            createdAtNanos[ordinal] = nanos(entry.createdAt());
+            priceCents[ordinal] = cents(entry.price(), RoundingMode.HALF_UP);
+            all.set(ordinal);
+            if (entry.stock() != null && entry.stock() > 0) {
+                inStock.set(ordinal);
+            }
+            byCategory.computeIfAbsent(entry.category(), category -> new BitSet(size)).set(ordinal);
+            byPriceBand[band(priceCents[ordinal])].set(ordinal);
+        }
+
+        Integer[] order = new Integer[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            order[ordinal] = ordinal;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(ordinal -> priceCents[ordinal])
+                .thenComparingLong(ordinal -> ids[ordinal]));
+        this.byPriceAsc = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * {@code priceBands} are the band boundaries, in any order.
+     */
+    public static CatalogFilterIndex build(
+            long generation, Collection<CatalogEntry> entries, Collection<BigDecimal> priceBands) {
+        List<CatalogEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(NEWEST_FIRST);
+        long[] bounds = priceBands.stream()
+                .mapToLong(bound -> cents(bound, RoundingMode.CEILING))
+                .sorted()
+                .distinct()
+                .toArray();
+        return new CatalogFilterIndex(generation, sorted, bounds);
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Ids of one page of {@code query}, starting after its keyset position or, without one, after
+     * {@code offset} matches. {@code hasNext} is exact as of this index.
+     */
+    public Page page(ProductListingQuery query, long offset, int size) {
+        long minCents = query.minPrice() != null ? cents(query.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = query.maxPrice() != null ? cents(query.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        PageCollector collector = new PageCollector(query.afterId() != null ? 0 : offset, size);
+        if (minCents > maxCents) {
+            return collector.page();
+        }
+        switch (query.sort()) {
+            case NEWEST -> {
+                BitSet candidates = candidates(query, minCents, maxCents, true);
+                // Bands at either end of the range also hold prices just outside it.
+                boolean checkPrice = query.minPrice() != null || query.maxPrice() != null;
+                int from = query.afterId() != null ? firstNewerThanCursor(query) : 0;
+                for (int ordinal = candidates.nextSetBit(from);
+                        ordinal >= 0 && !collector.full();
+                        ordinal = candidates.nextSetBit(ordinal + 1)) {
+                    if (!checkPrice || (priceCents[ordinal] >= minCents && priceCents[ordinal] <= maxCents)) {
+                        collector.offer(ids[ordinal]);
+                    }
+                }
+            }
+            case PRICE_ASC -> {
+                BitSet candidates = candidates(query, minCents, maxCents, false);
+                int from = firstPricePosition(minCents, Long.MIN_VALUE);
+                if (query.afterId() != null) {
+                    from = Math.max(from, firstPricePosition(
+                            cents(query.afterPrice(), RoundingMode.HALF_UP), query.afterId() + 1));
+                }
+                for (int position = from; position < byPriceAsc.length && !collector.full(); position++) {
+                    int ordinal = byPriceAsc[position];
+                    if (priceCents[ordinal] > maxCents) {
+                        break;
+                    }
+                    if (candidates.get(ordinal)) {
+                        collector.offer(ids[ordinal]);
+                    }
+                }
+            }
+            case PRICE_DESC -> {
+                BitSet candidates = candidates(query, minCents, maxCents, false);
+                int from = maxCents == Long.MAX_VALUE
+                        ? byPriceAsc.length - 1
+                        : firstPricePosition(maxCents + 1, Long.MIN_VALUE) - 1;
+                if (query.afterId() != null) {
+                    from = Math.min(from, firstPricePosition(
+                            cents(query.afterPrice(), RoundingMode.HALF_UP), query.afterId()) - 1);
+                }
+                for (int position = from; position >= 0 && !collector.full(); position--) {
+                    int ordinal = byPriceAsc[position];
+                    if (priceCents[ordinal] < minCents) {
+                        break;
+                    }
+                    if (candidates.get(ordinal)) {
+                        collector.offer(ids[ordinal]);
+                    }
+                }
+            }
+        }
+        return collector.page();
+    }
+
+    /**
+     * AND of the category, in-stock and (for the newest order) price-band bitmaps. Price sorts
+     * bound the price range by position instead, so the bands would only cost an extra pass.
+     */
+    private BitSet candidates(ProductListingQuery query, long minCents, long maxCents, boolean useBands) {
+        BitSet filter = null;
+        if (query.category() != null) {
+            filter = byCategory.get(query.category());
+            if (filter == null) {
+                return new BitSet();
+            }
+        }
+        if (query.inStock()) {
+            filter = and(filter, inStock);
+        }
+        if (useBands && (minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE)) {
+            int lowest = minCents == Long.MIN_VALUE ? 0 : band(minCents);
+            int highest = maxCents == Long.MAX_VALUE ? byPriceBand.length - 1 : band(maxCents);
+            BitSet bands = new BitSet(ids.length);
+            for (int band = lowest; band <= highest; band++) {
+                bands.or(byPriceBand[band]);
+            }
+            filter = and(filter, bands);
+        }
+        return filter != null ? filter : all;
+    }
+
+    /** Never mutates {@code left}, which may be one of the index's own bitmaps. */
+    private static BitSet and(BitSet left, BitSet right) {
+        BitSet result = (BitSet) (left != null ? left : right).clone();
+        if (left != null) {
+            result.and(right);
+        }
+        return result;
+    }
+
+    private int band(long cents) {
+        int position = Arrays.binarySearch(bandBounds, cents);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    /** First ordinal that sorts after the cursor in {@code (created_at desc, id desc)}. */
+    private int firstNewerThanCursor(ProductListingQuery query) {
+        long cursorNanos = nanos(query.afterCreatedAt());
+        long cursorId = query.afterId();
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean after = createdAtNanos[mid] < cursorNanos
+                    || (createdAtNanos[mid] == cursorNanos && ids[mid] < cursorId);
+            if (after) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /** First position in {@link #byPriceAsc} at or after {@code (cents, id)}. */
+    private int firstPricePosition(long cents, long id) {
+        int low = 0;
+        int high = byPriceAsc.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int ordinal = byPriceAsc[mid];
+            boolean atOrAfter = priceCents[ordinal] > cents || (priceCents[ordinal] == cents && ids[ordinal] >= id);
+            if (atOrAfter) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    public record Page(List<Long> productIds, boolean hasNext) {}
+
+    private static final class PageCollector {
+
+        private final int size;
+        private final List<Long> productIds;
+        private long toSkip;
+        private boolean hasNext;
+
+        private PageCollector(long toSkip, int size) {
+            this.toSkip = toSkip;
+            this.size = size;
+            this.productIds = new ArrayList<>(size);
+        }
+
+        void offer(long productId) {
+            if (toSkip > 0) {
+                toSkip--;
+            } else if (productIds.size() < size) {
+                productIds.add(productId);
+            } else {
+                hasNext = true;
+            }
+        }
+
+        boolean full() {
+            return hasNext;
+        }
+
+        Page page() {
+            return new Page(productIds, hasNext);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "catalog.filter-index")
+public class CatalogFilterIndexProperties {
+
+    /**
+     * Whether keyword-less listings are answered from the bitmap index. Needs the in-memory catalog
+     * ({@code catalog.snapshot.enabled}); until it is loaded, listings go to the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Price band boundaries; each band gets one bitmap. Bands should be narrow where listings
+     * commonly put their price bounds.
+     */
+    private List<BigDecimal> priceBands = List.of(
+            new BigDecimal("10"),
+            new BigDecimal("25"),
+            new BigDecimal("50"),
+            new BigDecimal("100"),
+            new BigDecimal("250"),
+            new BigDecimal("500"),
+            new BigDecimal("1000"));
+
+    /**
+     * How often the index is rebuilt from the in-memory catalog, if the catalog changed since.
+     */
+    private Duration rebuildInterval = Duration.ofSeconds(5);
+}
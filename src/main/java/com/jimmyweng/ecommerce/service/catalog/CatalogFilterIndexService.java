@@ -0,0 +1,158 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductListingQuery;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the current {@link CatalogFilterIndex}, rebuilt from the {@link ActiveCatalog} whenever the
+ * change feed moved it. Listings filter and paginate in memory; only the page's ids are loaded from
+ * the database, so products deleted since the last rebuild drop out of that page. If a loaded row
+ * no longer matches the query or its place in the order (sold out, repriced, recategorized since
+ * the rebuild), the page is left to the database instead.
+ */
+@Service
+public class CatalogFilterIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogFilterIndexService.class);
+
+    private final ActiveCatalog activeCatalog;
+    private final CatalogFilterIndexProperties properties;
+    private final ProductRepository productRepository;
+    private volatile CatalogFilterIndex current;
+
+    public CatalogFilterIndexService(
+            ActiveCatalog activeCatalog,
+            CatalogFilterIndexProperties properties,
+            ProductRepository productRepository) {
+        this.activeCatalog = activeCatalog;
+        this.properties = properties;
+        this.productRepository = productRepository;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${catalog.filter-index.rebuild-interval:PT5S}",
+            initialDelayString = "${catalog.filter-index.rebuild-interval:PT5S}")
+    public void rebuild() {
+        long generation = activeCatalog.generation();
+        CatalogFilterIndex previous = current;
+        if (!properties.isEnabled() || generation == 0 || (previous != null && previous.generation() == generation)) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Read after the generation: changes in between are indexed now and rebuilt once more next time.
+        CatalogSnapshot snapshot = activeCatalog.snapshot();
+        current = CatalogFilterIndex.build(generation, snapshot.entries(), properties.getPriceBands());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (previous == null) {
+            log.info("Catalog filter index built in {} ms: products={}", elapsedMs, current.size());
+        } else if (log.isDebugEnabled()) {
+            log.debug("Catalog filter index rebuilt in {} ms: products={}", elapsedMs, current.size());
+        }
+    }
+
+    /**
+     * One listing page from the index; empty while no index is built yet, or when the page's rows
+     * changed since the rebuild so that the index answer would be wrong.
+     */
+    public Optional<Slice<Product>> findListing(ProductListingQuery query, Pageable pageable) {
+        CatalogFilterIndex index = current;
+        if (index == null) {
+            return Optional.empty();
+        }
+        CatalogFilterIndex.Page page = index.page(query, pageable.getOffset(), pageable.getPageSize());
+        List<Product> products = hydrate(page.productIds());
+        if (!matchesInOrder(query, products)) {
+            log.debug("Catalog filter index page is stale for {}, reading the database", query);
+            return Optional.empty();
+        }
+        return Optional.of(new SliceImpl<>(products, pageable, page.hasNext()));
+    }
+
+    /**
+     * Re-applies the query to the loaded rows: each must pass the filters, come after the cursor and
+     * follow its predecessor in the listing order.
+     */
+    private static boolean matchesInOrder(ProductListingQuery query, List<Product> products) {
+        Comparator<Product> order = order(query.sort());
+        Product previous = null;
+        for (Product product : products) {
+            if (!matches(query, product)) {
+                return false;
+            }
+            if (query.afterId() != null && compareToCursor(query, product) <= 0) {
+                return false;
+            }
+            if (previous != null && order.compare(previous, product) > 0) {
+                return false;
+            }
+            previous = product;
+        }
+        return true;
+    }
+
+    private static boolean matches(ProductListingQuery query, Product product) {
+        return (query.category() == null || query.category().equals(product.getCategory()))
+                && (query.minPrice() == null || product.getPrice().compareTo(query.minPrice()) >= 0)
+                && (query.maxPrice() == null || product.getPrice().compareTo(query.maxPrice()) <= 0)
+                && (!query.inStock() || product.getStock() > 0);
+    }
+
+    /** Positive when {@code product} sorts after the query's keyset position. */
+    private static int compareToCursor(ProductListingQuery query, Product product) {
+        int byKey = switch (query.sort()) {
+            case NEWEST -> query.afterCreatedAt().compareTo(product.getCreatedAt());
+            case PRICE_ASC -> product.getPrice().compareTo(query.afterPrice());
+            case PRICE_DESC -> query.afterPrice().compareTo(product.getPrice());
+        };
+        if (byKey != 0) {
+            return byKey;
+        }
+        return query.sort() == ProductSort.PRICE_ASC
+                ? product.getId().compareTo(query.afterId())
+                : query.afterId().compareTo(product.getId());
+    }
+
+    private static Comparator<Product> order(ProductSort sort) {
+        return switch (sort) {
+            case NEWEST -> Comparator.comparing(Product::getCreatedAt)
+                    .thenComparing(Product::getId)
+                    .reversed();
+            case PRICE_ASC -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+            case PRICE_DESC -> Comparator.comparing(Product::getPrice)
+                    .thenComparing(Product::getId)
+                    .reversed();
+        };
+    }
+
+    private List<Product> hydrate(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = productRepository.findAllByIdInAndDeletedAtIsNull(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Product product = byId.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+}
@@ -0,0 +1,12 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Point-in-time copy of the active catalog. {@code changeFeedOffset} is the highest
+ * {@code products.updated_at} already reflected in {@code entries}; replaying changes
+ * after it brings the snapshot up to date.
+ */
+public record CatalogSnapshot(Instant changeFeedOffset, List<CatalogEntry> entries) {}
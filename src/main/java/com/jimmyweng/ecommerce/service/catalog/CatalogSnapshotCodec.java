@@ -0,0 +1,148 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot format for the active catalog (big-endian):
+ *
+ * <pre>
+ * header  : int magic "ECS1" | short formatVersion | long offsetSeconds | int offsetNanos | int entryCount
+ * entry   : long id | long version | long priceCents | int stock
+ *           | long createdSeconds | int createdNanos | long updatedSeconds | int updatedNanos
+ *           | short categoryLength | category UTF-8 | short titleLength | title UTF-8
+ * trailer : int CRC32C of every preceding byte
+ * </pre>
+ *
+ * Files are written to a temporary sibling, fsynced and atomically renamed, and read back through a
+ * read-only memory mapping so the page cache is reused across restarts.
+ */
+public final class CatalogSnapshotCodec {
+
+    static final int MAGIC = 0x45435331;
+    static final short FORMAT_VERSION = 1;
+    private static final int PRICE_SCALE = 2;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+
+    private CatalogSnapshotCodec() {}
+
+    public static void write(Path target, CatalogSnapshot snapshot) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        try {
+            CRC32C crc = new CRC32C();
+            try (FileOutputStream fileStream = new FileOutputStream(temp.toFile());
+                    DataOutputStream out = new DataOutputStream(
+                            new CheckedOutputStream(new BufferedOutputStream(fileStream, 1 << 16), crc))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(snapshot.changeFeedOffset().getEpochSecond());
+                out.writeInt(snapshot.changeFeedOffset().getNano());
+                out.writeInt(snapshot.entries().size());
+                for (CatalogEntry entry : snapshot.entries()) {
+                    writeEntry(out, entry);
+                }
+                out.writeInt((int) crc.getValue());
+                out.flush();
+                fileStream.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static CatalogSnapshot read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot has unexpected size " + size + ": " + source);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyLength = (int) size - TRAILER_BYTES;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Catalog snapshot checksum mismatch: " + source);
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + source);
+            }
+            short formatVersion = buffer.getShort();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + formatVersion + ": " + source);
+            }
+
+            Instant offset = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            int count = buffer.getInt();
+            List<CatalogEntry> entries = new ArrayList<>(count);
+            Map<String, String> categories = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(buffer, categories));
+            }
+            return new CatalogSnapshot(offset, entries);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, CatalogEntry entry) throws IOException {
+        out.writeLong(entry.id());
+        out.writeLong(entry.version());
+        out.writeLong(entry.price().setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        out.writeInt(entry.stock());
+        out.writeLong(entry.createdAt().getEpochSecond());
+        out.writeInt(entry.createdAt().getNano());
+        out.writeLong(entry.updatedAt().getEpochSecond());
+        out.writeInt(entry.updatedAt().getNano());
+        writeString(out, entry.category());
+        writeString(out, entry.title());
+    }
+
+    private static CatalogEntry readEntry(MappedByteBuffer buffer, Map<String, String> categories) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        BigDecimal price = BigDecimal.valueOf(buffer.getLong(), PRICE_SCALE);
+        int stock = buffer.getInt();
+        Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        Instant updatedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        // Categories repeat across hundreds of thousands of rows; share one String per value.
+        String category = categories.computeIfAbsent(readString(buffer), value -> value);
+        String title = readString(buffer);
+        return new CatalogEntry(id, title, category, price, stock, version, createdAt, updatedAt, true);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
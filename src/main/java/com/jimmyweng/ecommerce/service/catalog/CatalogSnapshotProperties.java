@@ -0,0 +1,35 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "catalog.snapshot")
+public class CatalogSnapshotProperties {
+
+    /**
+     * Whether the in-memory catalog is loaded at startup and persisted to local disk.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory that holds {@code catalog.snapshot}; should survive restarts of the pod.
+     */
+    private String directory = "data";
+
+    /**
+     * Rows fetched per round trip during the cold scan and change-feed replay.
+     */
+    private int pageSize = 5000;
+
+    /**
+     * How far behind the stamped offset the replay starts, to cover commits whose
+     * {@code updated_at} was assigned before a later-committing transaction.
+     */
+    private Duration deltaOverlap = Duration.ofSeconds(30);
+}
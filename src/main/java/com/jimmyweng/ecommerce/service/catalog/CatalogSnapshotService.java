@@ -0,0 +1,164 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads the {@link ActiveCatalog} before the application reports ready. A snapshot on local disk is
+ * memory-mapped and only the changes after its offset are replayed; without one the catalog is
+ * scanned from the database in id order. Both paths read through replicas.
+ */
+@Service
+@ConditionalOnProperty(prefix = "catalog.snapshot", name = "enabled", havingValue = "true")
+public class CatalogSnapshotService implements ApplicationRunner {
+
+    static final String SNAPSHOT_FILE = "catalog.snapshot";
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ProductRepository productRepository;
+    private final ActiveCatalog activeCatalog;
+    private final CatalogSnapshotProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile boolean warmed;
+
+    public CatalogSnapshotService(
+            ProductRepository productRepository,
+            ActiveCatalog activeCatalog,
+            CatalogSnapshotProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.activeCatalog = activeCatalog;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Path snapshotFile = snapshotFile();
+        String source = "database";
+        if (Files.isReadable(snapshotFile)) {
+            try {
+                activeCatalog.replaceAll(CatalogSnapshotCodec.read(snapshotFile));
+                source = "snapshot";
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Discarding unreadable catalog snapshot {}", snapshotFile, ex);
+                coldLoad();
+            }
+        } else {
+            coldLoad();
+        }
+        int replayed = replayChanges();
+        warmed = true;
+        log.info(
+                "Catalog warmed from {} in {} ms: entries={}, replayedChanges={}, offset={}",
+                source,
+                (System.nanoTime() - start) / 1_000_000,
+                activeCatalog.size(),
+                replayed,
+                activeCatalog.changeFeedOffset());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${catalog.snapshot.refresh-interval:PT5S}",
+            initialDelayString = "${catalog.snapshot.refresh-interval:PT5S}")
+    public void refresh() {
+        if (!warmed) {
+            return;
+        }
+        int replayed = replayChanges();
+        if (replayed > 0 && log.isDebugEnabled()) {
+            log.debug("Replayed {} catalog changes up to {}", replayed, activeCatalog.changeFeedOffset());
+        }
+    }
+
+    /** Also runs on shutdown so the next rollout starts from a snapshot that is seconds old. */
+    @PreDestroy
+    @Scheduled(
+            fixedDelayString = "${catalog.snapshot.write-interval:PT5M}",
+            initialDelayString = "${catalog.snapshot.write-interval:PT5M}")
+    public void writeSnapshot() {
+        if (!warmed) {
+            return;
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = activeCatalog.snapshot();
+        try {
+            CatalogSnapshotCodec.write(snapshotFile(), snapshot);
+            log.info(
+                    "Catalog snapshot written in {} ms: entries={}, offset={}",
+                    (System.nanoTime() - start) / 1_000_000,
+                    snapshot.entries().size(),
+                    snapshot.changeFeedOffset());
+        } catch (IOException ex) {
+            log.warn("Failed to write catalog snapshot {}", snapshotFile(), ex);
+        }
+    }
+
+    private void coldLoad() {
+        // Stamp the offset before scanning so rows modified mid-scan are picked up by the replay.
+        Instant offset = readOnlyTransaction
+                .execute(status -> productRepository.findLatestUpdatedAt())
+                .orElse(Instant.EPOCH);
+        int pageSize = properties.getPageSize();
+        List<CatalogEntry> entries = new ArrayList<>();
+        long afterId = 0L;
+        List<CatalogEntry> page;
+        do {
+            long cursor = afterId;
+            page = readOnlyTransaction.execute(
+                    status -> productRepository.findActiveCatalogEntriesAfter(cursor, Limit.of(pageSize)));
+            entries.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == pageSize);
+        activeCatalog.replaceAll(new CatalogSnapshot(offset, entries));
+    }
+
+    private int replayChanges() {
+        int pageSize = properties.getPageSize();
+        Instant since = activeCatalog.changeFeedOffset().minus(properties.getDeltaOverlap());
+        long afterId = 0L;
+        int replayed = 0;
+        List<CatalogEntry> page;
+        do {
+            Instant sinceCursor = since;
+            long idCursor = afterId;
+            page = readOnlyTransaction.execute(status ->
+                    productRepository.findCatalogChangesSince(sinceCursor, idCursor, Limit.of(pageSize)));
+            for (CatalogEntry change : page) {
+                activeCatalog.apply(change);
+            }
+            replayed += page.size();
+            if (!page.isEmpty()) {
+                CatalogEntry last = page.get(page.size() - 1);
+                since = last.updatedAt();
+                afterId = last.id();
+            }
+        } while (page.size() == pageSize);
+        return replayed;
+    }
+
+    private Path snapshotFile() {
+        return Path.of(properties.getDirectory(), SNAPSHOT_FILE);
+    }
+}
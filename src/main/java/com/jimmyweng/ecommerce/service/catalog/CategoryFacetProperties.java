@@ -0,0 +1,20 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.catalog.category-facets")
+public class CategoryFacetProperties {
+
+    /**
+     * How often the counts are rebuilt from a replica. This picks up writes the local increments
+     * never see: other instances, imports that failed midway, seeding, direct SQL.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+}
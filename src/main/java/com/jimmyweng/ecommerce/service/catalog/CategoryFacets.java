@@ -0,0 +1,133 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.CategoryCount;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Active-product counts per category, built with one GROUP BY before the application reports
+ * ready and then moved by the admin write paths, so the category menu and category listings need
+ * no per-request SQL. A periodic rebuild from a replica reconciles writes made elsewhere.
+ */
+@Service
+public class CategoryFacets implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryFacets.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private volatile ConcurrentHashMap<String, Long> counts;
+
+    public CategoryFacets(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        rebuild(readOnlyTransaction);
+        log.info(
+                "Category facets built in {} ms: categories={}",
+                (System.nanoTime() - start) / 1_000_000,
+                counts.size());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.catalog.category-facets.reconcile-interval:PT5M}",
+            initialDelayString = "${app.catalog.category-facets.reconcile-interval:PT5M}")
+    public void reconcile() {
+        rebuild(readOnlyTransaction);
+    }
+
+    /**
+     * Rebuild after bulk writes whose per-row category changes are not tracked (imports). Reads the
+     * primary, so the result already includes them.
+     */
+    public void reconcileFromPrimary() {
+        rebuild(primaryTransaction);
+    }
+
+    /**
+     * Categories with at least one active product, by name; empty until the first build.
+     */
+    public List<CategoryCount> categories() {
+        Map<String, Long> current = counts;
+        if (current == null) {
+            return List.of();
+        }
+        return current.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new CategoryCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(CategoryCount::category))
+                .toList();
+    }
+
+    /**
+     * Active products in {@code category}, or in the whole catalog for {@code null}; empty until the
+     * first build.
+     */
+    public OptionalLong activeCount(String category) {
+        Map<String, Long> current = counts;
+        if (current == null) {
+            return OptionalLong.empty();
+        }
+        if (category == null) {
+            return OptionalLong.of(current.values().stream().mapToLong(count -> Math.max(0, count)).sum());
+        }
+        return OptionalLong.of(Math.max(0, current.getOrDefault(Product.normalizeCategory(category), 0L)));
+    }
+
+    public void productCreated(String category) {
+        adjust(category, 1);
+    }
+
+    public void productDeleted(String category) {
+        adjust(category, -1);
+    }
+
+    public void productRecategorized(String previousCategory, String category) {
+        if (!Objects.equals(Product.normalizeCategory(previousCategory), Product.normalizeCategory(category))) {
+            adjust(previousCategory, -1);
+            adjust(category, 1);
+        }
+    }
+
+    private void adjust(String category, long delta) {
+        Map<String, Long> current = counts;
+        if (current != null && category != null) {
+            current.merge(Product.normalizeCategory(category), delta, Long::sum);
+        }
+    }
+
+    /**
+     * Swaps in a fresh map. Increments that land on the old map during the query are lost until the
+     * next rebuild, which is the same staleness the replica read already has.
+     */
+    private void rebuild(TransactionTemplate transaction) {
+        List<CategoryCount> rows = transaction.execute(status -> productRepository.countActiveByCategory());
+        Map<String, Long> fresh = new HashMap<>();
+        for (CategoryCount row : rows) {
+            fresh.merge(Product.normalizeCategory(row.category()), row.productCount(), Long::sum);
+        }
+        counts = new ConcurrentHashMap<>(fresh);
+    }
+}
@@ -0,0 +1,129 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies coalesced favorite toggles with the same guarded statements as the synchronous path,
+ * one JDBC batch and one primary transaction per chunk. Counts and trending move only for rows the
+ * chunk actually changed, as on the synchronous path.
+ */
+@Component
+public class FavoriteBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteBatchWriter.class);
+
+    private static final String INSERT_SQL = """
+            insert into favorites (user_id, product_id, created_at)
+            select u.id, p.id, ?
+            from users u
+            join products p on p.id = ? and p.deleted_at is null
+            where u.email = ?
+              and not exists (
+                  select 1 from favorites f where f.user_id = u.id and f.product_id = p.id)
+            """;
+    private static final String DELETE_SQL = """
+            delete from favorites
+            where product_id = ?
+              and user_id = (select u.id from users u where u.email = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FavoriteCounter favoriteCounter;
+    private final ProductDetailCache productDetailCache;
+    private final TrendingService trendingService;
+
+    public FavoriteBatchWriter(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            FavoriteCounter favoriteCounter,
+            ProductDetailCache productDetailCache,
+            TrendingService trendingService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.favoriteCounter = favoriteCounter;
+        this.productDetailCache = productDetailCache;
+        this.trendingService = trendingService;
+    }
+
+    /**
+     * Each toggle must be the only one for its (user, product); their relative order is then
+     * irrelevant. Favorite counts and trending move only for statements that changed a row, and
+     * only once the chunk has committed.
+     */
+    public void write(List<FavoriteToggle> toggles) {
+        List<FavoriteToggle> adds = toggles.stream().filter(FavoriteToggle::add).toList();
+        List<FavoriteToggle> removes = toggles.stream().filter(toggle -> !toggle.add()).toList();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        List<Long> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!adds.isEmpty()) {
+                int[][] rows = jdbcTemplate.batchUpdate(INSERT_SQL, adds, adds.size(), (ps, toggle) -> {
+                    ps.setTimestamp(1, Timestamp.from(toggle.at()), utc);
+                    ps.setLong(2, toggle.productId());
+                    ps.setString(3, toggle.email());
+                });
+                collectChanged(adds, rows, added);
+            }
+            if (!removes.isEmpty()) {
+                int[][] rows = jdbcTemplate.batchUpdate(DELETE_SQL, removes, removes.size(), (ps, toggle) -> {
+                    ps.setLong(1, toggle.productId());
+                    ps.setString(2, toggle.email());
+                });
+                collectChanged(removes, rows, removed);
+            }
+        });
+        added.forEach(favoriteCounter::increment);
+        removed.forEach(favoriteCounter::decrement);
+        recordTrending(added);
+    }
+
+    /**
+     * Trending needs each product's category, which the detail cache usually holds. The chunk has
+     * committed by now, so a failed lookup only costs these trending events and is not rethrown.
+     */
+    private void recordTrending(List<Long> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, CachedProductDetail> products = productDetailCache.getAll(added);
+            for (Long productId : added) {
+                CachedProductDetail product = products.get(productId);
+                if (product != null) {
+                    trendingService.recordFavorite(productId, product.category());
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Skipped trending events for {} flushed favorites", added.size(), ex);
+        }
+    }
+
+    private static void collectChanged(List<FavoriteToggle> toggles, int[][] rows, List<Long> productIds) {
+        int index = 0;
+        for (int[] chunk : rows) {
+            for (int changed : chunk) {
+                if (changed == 1) {
+                    productIds.add(toggles.get(index).productId());
+                }
+                index++;
+            }
+        }
+    }
+}
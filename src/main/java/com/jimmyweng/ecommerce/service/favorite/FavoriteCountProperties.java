@@ -0,0 +1,33 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.favorites.counts")
+public class FavoriteCountProperties {
+
+    /**
+     * Delay between flushes of the accumulated count deltas; this is how far the published counts
+     * may trail the favorites table, plus replica lag.
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /**
+     * Delay between full recounts from the favorites table, which correct counts that drifted
+     * through writes outside the counter or deltas lost in a crash. Only the instance holding the
+     * {@code job_leases} row recounts.
+     */
+    private Duration reconcileInterval = Duration.ofHours(1);
+
+    /**
+     * Products per JDBC batch, and per primary transaction, when flushing; also the width of each
+     * product id range a reconcile recounts in its own transaction.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,118 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds accumulated deltas to {@code product_favorite_counts}: one batched relative UPDATE, then a
+ * batched guarded INSERT for the products that had no row yet, in one primary transaction.
+ * Counts never go below zero.
+ */
+@Component
+public class FavoriteCountWriter {
+
+    private static final String UPDATE_SQL = """
+            update product_favorite_counts
+            set favorite_count = greatest(favorite_count + ?, 0), updated_at = ?
+            where product_id = ?
+            """;
+    private static final String INSERT_SQL = """
+            insert into product_favorite_counts (product_id, favorite_count, updated_at)
+            select p.id, greatest(?, 0), ?
+            from products p
+            where p.id = ?
+              and not exists (select 1 from product_favorite_counts c where c.product_id = p.id)
+            """;
+    private static final String RECOUNT_SQL = """
+            update product_favorite_counts c
+            set favorite_count = (select count(*) from favorites f where f.product_id = c.product_id),
+                updated_at = ?
+            where c.product_id >= ? and c.product_id < ?
+              and favorite_count <> (select count(*) from favorites f where f.product_id = c.product_id)
+            """;
+    private static final String RECOUNT_MISSING_SQL = """
+            insert into product_favorite_counts (product_id, favorite_count, updated_at)
+            select f.product_id, count(*), ?
+            from favorites f
+            where f.product_id >= ? and f.product_id < ?
+              and not exists (select 1 from product_favorite_counts c where c.product_id = f.product_id)
+            group by f.product_id
+            """;
+    private static final String MAX_PRODUCT_ID_SQL = "select coalesce(max(id), 0) from products";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public FavoriteCountWriter(DataSource dataSource, PlatformTransactionManager transactionManager, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    public void write(List<Map.Entry<Long, Long>> deltas) {
+        Timestamp now = Timestamp.from(clock.instant());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, deltas.size(), (ps, delta) -> {
+                ps.setLong(1, delta.getValue());
+                ps.setTimestamp(2, now, utc);
+                ps.setLong(3, delta.getKey());
+            });
+            List<Map.Entry<Long, Long>> missing = new ArrayList<>();
+            int index = 0;
+            for (int[] chunk : updated) {
+                for (int rows : chunk) {
+                    // SUCCESS_NO_INFO means the driver did not report a count; assume the row exists.
+                    if (rows == 0) {
+                        missing.add(deltas.get(index));
+                    }
+                    index++;
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, delta) -> {
+                    ps.setLong(1, delta.getValue());
+                    ps.setTimestamp(2, now, utc);
+                    ps.setLong(3, delta.getKey());
+                });
+            }
+        });
+    }
+
+    public long maxProductId() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_PRODUCT_ID_SQL, Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    /**
+     * Sets the counts of products in {@code [fromProductId, toProductId)} to their number of rows
+     * in {@code favorites}, in one short primary transaction: the correlated counts take locking
+     * reads on {@code favorites}, so a range only holds back favorite writes to its own products.
+     * Returns how many products were corrected or added.
+     */
+    public int recount(long fromProductId, long toProductId) {
+        Timestamp now = Timestamp.from(clock.instant());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Integer corrected = transactionTemplate.execute(status -> {
+            PreparedStatementSetter range = ps -> {
+                ps.setTimestamp(1, now, utc);
+                ps.setLong(2, fromProductId);
+                ps.setLong(3, toProductId);
+            };
+            return jdbcTemplate.update(RECOUNT_SQL, range) + jdbcTemplate.update(RECOUNT_MISSING_SQL, range);
+        });
+        return corrected == null ? 0 : corrected;
+    }
+}
@@ -0,0 +1,155 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import com.jimmyweng.ecommerce.model.favorite.ProductFavoriteCount;
+import com.jimmyweng.ecommerce.repository.favorite.ProductFavoriteCountRepository;
+import com.jimmyweng.ecommerce.service.lease.JobLeaseService;
+import jakarta.annotation.PreDestroy;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eventually consistent "N people favorited this" counts. Favorite adds and removes only bump a
+ * per-product {@link LongAdder}, whose cells are striped across threads so hot products do not
+ * contend; a scheduled flush drains the deltas into {@code product_favorite_counts}, and a slower
+ * reconcile recounts the table from {@code favorites}. Listings read a whole page of counts with
+ * one primary-key lookup.
+ */
+@Component
+public class FavoriteCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteCounter.class);
+    private static final String RECONCILE_JOB = "favorite-count-reconcile";
+
+    private final FavoriteCountProperties properties;
+    private final FavoriteCountWriter writer;
+    private final ProductFavoriteCountRepository countRepository;
+    private final JobLeaseService jobLeaseService;
+    // Adders are never removed: a thread may still hold one it looked up just before removal, and
+    // its update would be lost. The map is bounded by the number of products ever favorited.
+    private final ConcurrentHashMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public FavoriteCounter(
+            FavoriteCountProperties properties,
+            FavoriteCountWriter writer,
+            ProductFavoriteCountRepository countRepository,
+            JobLeaseService jobLeaseService) {
+        this.properties = properties;
+        this.writer = writer;
+        this.countRepository = countRepository;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    public void increment(Long productId) {
+        add(productId, 1);
+    }
+
+    public void decrement(Long productId) {
+        add(productId, -1);
+    }
+
+    /**
+     * Published counts by product id; products nobody favorited yet are absent.
+     */
+    public Map<Long, Long> countsFor(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (ProductFavoriteCount count : countRepository.findAllById(productIds)) {
+            counts.put(count.getProductId(), count.getFavoriteCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Drains every adder with {@code sumThenReset}, which swaps each cell to zero atomically, so
+     * increments racing with the flush land in the next one. Deltas of chunks that failed to commit
+     * are added back.
+     */
+    @PreDestroy
+    @Scheduled(
+            fixedDelayString = "${app.favorites.counts.flush-interval:PT5S}",
+            initialDelayString = "${app.favorites.counts.flush-interval:PT5S}")
+    public void flush() {
+        synchronized (flushLock) {
+            flushDeltas();
+        }
+    }
+
+    /**
+     * Scheduled on every instance, but runs on whichever claims the lease first; the lease is held
+     * for half the interval, so the recount runs about once per interval across the fleet.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.favorites.counts.reconcile-interval:PT1H}",
+            initialDelayString = "${app.favorites.counts.reconcile-interval:PT1H}")
+    public void reconcileOnOneInstance() {
+        if (jobLeaseService.tryClaim(RECONCILE_JOB, properties.getReconcileInterval().dividedBy(2))) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recounts every product from {@code favorites}, correcting drift from writes that bypass the
+     * counter (seeders, cascade deletes) and from deltas lost in a crash. Works through product id
+     * ranges of {@code batchSize}, one short transaction each, flushing this instance's pending
+     * deltas before every range. Toggles another instance has not flushed yet are still counted
+     * twice (or not at all, for removes) until the next reconcile.
+     */
+    public void reconcile() {
+        long maxProductId = writer.maxProductId();
+        int rangeSize = Math.max(1, properties.getBatchSize());
+        int corrected = 0;
+        for (long from = 0; from <= maxProductId; from += rangeSize) {
+            // Held per range only, so flushes are not stalled for the whole run.
+            synchronized (flushLock) {
+                if (!flushDeltas()) {
+                    return;
+                }
+                corrected += writer.recount(from, from + rangeSize);
+            }
+        }
+        if (corrected > 0) {
+            log.info("Favorite count reconcile corrected {} products", corrected);
+        }
+    }
+
+    private boolean flushDeltas() {
+        List<Map.Entry<Long, Long>> drained = new ArrayList<>();
+        deltas.forEach((productId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.add(new SimpleImmutableEntry<>(productId, delta));
+            }
+        });
+
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            try {
+                writer.write(drained.subList(from, Math.min(drained.size(), from + batchSize)));
+            } catch (RuntimeException ex) {
+                List<Map.Entry<Long, Long>> unwritten = drained.subList(from, drained.size());
+                unwritten.forEach(delta -> add(delta.getKey(), delta.getValue()));
+                log.warn("Favorite count flush failed, {} product deltas kept for the next flush",
+                        unwritten.size(), ex);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Long productId, long delta) {
+        deltas.computeIfAbsent(productId, id -> new LongAdder()).add(delta);
+    }
+}
@@ -0,0 +1,33 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last favorite of a page, in the listing's {@code (created_at desc,
+ * product_id desc)} order. Clients treat the encoded form as opaque.
+ */
+public record FavoriteCursor(Instant favoritedAt, Long productId) {
+
+    public String encode() {
+        String raw = favoritedAt.getEpochSecond() + ":" + favoritedAt.getNano() + ":" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static FavoriteCursor decode(String encoded) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR);
+            }
+            Instant favoritedAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new FavoriteCursor(favoritedAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR);
+        }
+    }
+}
@@ -1,92 +1,260 @@
 package com.jimmyweng.ecommerce.service.favorite;
 
+import com.jimmyweng.ecommerce.cache.CachedProductDetail;
+import com.jimmyweng.ecommerce.cache.FavoriteIdSet;
+import com.jimmyweng.ecommerce.cache.FavoriteIdSetCache;
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
 import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
 import com.jimmyweng.ecommerce.model.User;
-import com.jimmyweng.ecommerce.model.favorite.Favorite;
-import com.jimmyweng.ecommerce.model.favorite.FavoriteId;
 import com.jimmyweng.ecommerce.model.product.Product;
 import com.jimmyweng.ecommerce.repository.UserRepository;
 import com.jimmyweng.ecommerce.repository.favorite.FavoriteRepository;
+import com.jimmyweng.ecommerce.repository.favorite.FavoritedProduct;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import static com.jimmyweng.ecommerce.constant.ErrorMessages.userNotFound;
 
+/**
+ * Add and remove are one statement each and run in their own short primary transaction, so the
+ * service itself is not transactional. With {@link FavoriteWriteBehind} enabled they are only
+ * logged locally and the listing merges the user's pending toggles into the stored favorites.
+ */
 @Service
-@Transactional
 public class FavoriteService {
 
+    private static final Comparator<FavoritedProduct> LISTING_ORDER = Comparator
+            .comparing(FavoritedProduct::favoritedAt)
+            .thenComparing(favorite -> favorite.product().getId())
+            .reversed();
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final FavoriteRepository favoriteRepository;
+    private final ProductDetailCache productDetailCache;
+    private final FavoriteWriteBehind writeBehind;
+    private final FavoriteCounter favoriteCounter;
+    private final FavoriteIdSetCache favoriteIdSetCache;
+    private final TrendingService trendingService;
     private final Clock clock;
 
     public FavoriteService(
             UserRepository userRepository,
             ProductRepository productRepository,
             FavoriteRepository favoriteRepository,
+            ProductDetailCache productDetailCache,
+            FavoriteWriteBehind writeBehind,
+            FavoriteCounter favoriteCounter,
+            FavoriteIdSetCache favoriteIdSetCache,
+            TrendingService trendingService,
             Clock clock) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.favoriteRepository = favoriteRepository;
+        this.productDetailCache = productDetailCache;
+        this.writeBehind = writeBehind;
+        this.favoriteCounter = favoriteCounter;
+        this.favoriteIdSetCache = favoriteIdSetCache;
+        this.trendingService = trendingService;
         this.clock = clock;
     }
 
-    public record AddFavoriteResult(Product product, boolean created) {}
+    public enum AddOutcome {
+        CREATED,
+        ALREADY_FAVORITED,
+        /** Accepted by write-behind; whether it was already a favorite is decided at flush. */
+        QUEUED
+    }
 
-    public AddFavoriteResult addFavorite(String userEmail, Long productId) {
-        User user = loadUser(userEmail);
-        Product product = productRepository
-                .findByIdAndDeletedAtIsNull(productId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.productNotFound(productId)));
+    public record AddFavoriteResult(CachedProductDetail product, AddOutcome outcome) {}
 
-        FavoriteId id = new FavoriteId(user.getId(), product.getId());
-        if (favoriteRepository.existsById(id)) {
-            return new AddFavoriteResult(product, false);
+    /**
+     * {@code next} is null on the last page.
+     */
+    public record FavoritePage(List<Product> products, FavoriteCursor next) {}
+
+    /**
+     * The response payload comes from the product detail cache (memory or a replica); the primary
+     * sees a single conditional insert that re-checks the product is active, so a product deleted
+     * after it was cached can never gain a favorite.
+     *
+     * @throws ResourceNotFoundException when the product is not active or the user does not exist,
+     *     as seen by the primary; not raised in write-behind mode
+     */
+    public AddFavoriteResult addFavorite(String userEmail, Long productId) {
+        CachedProductDetail product = productDetailCache.get(productId);
+        if (writeBehind.isEnabled()) {
+            writeBehind.accept(new FavoriteToggle(userEmail, productId, true, Instant.now(clock)));
+            favoriteIdSetCache.update(userEmail, productId, true);
+            // Trending is recorded by the flush, for adds that actually create a row.
+            return new AddFavoriteResult(product, AddOutcome.QUEUED);
+        }
+        AddOutcome outcome;
+        try {
+            boolean created = favoriteRepository.insertIfAbsent(userEmail, productId, Instant.now(clock)) == 1;
+            if (created) {
+                favoriteCounter.increment(productId);
+                trendingService.recordFavorite(productId, product.category());
+            }
+            outcome = created ? AddOutcome.CREATED : explainNothingInserted(userEmail, productId);
+        } catch (DuplicateKeyException | PessimisticLockingFailureException ex) {
+            // A concurrent add of the same favorite won the race.
+            outcome = AddOutcome.ALREADY_FAVORITED;
         }
+        favoriteIdSetCache.update(userEmail, productId, true);
+        return new AddFavoriteResult(product, outcome);
+    }
 
-        Favorite favorite = new Favorite(user.getId(), product.getId(), Instant.now(clock));
-        favoriteRepository.save(favorite);
-        return new AddFavoriteResult(product, true);
+    /**
+     * The insert skips an existing favorite, but also a product deleted since it was cached here and
+     * a user that no longer exists; only this rare path pays for the primary lookups that tell them
+     * apart.
+     */
+    private AddOutcome explainNothingInserted(String userEmail, Long productId) {
+        if (favoriteRepository.countOnPrimary(userEmail, productId) > 0) {
+            return AddOutcome.ALREADY_FAVORITED;
+        }
+        if (!productRepository.existsActiveOnPrimary(productId)) {
+            throw new ResourceNotFoundException(ErrorMessages.productNotFound(productId));
+        }
+        throw new ResourceNotFoundException(userNotFound(userEmail));
     }
 
+    /**
+     * One page of the user's active favorites, newest first. Deleted products are filtered in the
+     * query, so every page is full except the last.
+     */
     @Transactional(readOnly = true)
-    public List<Product> listFavorites(String userEmail) {
+    public FavoritePage listFavorites(String userEmail, FavoriteCursor after, int size) {
         User user = loadUser(userEmail);
+        Map<Long, FavoriteToggle> pending = writeBehind.pendingFor(userEmail);
+        int pendingRemoves = (int) pending.values().stream().filter(toggle -> !toggle.add()).count();
 
-        List<Favorite> favorites = favoriteRepository.findAllByIdUserIdOrderByCreatedAtDesc(user.getId());
-        if (favorites.isEmpty()) {
-            return List.of();
+        // One extra row tells whether another page exists without a count query; pending removes
+        // may hide stored rows, so fetch that many more.
+        Limit limit = Limit.of(size + 1 + pendingRemoves);
+        List<FavoritedProduct> rows = after == null
+                ? favoriteRepository.findActiveFavorites(user.getId(), limit)
+                : favoriteRepository.findActiveFavoritesBefore(
+                        user.getId(), after.favoritedAt(), after.productId(), limit);
+        if (!pending.isEmpty()) {
+            rows = withPendingToggles(user.getId(), rows, pending, after);
         }
 
-        List<Long> productIds = favorites.stream()
-                .map(Favorite::getProductId)
-                .toList();
-        Map<Long, Product> productsById = productRepository.findAllByIdInAndDeletedAtIsNull(productIds).stream()
-                .collect(Collectors.toMap(Product::getId, Function.identity()));
-
-        return favorites.stream()
-                .map(favorite -> productsById.get(favorite.getProductId()))
-                .filter(Objects::nonNull)
-                .toList();
+        if (rows.size() <= size) {
+            return new FavoritePage(rows.stream().map(FavoritedProduct::product).toList(), null);
+        }
+        List<FavoritedProduct> page = rows.subList(0, size);
+        FavoritedProduct last = page.get(size - 1);
+        return new FavoritePage(
+                page.stream().map(FavoritedProduct::product).toList(),
+                new FavoriteCursor(last.favoritedAt(), last.product().getId()));
     }
 
+    /**
+     * @throws ResourceNotFoundException when the product was not in the user's favorites; not
+     *     raised in write-behind mode, where the outcome is only known at flush
+     */
     public void removeFavorite(String userEmail, Long productId) {
-        User user = loadUser(userEmail);
+        if (writeBehind.isEnabled()) {
+            writeBehind.accept(new FavoriteToggle(userEmail, productId, false, Instant.now(clock)));
+            favoriteIdSetCache.update(userEmail, productId, false);
+            return;
+        }
+        int removed = favoriteRepository.deleteByUserEmail(userEmail, productId);
+        favoriteIdSetCache.update(userEmail, productId, false);
+        if (removed == 0) {
+            throw new ResourceNotFoundException(ErrorMessages.favoriteNotFound(productId));
+        }
+        favoriteCounter.decrement(productId);
+    }
+
+    /**
+     * The user's favorited product ids, for flagging a page of {@code productIds}. Served from the
+     * per-user id set cache; a miss loads the user's whole set with one query (merged with pending
+     * write-behind toggles and this instance's recent writes, which a replica may not have yet)
+     * and caches it. Users above the per-user cap get a set covering just
+     * {@code productIds}, which is not cached.
+     */
+    public FavoriteIdSet favoriteIds(String userEmail, Collection<Long> productIds) {
+        Optional<FavoriteIdSet> cached = favoriteIdSetCache.getIfFresh(userEmail);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (productIds.isEmpty()) {
+            return FavoriteIdSet.empty();
+        }
+        int cap = favoriteIdSetCache.maxIdsPerUser();
+        List<Long> stored = favoriteRepository.findProductIdsByUserEmail(userEmail, Limit.of(cap + 1));
+        if (stored.size() > cap) {
+            List<Long> onPage = favoriteRepository.findProductIdsByUserEmailAmong(userEmail, productIds);
+            return favoriteIdSetCache.withRecentWrites(
+                    userEmail, FavoriteIdSet.of(withPendingIds(userEmail, onPage), clock.millis()));
+        }
+        return favoriteIdSetCache.store(
+                userEmail, FavoriteIdSet.of(withPendingIds(userEmail, stored), clock.millis()));
+    }
+
+    private Set<Long> withPendingIds(String userEmail, List<Long> storedProductIds) {
+        Set<Long> productIds = new HashSet<>(storedProductIds);
+        writeBehind.pendingFor(userEmail).forEach((productId, toggle) -> {
+            if (toggle.add()) {
+                productIds.add(productId);
+            } else {
+                productIds.remove(productId);
+            }
+        });
+        return productIds;
+    }
 
-        FavoriteId id = new FavoriteId(user.getId(), productId);
-        if (favoriteRepository.existsById(id)) {
-            favoriteRepository.deleteById(id);
+    /**
+     * Drops stored rows with a pending remove and adds pending adds that fall after the cursor and
+     * are not stored yet (a stored favorite keeps its original position). The result stays in
+     * listing order, so paging works on it unchanged.
+     */
+    private List<FavoritedProduct> withPendingToggles(
+            Long userId, List<FavoritedProduct> stored, Map<Long, FavoriteToggle> pending, FavoriteCursor after) {
+        List<FavoritedProduct> merged = new ArrayList<>(stored.size() + pending.size());
+        for (FavoritedProduct row : stored) {
+            FavoriteToggle toggle = pending.get(row.product().getId());
+            if (toggle == null || toggle.add()) {
+                merged.add(row);
+            }
+        }
+
+        List<Long> added = pending.values().stream()
+                .filter(FavoriteToggle::add)
+                .filter(toggle -> after == null
+                        || toggle.at().isBefore(after.favoritedAt())
+                        || (toggle.at().equals(after.favoritedAt()) && toggle.productId() < after.productId()))
+                .map(FavoriteToggle::productId)
+                .toList();
+        if (!added.isEmpty()) {
+            Set<Long> alreadyStored = new HashSet<>(favoriteRepository.findStoredProductIds(userId, added));
+            for (Product product : productRepository.findAllByIdInAndDeletedAtIsNull(added)) {
+                if (!alreadyStored.contains(product.getId())) {
+                    merged.add(new FavoritedProduct(product, pending.get(product.getId()).at()));
+                }
+            }
         }
+        merged.sort(LISTING_ORDER);
+        return merged;
     }
 
     private User loadUser(String userEmail) {
@@ -0,0 +1,9 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import java.time.Instant;
+
+/**
+ * One favorite add ({@code add == true}) or remove as accepted by write-behind mode. Users are
+ * keyed by the authenticated email so accepting a toggle needs no user lookup.
+ */
+public record FavoriteToggle(String email, Long productId, boolean add, Instant at) {}
@@ -0,0 +1,211 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of favorite toggles, split into numbered segment files. Appends must be
+ * serialized by the caller; {@link #awaitDurable} may run concurrently and fsyncs once for every
+ * append written before it (group commit). A flush seals the active segment and deletes sealed
+ * segments once their toggles are in the database, so whatever is on disk at startup is exactly
+ * what still has to be flushed.
+ */
+class FavoriteToggleLog {
+
+    private static final String PREFIX = "favorites-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private long sequence;
+    private Segment active;
+
+    FavoriteToggleLog(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        for (Path segment : segments()) {
+            sequence = Math.max(sequence, sequenceOf(segment));
+        }
+    }
+
+    /**
+     * Segments left by an earlier run, oldest first. Call before the first {@link #append}.
+     */
+    List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted((left, right) -> Long.compare(sequenceOf(left), sequenceOf(right)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Reads a segment in append order. Only complete records count: a record must end with its
+     * newline and match its checksum, so a line torn by a crash mid-write (never acknowledged) is
+     * skipped even where the cut leaves well-formed fields, such as a shortened email.
+     */
+    static List<FavoriteToggle> read(Path segment) throws IOException {
+        // Decoding replaces malformed bytes, so a multi-byte character cut at the tail cannot fail the read.
+        String[] lines = new String(Files.readAllBytes(segment), StandardCharsets.UTF_8).split("\n", -1);
+        List<FavoriteToggle> toggles = new ArrayList<>(lines.length);
+        // The last element follows the final newline: empty, or an unterminated torn record.
+        for (int index = 0; index < lines.length - 1; index++) {
+            FavoriteToggle toggle = parse(lines[index]);
+            if (toggle != null) {
+                toggles.add(toggle);
+            }
+        }
+        return toggles;
+    }
+
+    /**
+     * Writes the toggle to the active segment, without forcing it to disk. A record is
+     * {@code checksum TAB A|R TAB productId TAB epochMillis TAB email NEWLINE}, with the CRC-32 of
+     * everything between the first tab and the newline.
+     */
+    Position append(FavoriteToggle toggle) throws IOException {
+        if (active == null) {
+            active = Segment.open(directory.resolve(PREFIX + (++sequence) + SUFFIX));
+        }
+        String body = (toggle.add() ? "A" : "R") + '\t' + toggle.productId() + '\t' + toggle.at().toEpochMilli()
+                + '\t' + toggle.email();
+        String line = checksum(body) + '\t' + body + '\n';
+        return new Position(active, active.write(line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static FavoriteToggle parse(String line) {
+        int separator = line.indexOf('\t');
+        if (separator < 0) {
+            return null;
+        }
+        String body = line.substring(separator + 1);
+        if (!line.substring(0, separator).equals(checksum(body))) {
+            return null;
+        }
+        String[] fields = body.split("\t", 4);
+        if (fields.length != 4 || fields[3].isEmpty()) {
+            return null;
+        }
+        try {
+            return new FavoriteToggle(
+                    fields[3],
+                    Long.parseLong(fields[1]),
+                    "A".equals(fields[0]),
+                    Instant.ofEpochMilli(Long.parseLong(fields[2])));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    void awaitDurable(Position position) throws IOException {
+        if (fsync) {
+            position.segment().forceUpTo(position.end());
+        }
+    }
+
+    /**
+     * Closes the active segment; the next append starts a new one. Returns the sealed segment, or
+     * {@code null} if nothing was appended since the last call.
+     */
+    Path seal() throws IOException {
+        if (active == null) {
+            return null;
+        }
+        Segment sealed = active;
+        active = null;
+        sealed.close();
+        return sealed.path();
+    }
+
+    static void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    record Position(Segment segment, long end) {}
+
+    static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private volatile long written;
+        private long forced;
+        private boolean closed;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Segment open(Path path) throws IOException {
+            return new Segment(path, FileChannel.open(
+                    path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long write(byte[] bytes) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            written += bytes.length;
+            return written;
+        }
+
+        /**
+         * Whoever gets the monitor forces everything written so far, so threads queued behind it
+         * usually find their bytes already durable and return without another fsync.
+         */
+        synchronized void forceUpTo(long end) throws IOException {
+            if (forced >= end || closed) {
+                return;
+            }
+            long target = written;
+            channel.force(false);
+            forced = target;
+        }
+
+        synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            channel.force(false);
+            forced = written;
+            closed = true;
+            channel.close();
+        }
+    }
+}
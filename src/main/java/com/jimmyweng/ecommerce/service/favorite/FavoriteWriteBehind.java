@@ -0,0 +1,189 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import com.jimmyweng.ecommerce.service.favorite.FavoriteToggleLog.Position;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional write-behind path for favorite toggles. A toggle is acknowledged once it is durable in
+ * the local {@link FavoriteToggleLog}; in memory only the latest toggle per (user, product) is
+ * kept, so an add followed by a remove costs one statement at flush time instead of two primary
+ * transactions. Until flushed, toggles are visible through {@link #pendingFor}.
+ */
+@Component
+public class FavoriteWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteWriteBehind.class);
+
+    private final FavoriteWriteBehindProperties properties;
+    private final FavoriteBatchWriter batchWriter;
+    private final Counter acceptedToggles;
+    private final Counter writtenToggles;
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    // Both keyed by email, then product id; guarded by lock.
+    private Map<String, Map<Long, FavoriteToggle>> pending = new HashMap<>();
+    private Map<String, Map<Long, FavoriteToggle>> flushing = Map.of();
+    // Segments whose toggles are all in pending or flushing; guarded by flushLock.
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private FavoriteToggleLog toggleLog;
+
+    public FavoriteWriteBehind(
+            FavoriteWriteBehindProperties properties, FavoriteBatchWriter batchWriter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.acceptedToggles = Counter.builder("favorites.writebehind.toggles")
+                .description("Favorite toggles acknowledged from the local log")
+                .register(meterRegistry);
+        this.writtenToggles = Counter.builder("favorites.writebehind.writes")
+                .description("Coalesced favorite toggles written to the database")
+                .register(meterRegistry);
+        Gauge.builder("favorites.writebehind.pending", this, FavoriteWriteBehind::pendingCount)
+                .description("Favorite toggles waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays segments left by a previous run, so toggles acknowledged before a crash are flushed
+     * by the first scheduled flush.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        toggleLog = new FavoriteToggleLog(Path.of(properties.getDirectory()), properties.isFsync());
+        List<Path> leftovers = toggleLog.segments();
+        int replayed = 0;
+        for (Path segment : leftovers) {
+            for (FavoriteToggle toggle : FavoriteToggleLog.read(segment)) {
+                coalesce(pending, toggle);
+                replayed++;
+            }
+        }
+        sealedSegments.addAll(leftovers);
+        if (replayed > 0) {
+            log.info("Replayed {} unflushed favorite toggles from {} log segments", replayed, leftovers.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return toggleLog != null;
+    }
+
+    public void accept(FavoriteToggle toggle) {
+        try {
+            Position position;
+            synchronized (lock) {
+                position = toggleLog.append(toggle);
+                coalesce(pending, toggle);
+            }
+            toggleLog.awaitDurable(position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        acceptedToggles.increment();
+    }
+
+    /**
+     * The user's unflushed toggles by product id; empty when write-behind is off.
+     */
+    public Map<Long, FavoriteToggle> pendingFor(String email) {
+        if (!isEnabled()) {
+            return Map.of();
+        }
+        synchronized (lock) {
+            Map<Long, FavoriteToggle> inFlight = flushing.get(email);
+            Map<Long, FavoriteToggle> queued = pending.get(email);
+            if (inFlight == null && queued == null) {
+                return Map.of();
+            }
+            Map<Long, FavoriteToggle> toggles = inFlight == null ? new HashMap<>() : new HashMap<>(inFlight);
+            if (queued != null) {
+                toggles.putAll(queued);
+            }
+            return toggles;
+        }
+    }
+
+    /**
+     * Writes everything accepted so far. On failure the toggles go back to pending (newer toggles
+     * for the same favorite win) and their segments are kept; the statements are idempotent, so
+     * retrying chunks that did commit is harmless.
+     */
+    @PreDestroy
+    @Scheduled(
+            fixedDelayString = "${app.favorites.write-behind.flush-interval:PT1S}",
+            initialDelayString = "${app.favorites.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<String, Map<Long, FavoriteToggle>> batch;
+            synchronized (lock) {
+                try {
+                    Path sealed = toggleLog.seal();
+                    if (sealed != null) {
+                        sealedSegments.add(sealed);
+                    }
+                } catch (IOException ex) {
+                    log.warn("Failed to seal favorite toggle log segment", ex);
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                flushing = batch;
+            }
+
+            List<FavoriteToggle> toggles = new ArrayList<>();
+            batch.values().forEach(byProduct -> toggles.addAll(byProduct.values()));
+            int batchSize = Math.max(1, properties.getBatchSize());
+            try {
+                for (int from = 0; from < toggles.size(); from += batchSize) {
+                    batchWriter.write(toggles.subList(from, Math.min(toggles.size(), from + batchSize)));
+                }
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    batch.forEach((email, byProduct) -> byProduct.forEach(
+                            (productId, toggle) -> pending.computeIfAbsent(email, key -> new HashMap<>())
+                                    .putIfAbsent(productId, toggle)));
+                    flushing = Map.of();
+                }
+                log.warn("Favorite flush failed, {} toggles stay pending", toggles.size(), ex);
+                return;
+            }
+
+            synchronized (lock) {
+                flushing = Map.of();
+            }
+            FavoriteToggleLog.delete(sealedSegments);
+            sealedSegments.clear();
+            writtenToggles.increment(toggles.size());
+        }
+    }
+
+    private static void coalesce(Map<String, Map<Long, FavoriteToggle>> target, FavoriteToggle toggle) {
+        target.computeIfAbsent(toggle.email(), email -> new HashMap<>()).put(toggle.productId(), toggle);
+    }
+
+    private double pendingCount() {
+        synchronized (lock) {
+            return pending.values().stream().mapToInt(Map::size).sum();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.favorites.write-behind")
+public class FavoriteWriteBehindProperties {
+
+    /**
+     * Acknowledge favorite toggles once they are in the local log and write them to the database
+     * in coalesced batches. Pending toggles are only visible to reads served by the same instance.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of the toggle log segments; must survive restarts, since unflushed toggles are
+     * replayed from it on startup.
+     */
+    private String directory = "data/favorites";
+
+    /**
+     * fsync every acknowledged toggle (grouped across concurrent requests). Without it a toggle
+     * survives a process crash but not a host crash.
+     */
+    private boolean fsync = true;
+
+    /**
+     * Delay between flushes of the coalesced toggles.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Statements per JDBC batch, and per primary transaction, when flushing.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,48 @@
+package com.jimmyweng.ecommerce.service.lease;
+
+import com.jimmyweng.ecommerce.repository.JobLeaseRepository;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Lets one instance of many run a scheduled job per period. A claim holds the lease for
+ * {@code holdFor} and is never released early, so instances whose schedules drift apart still
+ * skip the job until the lease runs out; a crashed holder is replaced once it expires.
+ */
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final Clock clock;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, Clock clock) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether this instance now holds {@code job}; each statement commits on its own against the
+     * primary.
+     */
+    public boolean tryClaim(String job, Duration holdFor) {
+        Instant now = Instant.now(clock);
+        Instant lockedUntil = now.plus(holdFor);
+        if (jobLeaseRepository.claimIfExpired(job, instanceId, lockedUntil, now) == 1) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(job)) {
+            return false;
+        }
+        try {
+            return jobLeaseRepository.insert(job, instanceId, lockedUntil) == 1;
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance claimed the job for the first time concurrently.
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.jimmyweng.ecommerce.service.order;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checkout outcome counters ({@code checkout.orders}, tagged by {@code outcome}). The counters are
+ * registered once so recording is a single increment on the checkout path.
+ */
+@Component
+public class CheckoutMetrics {
+
+    static final String METRIC = "checkout.orders";
+
+    private final Counter created;
+    private final Counter duplicate;
+    private final Counter outOfStock;
+
+    public CheckoutMetrics(MeterRegistry meterRegistry) {
+        this.created = outcome(meterRegistry, "created");
+        this.duplicate = outcome(meterRegistry, "duplicate");
+        this.outOfStock = outcome(meterRegistry, "out_of_stock");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC)
+                .description("Checkout attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public void recordCreated() {
+        created.increment();
+    }
+
+    public void recordDuplicate() {
+        duplicate.increment();
+    }
+
+    public void recordOutOfStock() {
+        outOfStock.increment();
+    }
+}
@@ -13,7 +13,10 @@ import com.jimmyweng.ecommerce.repository.order.OrderRepository;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
 import com.jimmyweng.ecommerce.service.order.dto.CreateOrderCommand;
 import com.jimmyweng.ecommerce.service.order.dto.OrderItemCommand;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +25,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static com.jimmyweng.ecommerce.constant.ErrorMessages.userNotFound;
 
@@ -32,12 +37,19 @@ public class CheckoutService {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final Clock clock;
+    private final CheckoutMetrics checkoutMetrics;
+    private final TrendingService trendingService;
 
     public CheckoutService(UserRepository userRepository, ProductRepository productRepository,
-                           OrderRepository orderRepository) {
+                           OrderRepository orderRepository, Clock clock, CheckoutMetrics checkoutMetrics,
+                           TrendingService trendingService) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
+        this.clock = clock;
+        this.checkoutMetrics = checkoutMetrics;
+        this.trendingService = trendingService;
     }
 
     public record CheckoutResult(Order order, boolean duplicate) {
@@ -50,6 +62,7 @@ public class CheckoutService {
 
         Optional<Order> existing = orderRepository.findByIdempotencyKey(command.idempotencyKey());
         if (existing.isPresent()) {
+            checkoutMetrics.recordDuplicate();
             return new CheckoutResult(existing.get(), true);
         }
 
@@ -67,9 +80,34 @@ public class CheckoutService {
         order.setTotalAmount(getOrderTotalAmount(sortedItems, productsById));
 
         Order savedOrder = orderRepository.save(order);
+        afterCommit(() -> {
+            checkoutMetrics.recordCreated();
+            for (OrderItemCommand itemCommand : sortedItems) {
+                Product product = productsById.get(itemCommand.productId());
+                trendingService.recordOrderLine(product.getId(), product.getCategory(), itemCommand.quantity());
+            }
+        });
         return new CheckoutResult(savedOrder, false);
     }
 
+    /**
+     * An order can still roll back at flush or commit, e.g. when a concurrent request with the same
+     * idempotency key wins {@code uq_orders_idempotency}; only committed orders are counted and fed
+     * to trending.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private void checkProductExist(Map<Long, Product> productsById, Set<Long> productIds) {
         if (productsById.size() != productIds.size()) {
             Long missingId = productIds.stream()
@@ -81,11 +119,15 @@ public class CheckoutService {
     }
 
     private void decrementStock(List<OrderItemCommand> sortedItems, Map<Long, Product> productsById, Order order) {
+        // Stock changes must move updated_at so response timestamps and the catalog change feed see
+        // them; truncated like every other product write.
+        Instant now = Product.atColumnPrecision(Instant.now(clock));
         for (OrderItemCommand itemCommand : sortedItems) {
             Product product = productsById.get(itemCommand.productId());
 
-            int updated = productRepository.decrementStock(product.getId(), itemCommand.quantity());
+            int updated = productRepository.decrementStock(product.getId(), itemCommand.quantity(), now);
             if (updated == 0) {
+                checkoutMetrics.recordOutOfStock();
                 throw new OutOfStockException(ErrorMessages.outOfStock(product.getId()));
             }
 
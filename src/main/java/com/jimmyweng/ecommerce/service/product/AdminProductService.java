@@ -1,9 +1,11 @@
 package com.jimmyweng.ecommerce.service.product;
 
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
 import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
 import com.jimmyweng.ecommerce.model.product.Product;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.catalog.CategoryFacets;
 import com.jimmyweng.ecommerce.service.product.dto.CreateProductCommand;
 import com.jimmyweng.ecommerce.service.product.dto.UpdateProductCommand;
 import java.time.Clock;
@@ -17,10 +19,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class AdminProductService {
 
     private final ProductRepository productRepository;
+    private final ProductDetailCache productDetailCache;
+    private final CategoryFacets categoryFacets;
     private final Clock clock;
 
-    public AdminProductService(ProductRepository productRepository, Clock clock) {
+    public AdminProductService(
+            ProductRepository productRepository,
+            ProductDetailCache productDetailCache,
+            CategoryFacets categoryFacets,
+            Clock clock) {
         this.productRepository = productRepository;
+        this.productDetailCache = productDetailCache;
+        this.categoryFacets = categoryFacets;
         this.clock = clock;
     }
 
@@ -28,7 +38,9 @@ public class AdminProductService {
     public Product createProduct(CreateProductCommand command) {
         Product product =
                 new Product(command.title(), command.description(), command.category(), command.price(), command.stock());
-        return productRepository.saveAndFlush(product);
+        Product created = productRepository.saveAndFlush(product);
+        categoryFacets.productCreated(created.getCategory());
+        return created;
     }
 
     @Transactional
@@ -38,15 +50,21 @@ public class AdminProductService {
             throw new ObjectOptimisticLockingFailureException(Product.class, productId);
         }
 
+        String previousCategory = product.getCategory();
         product.applyUpdate(command.title(), command.description(), command.category(), command.price(), command.stock());
-        return productRepository.saveAndFlush(product);
+        Product updated = productRepository.saveAndFlush(product);
+        productDetailCache.evict(productId, updated.getVersion());
+        categoryFacets.productRecategorized(previousCategory, updated.getCategory());
+        return updated;
     }
 
     @Transactional
     public void deleteProduct(Long productId) {
         Product product = loadActiveProduct(productId);
-        product.markDeleted(Instant.now(clock));
-        productRepository.saveAndFlush(product);
+        product.markDeleted(Product.atColumnPrecision(Instant.now(clock)));
+        Product deleted = productRepository.saveAndFlush(product);
+        productDetailCache.evict(productId, deleted.getVersion());
+        categoryFacets.productDeleted(deleted.getCategory());
     }
 
     private Product loadActiveProduct(Long productId) {
@@ -0,0 +1,25 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.bulk-adjustment")
+public class ProductBulkAdjustmentProperties {
+
+    /**
+     * Items applied per set-based UPDATE. Each chunk and its checkpoint commit together, so this
+     * also bounds how long product rows stay locked.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Rejected items (version conflicts, unknown products) echoed back per run. Further
+     * rejections are only counted.
+     */
+    private int maxReportedRejections = 100;
+}
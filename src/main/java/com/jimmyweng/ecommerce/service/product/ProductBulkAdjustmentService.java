@@ -0,0 +1,351 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
+import com.jimmyweng.ecommerce.constant.BulkJobStatus;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.datasource.annotation.ReadFromPrimary;
+import com.jimmyweng.ecommerce.exception.BulkJobConflictException;
+import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.model.product.ProductBulkJob;
+import com.jimmyweng.ecommerce.repository.product.ProductBulkJobRepository;
+import com.jimmyweng.ecommerce.service.product.dto.BulkAdjustmentResult;
+import com.jimmyweng.ecommerce.service.product.dto.BulkAdjustmentResult.Reason;
+import com.jimmyweng.ecommerce.service.product.dto.BulkAdjustmentResult.Rejection;
+import com.jimmyweng.ecommerce.service.product.dto.ProductAdjustment;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies price/stock adjustments in chunks. Each chunk locks its rows with one select, resolves
+ * version checks and unknown ids in memory, then rewrites every remaining row with a single
+ * {@code CASE}-based UPDATE. The chunk and the job checkpoint commit together, so a failed or
+ * interrupted run can be resumed by resubmitting the same items with the job id.
+ */
+@Service
+public class ProductBulkAdjustmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkAdjustmentService.class);
+
+    private static final String LOCK_SQL = """
+            select id, version from products where id in (:ids) and deleted_at is null for update
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductBulkJobRepository productBulkJobRepository;
+    private final ProductDetailCache productDetailCache;
+    private final ProductBulkAdjustmentProperties properties;
+    private final Clock clock;
+
+    public ProductBulkAdjustmentService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ProductBulkJobRepository productBulkJobRepository,
+            ProductDetailCache productDetailCache,
+            ProductBulkAdjustmentProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productBulkJobRepository = productBulkJobRepository;
+        this.productDetailCache = productDetailCache;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a new job, or continues {@code resumeJobId} from its checkpoint when the items are
+     * identical to those it was started with.
+     */
+    public BulkAdjustmentResult adjust(List<ProductAdjustment> adjustments, Long resumeJobId) {
+        String checksum = checksum(adjustments);
+        ProductBulkJob job = transactionTemplate.execute(status -> resumeJobId == null
+                ? productBulkJobRepository.saveAndFlush(
+                        new ProductBulkJob(checksum, adjustments.size(), Instant.now(clock)))
+                : loadResumable(resumeJobId, checksum));
+        if (job.getStatus() == BulkJobStatus.COMPLETED) {
+            return BulkAdjustmentResult.from(job);
+        }
+
+        long start = System.nanoTime();
+        Run run = new Run(job, properties.getMaxReportedRejections());
+        try {
+            while (run.checkpointRows < adjustments.size()) {
+                int from = run.checkpointRows;
+                List<ProductAdjustment> chunk =
+                        adjustments.subList(from, Math.min(from + properties.getChunkSize(), adjustments.size()));
+                run.record(transactionTemplate.execute(status -> applyChunk(job.getId(), from, chunk)));
+            }
+            Instant now = Instant.now(clock);
+            transactionTemplate.executeWithoutResult(status ->
+                    productBulkJobRepository.updateStatus(job.getId(), BulkJobStatus.COMPLETED, now, now));
+            run.status = BulkJobStatus.COMPLETED;
+        } catch (BulkJobConflictException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            log.warn("Bulk adjustment job {} failed at row {}", job.getId(), run.checkpointRows, ex);
+            transactionTemplate.executeWithoutResult(status -> productBulkJobRepository.updateStatus(
+                    job.getId(), BulkJobStatus.FAILED, Instant.now(clock), null));
+            throw ex;
+        } finally {
+            // Whatever committed must not be served stale, even when the run stops early.
+            if (!run.committedVersions.isEmpty()) {
+                productDetailCache.evictAll(run.committedVersions);
+            }
+        }
+
+        BulkAdjustmentResult result = run.toResult();
+        long runMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info(
+                "Bulk adjustment job {} completed: rows={}, updated={}, conflicts={}, missing={}, "
+                        + "runMs={}, rowsPerSecond={}",
+                job.getId(),
+                result.processedRows(),
+                result.updatedRows(),
+                result.conflictRows(),
+                result.missingRows(),
+                runMillis,
+                result.rowsPerSecond());
+        return result;
+    }
+
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public BulkAdjustmentResult getJob(Long jobId) {
+        return productBulkJobRepository.findById(jobId)
+                .map(BulkAdjustmentResult::from)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.bulkJobNotFound(jobId)));
+    }
+
+    private ProductBulkJob loadResumable(Long jobId, String checksum) {
+        ProductBulkJob job = productBulkJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.bulkJobNotFound(jobId)));
+        if (!job.getPayloadChecksum().equals(checksum)) {
+            throw new BulkJobConflictException(ErrorMessages.BULK_JOB_PAYLOAD_MISMATCH);
+        }
+        return job;
+    }
+
+    private ChunkOutcome applyChunk(Long jobId, int from, List<ProductAdjustment> chunk) {
+        long start = System.nanoTime();
+        Set<Long> ids = new HashSet<>();
+        chunk.forEach(adjustment -> ids.add(adjustment.productId()));
+        Map<Long, Long> lockedVersions = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_SQL, Map.of("ids", ids), resultSet -> {
+            lockedVersions.put(resultSet.getLong("id"), resultSet.getLong("version"));
+        });
+
+        // Rows are checked in input order as if applied one by one: a product listed twice sees the
+        // version its earlier row produced, and every applied row is folded into one merged change.
+        Map<Long, Long> versions = new HashMap<>(lockedVersions);
+        Map<Long, ProductAdjustment> merged = new LinkedHashMap<>();
+        List<Rejection> rejections = new ArrayList<>();
+        int updated = 0;
+        for (ProductAdjustment adjustment : chunk) {
+            Long currentVersion = versions.get(adjustment.productId());
+            if (currentVersion == null) {
+                rejections.add(new Rejection(adjustment.productId(), Reason.NOT_FOUND));
+            } else if (adjustment.expectedVersion() != null && !adjustment.expectedVersion().equals(currentVersion)) {
+                rejections.add(new Rejection(adjustment.productId(), Reason.VERSION_CONFLICT));
+            } else {
+                merged.merge(adjustment.productId(), adjustment, ProductBulkAdjustmentService::merge);
+                versions.put(adjustment.productId(), currentVersion + 1);
+                updated++;
+            }
+        }
+
+        Map<Long, Long> committedVersions = new HashMap<>();
+        merged.keySet().forEach(id -> committedVersions.put(id, versions.get(id)));
+        if (!merged.isEmpty()) {
+            update(List.copyOf(merged.values()), committedVersions, Timestamp.from(Product.atColumnPrecision(Instant.now(clock))));
+        }
+
+        int conflicts = (int) rejections.stream().filter(r -> r.reason() == Reason.VERSION_CONFLICT).count();
+        int missing = rejections.size() - conflicts;
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        int advanced = productBulkJobRepository.advanceCheckpoint(
+                jobId,
+                from,
+                from + chunk.size(),
+                updated,
+                conflicts,
+                missing,
+                elapsedMillis,
+                Instant.now(clock));
+        if (advanced == 0) {
+            throw new BulkJobConflictException(ErrorMessages.BULK_JOB_CHECKPOINT_MOVED);
+        }
+        return new ChunkOutcome(chunk.size(), updated, conflicts, missing, elapsedMillis, committedVersions,
+                rejections);
+    }
+
+    /** Later non-null fields win, as they would if both rows were applied in turn. */
+    private static ProductAdjustment merge(ProductAdjustment earlier, ProductAdjustment later) {
+        return new ProductAdjustment(
+                earlier.productId(),
+                later.price() != null ? later.price() : earlier.price(),
+                later.stock() != null ? later.stock() : earlier.stock(),
+                null);
+    }
+
+    private void update(List<ProductAdjustment> adjustments, Map<Long, Long> newVersions, Timestamp updatedAt) {
+        StringBuilder sql = new StringBuilder("update products set ");
+        List<Object> args = new ArrayList<>();
+        List<ProductAdjustment> priced = adjustments.stream().filter(a -> a.price() != null).toList();
+        if (!priced.isEmpty()) {
+            sql.append("price = case id");
+            for (ProductAdjustment adjustment : priced) {
+                sql.append(" when ? then ?");
+                args.add(adjustment.productId());
+                args.add(adjustment.price());
+            }
+            sql.append(" else price end, ");
+        }
+        List<ProductAdjustment> stocked = adjustments.stream().filter(a -> a.stock() != null).toList();
+        if (!stocked.isEmpty()) {
+            sql.append("stock = case id");
+            for (ProductAdjustment adjustment : stocked) {
+                sql.append(" when ? then ?");
+                args.add(adjustment.productId());
+                args.add(adjustment.stock());
+            }
+            sql.append(" else stock end, ");
+        }
+        // Rows are locked, so each version moves exactly as far as the rows applied to it.
+        sql.append("version = case id");
+        for (ProductAdjustment adjustment : adjustments) {
+            sql.append(" when ? then ?");
+            args.add(adjustment.productId());
+            args.add(newVersions.get(adjustment.productId()));
+        }
+        sql.append(" else version end, updated_at = ? where id in (");
+        args.add(updatedAt);
+        for (int i = 0; i < adjustments.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(adjustments.get(i).productId());
+        }
+        sql.append(')');
+
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.update(sql.toString(), ps -> {
+            for (int i = 0; i < args.size(); i++) {
+                Object arg = args.get(i);
+                if (arg instanceof Timestamp timestamp) {
+                    ps.setTimestamp(i + 1, timestamp, utc);
+                } else if (arg instanceof BigDecimal decimal) {
+                    ps.setBigDecimal(i + 1, decimal);
+                } else if (arg instanceof Integer integer) {
+                    ps.setInt(i + 1, integer);
+                } else {
+                    ps.setLong(i + 1, (Long) arg);
+                }
+            }
+        });
+    }
+
+    private static String checksum(List<ProductAdjustment> adjustments) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ProductAdjustment adjustment : adjustments) {
+                String price = adjustment.price() == null ? "" : adjustment.price().stripTrailingZeros().toPlainString();
+                digest.update((adjustment.productId() + "|" + price + "|" + adjustment.stock() + "|"
+                                + adjustment.expectedVersion() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record ChunkOutcome(
+            int rows,
+            int updated,
+            int conflicts,
+            int missing,
+            long elapsedMillis,
+            Map<Long, Long> committedVersions,
+            List<Rejection> rejections) {}
+
+    private static final class Run {
+
+        private final Long jobId;
+        private final int totalRows;
+        private final int maxReportedRejections;
+        private final List<Rejection> rejections = new ArrayList<>();
+        private final Map<Long, Long> committedVersions = new HashMap<>();
+        private BulkJobStatus status;
+        private int checkpointRows;
+        private int updatedRows;
+        private int conflictRows;
+        private int missingRows;
+        private long elapsedMillis;
+
+        private Run(ProductBulkJob job, int maxReportedRejections) {
+            this.jobId = job.getId();
+            this.totalRows = job.getTotalRows();
+            this.maxReportedRejections = maxReportedRejections;
+            this.status = job.getStatus();
+            this.checkpointRows = job.getCheckpointRows();
+            this.updatedRows = job.getUpdatedRows();
+            this.conflictRows = job.getConflictRows();
+            this.missingRows = job.getMissingRows();
+            this.elapsedMillis = job.getElapsedMillis();
+        }
+
+        private void record(ChunkOutcome outcome) {
+            checkpointRows += outcome.rows();
+            updatedRows += outcome.updated();
+            conflictRows += outcome.conflicts();
+            missingRows += outcome.missing();
+            elapsedMillis += outcome.elapsedMillis();
+            committedVersions.putAll(outcome.committedVersions());
+            for (Rejection rejection : outcome.rejections()) {
+                if (rejections.size() >= maxReportedRejections) {
+                    break;
+                }
+                rejections.add(rejection);
+            }
+        }
+
+        private BulkAdjustmentResult toResult() {
+            return new BulkAdjustmentResult(
+                    jobId,
+                    status,
+                    totalRows,
+                    checkpointRows,
+                    updatedRows,
+                    conflictRows,
+                    missingRows,
+                    elapsedMillis,
+                    BulkAdjustmentResult.rowsPerSecond(checkpointRows, elapsedMillis),
+                    List.copyOf(rejections));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.exception.InvalidCursorException;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last product of a listing page. Only the sort key of {@code sort} is set:
+ * {@code createdAt} for newest, {@code price} for the price sorts. Clients treat the encoded form
+ * as opaque; a cursor is only valid for the sort that produced it.
+ */
+public record ProductCursor(ProductSort sort, Instant createdAt, BigDecimal price, Long productId) {
+
+    public static ProductCursor after(ProductSort sort, Product product) {
+        // A key finer than the column would skip past the stored boundary row.
+        return sort == ProductSort.NEWEST
+                ? new ProductCursor(sort, Product.atColumnPrecision(product.getCreatedAt()), null, product.getId())
+                : new ProductCursor(sort, null, product.getPrice(), product.getId());
+    }
+
+    public String encode() {
+        String key = sort == ProductSort.NEWEST
+                ? createdAt.getEpochSecond() + ":" + createdAt.getNano()
+                : price.toPlainString();
+        String raw = sort.ordinal() + ":" + key + ":" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ProductCursor decode(String encoded, ProductSort expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII).split(":");
+            boolean newest = expectedSort == ProductSort.NEWEST;
+            if (parts.length != (newest ? 4 : 3) || Integer.parseInt(parts[0]) != expectedSort.ordinal()) {
+                throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR);
+            }
+            if (newest) {
+                Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                return new ProductCursor(expectedSort, createdAt, null, Long.parseLong(parts[3]));
+            }
+            return new ProductCursor(expectedSort, null, new BigDecimal(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR);
+        }
+    }
+}
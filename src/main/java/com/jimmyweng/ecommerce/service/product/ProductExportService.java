@@ -0,0 +1,231 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.jimmyweng.ecommerce.config.datasource.DataSourceRoutingConfiguration;
+import com.jimmyweng.ecommerce.config.datasource.ExportDataSourceProperties;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.exception.ExportCapacityExceededException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams every active product through a forward-only cursor on the dedicated export pool. Rows are
+ * written as they are read, so memory stays constant and a slow client simply stalls the cursor.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    private static final String EXPORT_SQL = """
+            select id, title, description, category, price, stock, created_at, updated_at, version
+            from products
+            where deleted_at is null
+            order by id
+            """;
+    private static final String CSV_HEADER = "id,title,description,category,price,stock,createdAt,updatedAt,version";
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+    private final Semaphore slots;
+
+    public ProductExportService(
+            @Qualifier(DataSourceRoutingConfiguration.EXPORT_DATA_SOURCE) DataSource exportDataSource,
+            ExportDataSourceProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(exportDataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.jsonFactory = new JsonFactory();
+        this.slots = new Semaphore(properties.getPoolSize());
+    }
+
+    /**
+     * Reserves one export slot up front so callers are rejected before any response is committed
+     * rather than failing mid-stream on a pool timeout. The slot is released when the export ends,
+     * or when the caller closes an export whose body never ran.
+     */
+    public ProductExport openExport(ProductFileFormat format) {
+        if (!slots.tryAcquire()) {
+            throw new ExportCapacityExceededException(ErrorMessages.EXPORT_CAPACITY_EXCEEDED);
+        }
+        return new ProductExport(format);
+    }
+
+    /**
+     * One reserved export. {@link #close()} is idempotent, so the streaming body and the request's
+     * async completion can both release the slot without returning it twice.
+     */
+    public final class ProductExport implements AutoCloseable {
+
+        private final ProductFileFormat format;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ProductExport(ProductFileFormat format) {
+            this.format = format;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            try {
+                write(format, out);
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private void write(ProductFileFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_BYTES);
+        RowWriter rowWriter = format == ProductFileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                    rows[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        rowWriter.finish();
+        log.info(
+                "Product export finished: format={}, rows={}, elapsedMs={}",
+                format,
+                rows[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private abstract static class RowWriter {
+
+        // Timestamps are stored in UTC; read them back without applying the JVM zone. Calendar is
+        // not thread-safe, so each export gets its own.
+        private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        abstract void write(ResultSet row) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+
+        String instant(ResultSet row, String column) throws SQLException {
+            Timestamp timestamp = row.getTimestamp(column, utc);
+            return timestamp == null ? null : timestamp.toInstant().toString();
+        }
+    }
+
+    private final class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonFactory.createGenerator(writer);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // Each row is terminated with '\n' explicitly; suppress the default space between root values.
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong("id"));
+            generator.writeStringField("title", row.getString("title"));
+            generator.writeStringField("description", row.getString("description"));
+            generator.writeStringField("category", row.getString("category"));
+            generator.writeNumberField("price", row.getBigDecimal("price"));
+            generator.writeNumberField("stock", row.getInt("stock"));
+            generator.writeStringField("createdAt", instant(row, "created_at"));
+            generator.writeStringField("updatedAt", instant(row, "updated_at"));
+            generator.writeNumberField("version", row.getLong("version"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong("id")));
+            writer.write(',');
+            writeField(row.getString("title"));
+            writer.write(',');
+            writeField(row.getString("description"));
+            writer.write(',');
+            writeField(row.getString("category"));
+            writer.write(',');
+            writer.write(row.getBigDecimal("price").toPlainString());
+            writer.write(',');
+            writer.write(Integer.toString(row.getInt("stock")));
+            writer.write(',');
+            writer.write(instant(row, "created_at"));
+            writer.write(',');
+            writer.write(instant(row, "updated_at"));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong("version")));
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0
+                    || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import java.util.Locale;
+
+public enum ProductFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ProductFileFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ProductFileFormat fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static ProductFileFormat fromContentType(String contentType) {
+        String mimeType = contentType.split(";", 2)[0].trim();
+        for (ProductFileFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(mimeType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType);
+    }
+}
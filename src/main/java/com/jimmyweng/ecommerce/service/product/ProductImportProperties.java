@@ -0,0 +1,23 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.import")
+public class ProductImportProperties {
+
+    /**
+     * Rows written per JDBC batch; each batch commits in its own transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Row errors echoed back in the import report. Further failures are only counted.
+     */
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,238 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jimmyweng.ecommerce.exception.InvalidImportFileException;
+import com.jimmyweng.ecommerce.service.product.dto.ProductImportRow;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pulls one row at a time from an uploaded NDJSON or CSV body. Rows that cannot be parsed are
+ * returned with an error instead of a value, so the caller can report them and carry on.
+ */
+abstract class ProductImportReader implements Closeable {
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+
+    protected final BufferedReader reader;
+
+    private ProductImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+    }
+
+    static ProductImportReader open(ProductFileFormat format, InputStream in, ObjectReader rowReader)
+            throws IOException {
+        return format == ProductFileFormat.CSV ? new CsvReader(in) : new NdjsonReader(in, rowReader);
+    }
+
+    /**
+     * Returns the next non-blank row, or {@code null} at end of input.
+     */
+    abstract ImportLine next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * {@code line} is the 1-based line the row starts on; exactly one of {@code row} and
+     * {@code error} is set.
+     */
+    record ImportLine(long line, ProductImportRow row, String error) {
+
+        static ImportLine parsed(long line, ProductImportRow row) {
+            return new ImportLine(line, row, null);
+        }
+
+        static ImportLine failed(long line, String error) {
+            return new ImportLine(line, null, error);
+        }
+    }
+
+    private static final class NdjsonReader extends ProductImportReader {
+
+        private final ObjectReader rowReader;
+        private long lineNumber;
+
+        private NdjsonReader(InputStream in, ObjectReader rowReader) {
+            super(in);
+            this.rowReader = rowReader;
+        }
+
+        @Override
+        ImportLine next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return ImportLine.parsed(lineNumber, rowReader.readValue(line));
+                } catch (JsonProcessingException ex) {
+                    return ImportLine.failed(lineNumber, "malformed JSON: " + ex.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks. The header
+     * row names the columns; {@code title}, {@code category}, {@code price} and {@code stock} are
+     * required and unknown columns (such as the export's timestamps) are ignored.
+     */
+    private static final class CsvReader extends ProductImportReader {
+
+        private static final List<String> REQUIRED_COLUMNS = List.of("title", "category", "price", "stock");
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long lineNumber = 1;
+
+        private CsvReader(InputStream in) throws IOException {
+            super(in);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new InvalidImportFileException("CSV header row is missing");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new InvalidImportFileException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+        }
+
+        @Override
+        ImportLine next() throws IOException {
+            while (true) {
+                long start = lineNumber;
+                List<String> fields;
+                try {
+                    fields = readRecord();
+                } catch (MalformedRecordException ex) {
+                    return ImportLine.failed(start, ex.getMessage());
+                }
+                if (fields == null) {
+                    return null;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    return ImportLine.parsed(start, new ProductImportRow(
+                            parseLong(field(fields, "id")),
+                            field(fields, "title"),
+                            field(fields, "description"),
+                            field(fields, "category"),
+                            parseDecimal(field(fields, "price")),
+                            parseInteger(field(fields, "stock"))));
+                } catch (NumberFormatException ex) {
+                    return ImportLine.failed(start, ex.getMessage());
+                }
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                            continue;
+                        }
+                        quoted = false;
+                        if (peek != -1) {
+                            reader.reset();
+                        }
+                        continue;
+                    }
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    lineNumber++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (quoted) {
+                throw new MalformedRecordException("unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private static Long parseLong(String value) {
+            try {
+                return value == null ? null : Long.valueOf(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new NumberFormatException("id is not a number: " + value);
+            }
+        }
+
+        private static Integer parseInteger(String value) {
+            try {
+                return value == null ? null : Integer.valueOf(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new NumberFormatException("stock is not a number: " + value);
+            }
+        }
+
+        private static BigDecimal parseDecimal(String value) {
+            try {
+                return value == null ? null : new BigDecimal(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new NumberFormatException("price is not a number: " + value);
+            }
+        }
+    }
+
+    private static final class MalformedRecordException extends IOException {
+
+        private MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
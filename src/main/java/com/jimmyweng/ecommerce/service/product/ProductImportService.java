@@ -0,0 +1,249 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jimmyweng.ecommerce.cache.ProductDetailCache;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.service.catalog.CategoryFacets;
+import com.jimmyweng.ecommerce.service.product.ProductImportReader.ImportLine;
+import com.jimmyweng.ecommerce.service.product.dto.ProductImportResult;
+import com.jimmyweng.ecommerce.service.product.dto.ProductImportResult.RowError;
+import com.jimmyweng.ecommerce.service.product.dto.ProductImportRow;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports an uploaded catalog file without materializing it: rows are parsed and validated one at
+ * a time and written in JDBC batches, each batch committing in its own transaction. A batch the
+ * database rejects is replayed row by row so only the offending rows are reported. Cached product
+ * details are invalidated once, after the last batch.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String INSERT_SQL = """
+            insert into products (title, description, category, price, stock, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+    private static final String UPDATE_SQL = """
+            update products
+            set title = ?, description = ?, category = ?, price = ?, stock = ?, updated_at = ?, version = version + 1
+            where id = ? and deleted_at is null
+            """;
+    private static final String COMMITTED_VERSIONS_SQL = """
+            select id, version from products where id in (:ids) and deleted_at is null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final Validator validator;
+    private final ProductDetailCache productDetailCache;
+    private final CategoryFacets categoryFacets;
+    private final ProductImportProperties properties;
+    private final Clock clock;
+
+    public ProductImportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ProductDetailCache productDetailCache,
+            CategoryFacets categoryFacets,
+            ProductImportProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Files produced by the export carry createdAt/updatedAt/version; those are not importable.
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.validator = validator;
+        this.productDetailCache = productDetailCache;
+        this.categoryFacets = categoryFacets;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public ProductImportResult importProducts(ProductFileFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(properties.getMaxReportedErrors());
+        List<ImportLine> batch = new ArrayList<>(properties.getBatchSize());
+        try (ProductImportReader reader = ProductImportReader.open(format, in, rowReader)) {
+            ImportLine line;
+            while ((line = reader.next()) != null) {
+                String error = line.error() != null ? line.error() : validate(line.row());
+                if (error != null) {
+                    report.fail(line.line(), error);
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() >= properties.getBatchSize()) {
+                    flush(batch, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch, report);
+            }
+        } finally {
+            // Runs even if the upload is cut off: whatever already committed must not be served stale.
+            if (!report.committedVersions.isEmpty()) {
+                productDetailCache.evictAll(report.committedVersions);
+                // Upserts may add, move or revive products in bulk; one recount beats tracking each row.
+                categoryFacets.reconcileFromPrimary();
+            }
+        }
+
+        ProductImportResult result = report.toResult();
+        log.info(
+                "Product import finished: format={}, created={}, updated={}, failed={}, elapsedMs={}",
+                format,
+                result.created(),
+                result.updated(),
+                result.failed(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void flush(List<ImportLine> batch, ImportReport report) {
+        try {
+            report.record(transactionTemplate.execute(status -> write(batch)));
+        } catch (DataAccessException batchFailure) {
+            log.warn("Import batch of {} rows rejected, retrying row by row", batch.size(), batchFailure);
+            for (ImportLine line : batch) {
+                try {
+                    report.record(transactionTemplate.execute(status -> write(List.of(line))));
+                } catch (DataAccessException rowFailure) {
+                    report.fail(line.line(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private BatchOutcome write(List<ImportLine> lines) {
+        Timestamp now = Timestamp.from(Product.atColumnPrecision(Instant.now(clock)));
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        List<ImportLine> inserts = lines.stream().filter(line -> line.row().id() == null).toList();
+        List<ImportLine> updates = lines.stream().filter(line -> line.row().id() != null).toList();
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, line) -> {
+                bindRow(ps, line.row());
+                ps.setTimestamp(6, now, utc);
+                ps.setTimestamp(7, now, utc);
+            });
+        }
+
+        Map<Long, Long> committedVersions = new HashMap<>();
+        List<ImportLine> missing = new ArrayList<>();
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, line) -> {
+                bindRow(ps, line.row());
+                ps.setTimestamp(6, now, utc);
+                ps.setLong(7, line.row().id());
+            });
+            // Connector/J reports no per-row counts for rewritten batches; read back which ids
+            // exist, which also yields the versions the cache tombstones need.
+            List<Long> ids = updates.stream().map(line -> line.row().id()).distinct().toList();
+            namedParameterJdbcTemplate.query(
+                    COMMITTED_VERSIONS_SQL,
+                    Map.of("ids", ids),
+                    resultSet -> {
+                        committedVersions.put(resultSet.getLong("id"), resultSet.getLong("version"));
+                    });
+            for (ImportLine line : updates) {
+                if (!committedVersions.containsKey(line.row().id())) {
+                    missing.add(line);
+                }
+            }
+        }
+        return new BatchOutcome(inserts.size(), updates.size() - missing.size(), committedVersions, missing);
+    }
+
+    private static void bindRow(PreparedStatement ps, ProductImportRow row) throws SQLException {
+        ps.setString(1, row.title());
+        ps.setString(2, row.description());
+        ps.setString(3, Product.normalizeCategory(row.category()));
+        ps.setBigDecimal(4, row.price());
+        ps.setInt(5, row.stock());
+    }
+
+    private record BatchOutcome(
+            int created, int updated, Map<Long, Long> committedVersions, List<ImportLine> missing) {}
+
+    private static final class ImportReport {
+
+        private final int maxReportedErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private final Map<Long, Long> committedVersions = new HashMap<>();
+        private long created;
+        private long updated;
+        private long failed;
+
+        private ImportReport(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void record(BatchOutcome outcome) {
+            created += outcome.created();
+            updated += outcome.updated();
+            committedVersions.putAll(outcome.committedVersions());
+            for (ImportLine line : outcome.missing()) {
+                fail(line.line(), ErrorMessages.productNotFound(line.row().id()));
+            }
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        private ProductImportResult toResult() {
+            return new ProductImportResult(created, updated, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.jimmyweng.ecommerce.service.product;
 
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.exception.InvalidListingQueryException;
 import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
 import com.jimmyweng.ecommerce.logging.LogExecution;
 import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductListingQuery;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import com.jimmyweng.ecommerce.service.catalog.CatalogFilterIndexService;
+import com.jimmyweng.ecommerce.service.product.dto.ProductListingCriteria;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
@@ -22,42 +30,78 @@ public class ProductQueryService {
     private static final Logger log = LoggerFactory.getLogger(ProductQueryService.class);
 
     private final ProductRepository productRepository;
+    private final CatalogFilterIndexService catalogFilterIndexService;
     private final boolean fullTextEnabled;
     private final int fullTextMinLength;
 
     public ProductQueryService(
             ProductRepository productRepository,
+            CatalogFilterIndexService catalogFilterIndexService,
             @Value("${feature.fulltext.enabled:true}") boolean fullTextEnabled,
             @Value("${feature.fulltext.min-length:3}") int fullTextMinLength) {
         this.productRepository = productRepository;
+        this.catalogFilterIndexService = catalogFilterIndexService;
         this.fullTextEnabled = fullTextEnabled;
         this.fullTextMinLength = fullTextMinLength;
     }
 
+    /**
+     * Keyword searches keep relevance (full-text) or newest-first order and page by offset. Other
+     * listings accept price bounds, the in-stock filter, any {@link ProductSort} and a keyset cursor;
+     * with a cursor the page number is ignored. They are answered from the bitmap index when one is
+     * built, otherwise from the database.
+     */
     @LogExecution
-    public Slice<Product> listProducts(String category, String keyword, Pageable pageable) {
-        String normalizedCategory = StringUtils.hasText(category) ? category.trim().toLowerCase(Locale.ROOT) : null;
-        String normalizedKeyword = StringUtils.hasText(keyword) ? keyword.trim() : null;
+    public Slice<Product> listProducts(ProductListingCriteria criteria, Pageable pageable) {
+        String normalizedCategory = StringUtils.hasText(criteria.category())
+                ? criteria.category().trim().toLowerCase(Locale.ROOT)
+                : null;
+        String normalizedKeyword = StringUtils.hasText(criteria.keyword()) ? criteria.keyword().trim() : null;
+        ProductSort sort = criteria.sort() != null ? criteria.sort() : ProductSort.NEWEST;
+        boolean hasCursor = StringUtils.hasText(criteria.cursor());
 
         if (log.isDebugEnabled()) {
             log.debug(
-                    "listProducts invoked (category={}, keyword={}, readOnlyTx={})",
+                    "listProducts invoked (category={}, keyword={}, sort={}, readOnlyTx={})",
                     normalizedCategory,
                     normalizedKeyword,
+                    sort.param(),
                     org.springframework.transaction.support.TransactionSynchronizationManager.isCurrentTransactionReadOnly());
         }
 
+        if (criteria.minPrice() != null
+                && criteria.maxPrice() != null
+                && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+            throw new InvalidListingQueryException(ErrorMessages.INVALID_PRICE_RANGE);
+        }
+
         boolean hasKeyword = StringUtils.hasText(normalizedKeyword);
         if (!hasKeyword) {
-            return productRepository.searchActiveProductsByCategory(normalizedCategory, pageable);
+            ProductCursor after = hasCursor ? ProductCursor.decode(criteria.cursor().trim(), sort) : null;
+            ProductListingQuery query = new ProductListingQuery(
+                    normalizedCategory,
+                    criteria.minPrice(),
+                    criteria.maxPrice(),
+                    criteria.inStock(),
+                    sort,
+                    after != null ? after.createdAt() : null,
+                    after != null ? after.price() : null,
+                    after != null ? after.productId() : null);
+            Pageable page = after != null ? PageRequest.of(0, pageable.getPageSize()) : pageable;
+            return catalogFilterIndexService.findListing(query, page)
+                    .orElseGet(() -> productRepository.findListing(query, page));
         }
 
-        boolean useFullText = fullTextEnabled && normalizedKeyword.length() >= fullTextMinLength;
-        if (useFullText) {
-            return productRepository.searchActiveProductsFullText(normalizedCategory, normalizedKeyword, pageable);
+        if (criteria.minPrice() != null
+                || criteria.maxPrice() != null
+                || criteria.inStock()
+                || sort != ProductSort.NEWEST
+                || hasCursor) {
+            throw new InvalidListingQueryException(ErrorMessages.LISTING_OPTIONS_WITH_SEARCH);
         }
 
-        return productRepository.searchActiveProductsLike(normalizedCategory, normalizedKeyword, pageable);
+        boolean useFullText = fullTextEnabled && normalizedKeyword.length() >= fullTextMinLength;
+        return productRepository.searchListing(normalizedCategory, normalizedKeyword, useFullText, pageable);
     }
 
     public Product getProduct(Long productId) {
@@ -65,4 +109,8 @@ public class ProductQueryService {
                 .findByIdAndDeletedAtIsNull(productId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.productNotFound(productId)));
     }
+
+    public List<Product> getProducts(Collection<Long> productIds) {
+        return productRepository.findAllByIdInAndDeletedAtIsNull(productIds);
+    }
 }
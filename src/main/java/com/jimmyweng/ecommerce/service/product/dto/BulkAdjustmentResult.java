@@ -0,0 +1,47 @@
+package com.jimmyweng.ecommerce.service.product.dto;
+
+import com.jimmyweng.ecommerce.constant.BulkJobStatus;
+import com.jimmyweng.ecommerce.model.product.ProductBulkJob;
+import java.util.List;
+
+/**
+ * Cumulative progress of a bulk adjustment job. {@code rejections} only covers the run that
+ * produced this result and is capped; the {@code *Rows} counters cover every run.
+ */
+public record BulkAdjustmentResult(
+        Long jobId,
+        BulkJobStatus status,
+        int totalRows,
+        int processedRows,
+        int updatedRows,
+        int conflictRows,
+        int missingRows,
+        long elapsedMillis,
+        long rowsPerSecond,
+        List<Rejection> rejections) {
+
+    public enum Reason {
+        VERSION_CONFLICT,
+        NOT_FOUND
+    }
+
+    public record Rejection(Long productId, Reason reason) {}
+
+    public static BulkAdjustmentResult from(ProductBulkJob job) {
+        return new BulkAdjustmentResult(
+                job.getId(),
+                job.getStatus(),
+                job.getTotalRows(),
+                job.getCheckpointRows(),
+                job.getUpdatedRows(),
+                job.getConflictRows(),
+                job.getMissingRows(),
+                job.getElapsedMillis(),
+                rowsPerSecond(job.getCheckpointRows(), job.getElapsedMillis()),
+                List.of());
+    }
+
+    public static long rowsPerSecond(int rows, long elapsedMillis) {
+        return elapsedMillis == 0 ? rows : rows * 1000L / elapsedMillis;
+    }
+}
@@ -0,0 +1,9 @@
+package com.jimmyweng.ecommerce.service.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * New absolute price and/or stock for one product. A null field is left unchanged; a null
+ * {@code expectedVersion} skips the optimistic version check.
+ */
+public record ProductAdjustment(Long productId, BigDecimal price, Integer stock, Long expectedVersion) {}
@@ -0,0 +1,13 @@
+package com.jimmyweng.ecommerce.service.product.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists at most the configured number of failed rows;
+ * {@code failed} always counts all of them.
+ */
+public record ProductImportResult(
+        long created, long updated, long failed, List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {}
+}
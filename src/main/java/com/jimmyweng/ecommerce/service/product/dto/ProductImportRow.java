@@ -0,0 +1,20 @@
+package com.jimmyweng.ecommerce.service.product.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+
+/**
+ * One product in an import file. Rows with an {@code id} update that active product; rows without
+ * one create a new product. Constraints mirror {@code CreateProductRequest}.
+ */
+public record ProductImportRow(
+        Long id,
+        @NotBlank @Size(max = 255) String title,
+        @Size(max = 2000) String description,
+        @NotBlank @Size(max = 100) String category,
+        @NotNull @DecimalMin(value = "0.0", inclusive = false) BigDecimal price,
+        @NotNull @Min(0) Integer stock) {}
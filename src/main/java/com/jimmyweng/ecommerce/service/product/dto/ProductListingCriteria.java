@@ -0,0 +1,22 @@
+package com.jimmyweng.ecommerce.service.product.dto;
+
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import java.math.BigDecimal;
+
+/**
+ * Listing filters as received; blank strings and {@code null}s are absent filters. {@code cursor}
+ * is the encoded {@code nextCursor} of the previous page.
+ */
+public record ProductListingCriteria(
+        String category,
+        String keyword,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        boolean inStock,
+        ProductSort sort,
+        String cursor) {
+
+    public static ProductListingCriteria of(String category, String keyword) {
+        return new ProductListingCriteria(category, keyword, null, null, false, ProductSort.NEWEST, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+/**
+ * Count-Min Sketch over product ids with {@code double} counters, so the whole sketch can be
+ * decayed by scaling. Uses conservative update: only the counters that hold the current minimum
+ * are raised, which keeps the overestimate well below the classic {@code e / width * total} bound
+ * on skewed streams. Estimates never undercount. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int widthBits;
+    private final double[] counters;
+    private final long[] seeds;
+    private final int[] slots;
+    private double total;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int width, int depth) {
+        this.depth = depth;
+        this.widthBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, width - 1));
+        this.counters = new double[depth << widthBits];
+        this.seeds = new long[depth];
+        this.slots = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = mix(0x9E3779B97F4A7C15L * (row + 1));
+        }
+    }
+
+    void add(long key, double weight) {
+        double minimum = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            slots[row] = slot(key, row);
+            minimum = Math.min(minimum, counters[slots[row]]);
+        }
+        double raised = minimum + weight;
+        for (int slot : slots) {
+            if (counters[slot] < raised) {
+                counters[slot] = raised;
+            }
+        }
+        total += weight;
+    }
+
+    double estimate(long key) {
+        double minimum = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            minimum = Math.min(minimum, counters[slot(key, row)]);
+        }
+        return minimum;
+    }
+
+    void scale(double factor) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] *= factor;
+        }
+        total *= factor;
+    }
+
+    double total() {
+        return total;
+    }
+
+    int width() {
+        return 1 << widthBits;
+    }
+
+    private int slot(long key, int row) {
+        int column = widthBits == 0 ? 0 : (int) (mix(key ^ seeds[row]) >>> (64 - widthBits));
+        return (row << widthBits) + column;
+    }
+
+    // SplitMix64 finalizer: cheap, and spreads sequential ids across all columns.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving top-k summary (Metwally et al.): at most {@code capacity} monitored products. An
+ * unmonitored product replaces the one with the smallest count and inherits that count as its
+ * possible overestimate, so any product whose true weight exceeds {@code total / capacity} is
+ * guaranteed to be monitored. Finding the minimum is a linear scan; at the small capacities used
+ * here that is cheaper than maintaining the stream-summary buckets.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(long key, double weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, weight, 0));
+            return;
+        }
+        Counter smallest = null;
+        for (Counter candidate : counters.values()) {
+            if (smallest == null || candidate.count < smallest.count) {
+                smallest = candidate;
+            }
+        }
+        counters.remove(smallest.key);
+        counters.put(key, new Counter(key, smallest.count + weight, smallest.count));
+    }
+
+    /**
+     * Monitored products, highest count first.
+     */
+    List<Counter> counters() {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparingDouble((Counter counter) -> counter.count).reversed());
+        return sorted;
+    }
+
+    void scale(double factor) {
+        for (Counter counter : counters.values()) {
+            counter.count *= factor;
+            counter.error *= factor;
+        }
+    }
+
+    static final class Counter {
+
+        private final long key;
+        private double count;
+        private double error;
+
+        private Counter(long key, double count, double error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        long key() {
+            return key;
+        }
+
+        /**
+         * Upper bound on the product's weight since it became monitored.
+         */
+        double count() {
+            return count;
+        }
+
+        /**
+         * How much of {@link #count} may belong to the products it displaced.
+         */
+        double error() {
+            return error;
+        }
+    }
+}
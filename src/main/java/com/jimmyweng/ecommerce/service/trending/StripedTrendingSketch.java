@@ -0,0 +1,69 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link TrendingSketch} split by product id into independently locked stripes, so concurrent
+ * updates for different products rarely wait on each other. Every product always lands in the same
+ * stripe, so each stripe summarizes a disjoint share of the products and the overall ranking is the
+ * merge of the stripes' rankings. Each stripe keeps the full width and capacity: its error bound is
+ * relative to its own, smaller share of the weight, and the global top products still fit if they
+ * all hash to one stripe.
+ */
+final class StripedTrendingSketch {
+
+    private final TrendingSketch[] stripes;
+    private final int stripeBits;
+
+    /**
+     * @param stripes rounded up to a power of two
+     */
+    StripedTrendingSketch(int stripes, int width, int depth, int capacity) {
+        this.stripeBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, stripes - 1));
+        this.stripes = new TrendingSketch[1 << stripeBits];
+        for (int stripe = 0; stripe < this.stripes.length; stripe++) {
+            this.stripes[stripe] = new TrendingSketch(width, depth, capacity);
+        }
+    }
+
+    void add(long productId, double weight) {
+        stripeOf(productId).add(productId, weight);
+    }
+
+    List<TrendingProduct> top(int limit) {
+        List<TrendingProduct> ranked = new ArrayList<>();
+        for (TrendingSketch stripe : stripes) {
+            ranked.addAll(stripe.top(limit));
+        }
+        ranked.sort(Comparator.comparingDouble(TrendingProduct::score).reversed());
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    void scale(double factor) {
+        for (TrendingSketch stripe : stripes) {
+            stripe.scale(factor);
+        }
+    }
+
+    double total() {
+        double total = 0;
+        for (TrendingSketch stripe : stripes) {
+            total += stripe.total();
+        }
+        return total;
+    }
+
+    int stripes() {
+        return stripes.length;
+    }
+
+    private TrendingSketch stripeOf(long productId) {
+        if (stripeBits == 0) {
+            return stripes[0];
+        }
+        // Top bits of a multiplicative hash; sequential ids spread over all stripes.
+        return stripes[(int) ((productId * 0xC2B2AE3D27D4EB4FL) >>> (64 - stripeBits))];
+    }
+}
@@ -0,0 +1,7 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+/**
+ * A product's time-decayed popularity: weighted favorites and units ordered, each halving in
+ * weight every configured half-life.
+ */
+public record TrendingProduct(long productId, double score) {}
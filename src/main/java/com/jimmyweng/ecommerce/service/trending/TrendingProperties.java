@@ -0,0 +1,67 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "app.trending")
+public class TrendingProperties {
+
+    /**
+     * Whether checkouts and favorite adds feed the in-memory trending sketches.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Count-Min Sketch counters per row, rounded up to a power of two. Scores overestimate by at
+     * most {@code e / width} of the scope's total weight with probability {@code 1 - e^-depth}.
+     */
+    private int sketchWidth = 1024;
+
+    /**
+     * Count-Min Sketch rows (independent hashes).
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Products monitored per scope by the Space-Saving summary; also the largest useful limit.
+     */
+    private int topKCapacity = 100;
+
+    /**
+     * Independently locked stripes of the overall scope, which every checkout line and favorite
+     * add updates; rounded up to a power of two. Each stripe costs as much as one scope.
+     */
+    private int overallStripes = 8;
+
+    /**
+     * Categories tracked separately; activity in further categories only feeds the overall scope.
+     * Each scope costs about {@code 8 * width * depth} bytes.
+     */
+    private int maxCategories = 256;
+
+    /**
+     * Time for a favorite or purchase to lose half of its weight.
+     */
+    private Duration halfLife = Duration.ofHours(1);
+
+    /**
+     * How often the decay is applied.
+     */
+    private Duration decayInterval = Duration.ofMinutes(1);
+
+    /**
+     * Weight of one favorite add.
+     */
+    private double favoriteWeight = 1.0;
+
+    /**
+     * Weight of one unit ordered at checkout.
+     */
+    private double orderedUnitWeight = 3.0;
+}
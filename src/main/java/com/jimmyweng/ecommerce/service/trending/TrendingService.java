@@ -0,0 +1,100 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Trending products per category and overall, kept entirely in memory: every checkout line and
+ * favorite add is one sketch update in its category and one in the overall scope, and reads never
+ * touch the database. Each instance ranks the traffic it serves; behind a load balancer that is a
+ * uniform sample of the whole.
+ */
+@Service
+public class TrendingService {
+
+    private final TrendingProperties properties;
+    private final StripedTrendingSketch overall;
+    private final ConcurrentMap<String, TrendingSketch> byCategory = new ConcurrentHashMap<>();
+
+    public TrendingService(TrendingProperties properties) {
+        this.properties = properties;
+        // Every event lands in the overall scope, so it is striped; a category only sees its own.
+        this.overall = new StripedTrendingSketch(
+                properties.getOverallStripes(),
+                properties.getSketchWidth(),
+                properties.getSketchDepth(),
+                properties.getTopKCapacity());
+    }
+
+    public void recordOrderLine(Long productId, String category, int quantity) {
+        record(productId, category, quantity * properties.getOrderedUnitWeight());
+    }
+
+    public void recordFavorite(Long productId, String category) {
+        record(productId, category, properties.getFavoriteWeight());
+    }
+
+    /**
+     * Highest scores first; {@code category} {@code null} or blank means all categories. A
+     * category with no recent activity yields an empty list.
+     */
+    public List<TrendingProduct> top(String category, int limit) {
+        String key = normalize(category);
+        if (key == null) {
+            return overall.top(limit);
+        }
+        TrendingSketch sketch = byCategory.get(key);
+        return sketch == null ? List.of() : sketch.top(limit);
+    }
+
+    /**
+     * Multiplies every score by {@code 0.5^(interval / halfLife)}, which over time weighs each event
+     * by its age exactly as per-event decay would. Categories whose total weight has decayed to
+     * (almost) nothing are dropped to make room for new ones.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.trending.decay-interval:PT1M}",
+            initialDelayString = "${app.trending.decay-interval:PT1M}")
+    public void decay() {
+        double factor = Math.pow(
+                0.5, (double) properties.getDecayInterval().toMillis() / properties.getHalfLife().toMillis());
+        overall.scale(factor);
+        byCategory.forEach((category, sketch) -> sketch.scale(factor));
+        // Decided under the key's lock, so a record() for the category either lands before the
+        // check (and keeps it) or creates a fresh sketch after the removal.
+        byCategory.keySet().forEach(category ->
+                byCategory.computeIfPresent(category, (key, sketch) -> sketch.total() < 0.01 ? null : sketch));
+    }
+
+    private void record(Long productId, String category, double weight) {
+        if (!properties.isEnabled() || weight <= 0) {
+            return;
+        }
+        overall.add(productId, weight);
+        String key = normalize(category);
+        if (key == null) {
+            return;
+        }
+        // Added under the key's lock, so decay() cannot drop the sketch between lookup and update.
+        byCategory.compute(key, (ignored, sketch) -> {
+            if (sketch == null) {
+                if (byCategory.size() >= properties.getMaxCategories()) {
+                    return null;
+                }
+                sketch = new TrendingSketch(
+                        properties.getSketchWidth(), properties.getSketchDepth(), properties.getTopKCapacity());
+            }
+            sketch.add(productId, weight);
+            return sketch;
+        });
+    }
+
+    private static String normalize(String category) {
+        return StringUtils.hasText(category) ? category.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One scope's popularity summary: Space-Saving picks the candidates and the Count-Min Sketch
+ * tightens their scores, since both only ever overestimate and the smaller of the two is closer.
+ * Memory is fixed by the width, depth and capacity, whatever the number of products.
+ */
+final class TrendingSketch {
+
+    private final CountMinSketch sketch;
+    private final SpaceSaving topK;
+
+    TrendingSketch(int width, int depth, int capacity) {
+        this.sketch = new CountMinSketch(width, depth);
+        this.topK = new SpaceSaving(capacity);
+    }
+
+    synchronized void add(long productId, double weight) {
+        sketch.add(productId, weight);
+        topK.offer(productId, weight);
+    }
+
+    synchronized List<TrendingProduct> top(int limit) {
+        List<TrendingProduct> ranked = new ArrayList<>();
+        for (SpaceSaving.Counter counter : topK.counters()) {
+            double score = Math.min(counter.count(), sketch.estimate(counter.key()));
+            ranked.add(new TrendingProduct(counter.key(), score));
+        }
+        ranked.sort(Comparator.comparingDouble(TrendingProduct::score).reversed());
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    synchronized double estimate(long productId) {
+        return sketch.estimate(productId);
+    }
+
+    synchronized void scale(double factor) {
+        sketch.scale(factor);
+        topK.scale(factor);
+    }
+
+    synchronized double total() {
+        return sketch.total();
+    }
+}
@@ -0,0 +1,88 @@
+package com.jimmyweng.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class FavoriteIdSetCacheTests {
+
+    private static final String EMAIL = "flags@example.com";
+
+    private final Clock clock = mock(Clock.class);
+    private final FavoriteIdSetCacheProperties properties = new FavoriteIdSetCacheProperties();
+    private FavoriteIdSetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties.setStaleness(Duration.ofSeconds(30));
+        cache = new FavoriteIdSetCache(properties, clock);
+        when(clock.millis()).thenReturn(1_000L);
+    }
+
+    @Test
+    void update_whenSetCached_patchesItInPlace() {
+        cache.store(EMAIL, FavoriteIdSet.of(List.of(7L, 3L, 5L), 1_000L));
+
+        cache.update(EMAIL, 4L, true);
+        cache.update(EMAIL, 5L, false);
+
+        FavoriteIdSet set = cache.getIfFresh(EMAIL).orElseThrow();
+        assertTrue(set.contains(3L));
+        assertTrue(set.contains(4L));
+        assertFalse(set.contains(5L));
+        assertTrue(set.contains(7L));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void store_whenLoadMissedRecentWrite_appliesItUntilStalenessPasses() {
+        cache.update(EMAIL, 4L, true);
+        cache.update(EMAIL, 5L, false);
+
+        // Loaded from a replica that has neither write yet.
+        FavoriteIdSet stored = cache.store(EMAIL, FavoriteIdSet.of(List.of(5L, 7L), 1_000L));
+
+        assertTrue(stored.contains(4L));
+        assertFalse(stored.contains(5L));
+        assertTrue(cache.getIfFresh(EMAIL).orElseThrow().contains(4L));
+
+        when(clock.millis()).thenReturn(31_000L);
+        cache.pruneRecentWrites();
+        FavoriteIdSet reloaded = cache.store(EMAIL, FavoriteIdSet.of(List.of(5L, 7L), 31_000L));
+
+        assertFalse(reloaded.contains(4L));
+        assertTrue(reloaded.contains(5L));
+    }
+
+    @Test
+    void getIfFresh_whenOlderThanStaleness_returnsEmpty() {
+        cache.store(EMAIL, FavoriteIdSet.of(List.of(1L), 1_000L));
+
+        when(clock.millis()).thenReturn(31_000L);
+
+        assertTrue(cache.getIfFresh(EMAIL).isEmpty());
+    }
+
+    @Test
+    void store_whenBudgetUsedUp_admitsOnlyAfterExpiredSetsAreSwept() {
+        FavoriteIdSet first = FavoriteIdSet.of(List.of(1L, 2L), 1_000L);
+        properties.setMaxSize(DataSize.ofBytes(first.sizeInBytes()));
+        cache.store(EMAIL, first);
+
+        FavoriteIdSet rejected = cache.store("other@example.com", FavoriteIdSet.of(List.of(3L, 4L), 1_000L));
+        assertTrue(rejected.contains(3L));
+        assertTrue(cache.getIfFresh("other@example.com").isEmpty());
+
+        when(clock.millis()).thenReturn(31_000L);
+        cache.store("other@example.com", FavoriteIdSet.of(List.of(3L, 4L), 31_000L));
+
+        assertTrue(cache.getIfFresh("other@example.com").isPresent());
+        assertEquals(first.sizeInBytes(), cache.usedBytes());
+    }
+}
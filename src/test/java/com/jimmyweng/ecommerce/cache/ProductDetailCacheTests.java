@@ -0,0 +1,143 @@
+package com.jimmyweng.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.exception.ResourceNotFoundException;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.service.product.ProductQueryService;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ProductDetailCacheTests {
+
+    private static final Long PRODUCT_ID = 42L;
+
+    @Mock
+    private ProductQueryService productQueryService;
+
+    @Mock
+    private Clock clock;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private ProductDetailCache productDetailCache;
+
+    @BeforeEach
+    void setUp() {
+        ProductDetailCacheProperties properties = new ProductDetailCacheProperties();
+        properties.setStaleness(Duration.ofSeconds(5));
+        properties.setTombstoneRetention(Duration.ofMinutes(1));
+        productDetailCache = new ProductDetailCache(productQueryService, objectMapper, properties, clock);
+        when(clock.millis()).thenReturn(1_000L);
+    }
+
+    @Test
+    void get_whenCachedWithinStaleness_doesNotReload() throws Exception {
+        when(productQueryService.getProduct(PRODUCT_ID)).thenReturn(product("Desk", 0L));
+
+        CachedProductDetail first = productDetailCache.get(PRODUCT_ID);
+        when(clock.millis()).thenReturn(5_999L);
+        CachedProductDetail second = productDetailCache.get(PRODUCT_ID);
+
+        assertSame(first, second);
+        verify(productQueryService, times(1)).getProduct(PRODUCT_ID);
+        assertEquals("Desk", objectMapper.readTree(objectMapper.writeValueAsString(second)).get("title").asText());
+    }
+
+    @Test
+    void get_whenStalenessElapsed_reloads() {
+        when(productQueryService.getProduct(PRODUCT_ID)).thenReturn(product("Desk", 0L));
+
+        productDetailCache.get(PRODUCT_ID);
+        when(clock.millis()).thenReturn(6_000L);
+        productDetailCache.get(PRODUCT_ID);
+
+        verify(productQueryService, times(2)).getProduct(PRODUCT_ID);
+    }
+
+    @Test
+    void store_whenOlderThanTombstone_returnsDetailWithoutCaching() {
+        productDetailCache.evict(PRODUCT_ID, 3L);
+
+        CachedProductDetail lagging = productDetailCache.store(product("Desk", 2L));
+
+        assertEquals(2L, lagging.version());
+        assertTrue(productDetailCache.getIfFresh(PRODUCT_ID).isEmpty());
+
+        productDetailCache.store(product("Desk v3", 3L));
+        assertEquals(3L, productDetailCache.getIfFresh(PRODUCT_ID).orElseThrow().version());
+    }
+
+    @Test
+    void evict_whenCachedVersionOlder_removesEntry() {
+        productDetailCache.store(product("Desk", 0L));
+
+        productDetailCache.evict(PRODUCT_ID, 1L);
+
+        assertTrue(productDetailCache.getIfFresh(PRODUCT_ID).isEmpty());
+    }
+
+    @Test
+    void get_whenProductDeleted_dropsEntryAndPropagatesNotFound() {
+        productDetailCache.store(product("Desk", 0L));
+        when(clock.millis()).thenReturn(60_000L);
+        when(productQueryService.getProduct(PRODUCT_ID))
+                .thenThrow(new ResourceNotFoundException(ErrorMessages.productNotFound(PRODUCT_ID)));
+
+        assertThrows(ResourceNotFoundException.class, () -> productDetailCache.get(PRODUCT_ID));
+        assertTrue(productDetailCache.getIfFresh(PRODUCT_ID).isEmpty());
+    }
+
+    @Test
+    void store_whenFull_evictsLeastRecentlyLoadedAndAdmitsNewProducts() {
+        ProductDetailCacheProperties properties = new ProductDetailCacheProperties();
+        properties.setStaleness(Duration.ofSeconds(5));
+        properties.setMaxEntries(3);
+        productDetailCache = new ProductDetailCache(productQueryService, objectMapper, properties, clock);
+
+        for (long id = 1; id <= 5; id++) {
+            when(clock.millis()).thenReturn(1_000L + id);
+            productDetailCache.store(product(id, "Desk " + id, 0L));
+        }
+
+        assertTrue(productDetailCache.getIfFresh(1L).isEmpty());
+        assertTrue(productDetailCache.getIfFresh(2L).isEmpty());
+        for (long id = 3; id <= 5; id++) {
+            assertTrue(productDetailCache.getIfFresh(id).isPresent());
+        }
+
+        when(clock.millis()).thenReturn(7_000L);
+        productDetailCache.store(product(6L, "Desk 6", 0L));
+        assertTrue(productDetailCache.getIfFresh(6L).isPresent());
+    }
+
+    private static Product product(String title, Long version) {
+        return product(PRODUCT_ID, title, version);
+    }
+
+    private static Product product(Long id, String title, Long version) {
+        Product product = new Product(title, "Oak", "furniture", new BigDecimal("120.00"), 4);
+        ReflectionTestUtils.setField(product, "id", id);
+        ReflectionTestUtils.setField(product, "version", version);
+        ReflectionTestUtils.setField(product, "createdAt", Instant.parse("2025-01-01T00:00:00Z"));
+        ReflectionTestUtils.setField(product, "updatedAt", Instant.parse("2025-01-01T00:00:00Z"));
+        return product;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jimmyweng.ecommerce.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Metrics export is off in Spring Boot tests by default; {@code @AutoConfigureObservability}
+ * brings back the Prometheus registry the application runs with. Real servers on random ports, so
+ * the API port and the management port can be told apart.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheus_whenScrapedOnManagementPort_exposeLatencyRoutingPoolAndLoggingMetrics() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/v1/products", String.class).getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket{application=\"ecommerce-service\",error=\"none\","
+                        + "exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\","
+                        + "uri=\"/api/v1/products\",le=\"0.1\"}")
+                .contains("datasource_routing_total{application=\"ecommerce-service\",target=\"PRIMARY\"}")
+                .contains("hikaricp_connections_active{")
+                .contains("pool=\"PrimaryPool\"")
+                .contains("checkout_orders_total{application=\"ecommerce-service\",outcome=\"out_of_stock\"}")
+                .contains("logback_events_dropped_total{appender=\"ASYNC_FILE\",application=\"ecommerce-service\"}");
+    }
+
+    @Test
+    void prometheus_whenScrapedAnonymouslyOnApiPort_rejected() {
+        assertEquals(
+                HttpStatus.UNAUTHORIZED,
+                restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+    }
+}
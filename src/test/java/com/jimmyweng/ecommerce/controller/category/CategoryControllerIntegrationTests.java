@@ -0,0 +1,103 @@
+package com.jimmyweng.ecommerce.controller.category;
+
+import static com.jimmyweng.ecommerce.testsupport.TestAuthUtils.obtainToken;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.controller.product.dto.CreateProductRequest;
+import com.jimmyweng.ecommerce.controller.product.dto.UpdateProductRequest;
+import com.jimmyweng.ecommerce.model.User;
+import com.jimmyweng.ecommerce.repository.UserRepository;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The facet counts live in a singleton shared by every test in the context, so these tests use
+ * categories nobody else touches.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class CategoryControllerIntegrationTests {
+
+    private static final String ADMIN_EMAIL = "facets-admin@example.com";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void listCategories_whenAdminWritesProducts_countsFollowWithoutQuery() throws Exception {
+        userRepository.saveAndFlush(new User(ADMIN_EMAIL, passwordEncoder.encode(ADMIN_PASSWORD), Role.ADMIN));
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+        long first = create(token, "Facet-Lamps");
+        create(token, "facet-lamps");
+        long moved = create(token, "facet-rugs");
+
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.name == 'facet-lamps')].productCount").value(2))
+                .andExpect(jsonPath("$.data.items[?(@.name == 'facet-rugs')].productCount").value(1));
+
+        mockMvc.perform(put("/api/v1/admin/products/{id}", moved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(objectMapper.writeValueAsString(new UpdateProductRequest(
+                                "Rug", "Now a lamp", "facet-lamps", new BigDecimal("30.00"), 3, 0L))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/admin/products/{id}", first).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.name == 'facet-lamps')].productCount").value(2))
+                .andExpect(jsonPath("$.data.items[?(@.name == 'facet-rugs')]").value(empty()));
+        mockMvc.perform(get("/api/v1/products").param("category", "facet-lamps"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.pagination.totalElements").value(2));
+        mockMvc.perform(get("/api/v1/products").param("category", "facet-lamps").param("search", "lamp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pagination.totalElements").doesNotExist());
+    }
+
+    private long create(String token, String category) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/admin/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(objectMapper.writeValueAsString(new CreateProductRequest(
+                                "Item", "Facet fixture", category, new BigDecimal("20.00"), 3))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        JsonNode data = objectMapper.readTree(body).path("data");
+        return data.path("id").asLong();
+    }
+}
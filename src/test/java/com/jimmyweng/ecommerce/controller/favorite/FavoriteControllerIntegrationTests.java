@@ -20,6 +20,7 @@ import com.jimmyweng.ecommerce.model.product.Product;
 import com.jimmyweng.ecommerce.repository.UserRepository;
 import com.jimmyweng.ecommerce.repository.favorite.FavoriteRepository;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteCounter;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
@@ -29,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -58,9 +60,15 @@ class FavoriteControllerIntegrationTests {
     @Autowired
     private FavoriteRepository favoriteRepository;
 
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Long userId;
 
     @BeforeEach
@@ -126,8 +134,58 @@ class FavoriteControllerIntegrationTests {
                         .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.ret_code").value(0))
-                .andExpect(jsonPath("$.data[0].id").value(latest.getId()))
-                .andExpect(jsonPath("$.data[1].id").value(earlier.getId()));
+                .andExpect(jsonPath("$.data.items[0].id").value(latest.getId()))
+                .andExpect(jsonPath("$.data.items[1].id").value(earlier.getId()))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(false));
+    }
+
+    @Test
+    void listFavorites_whenCursorFollowed_pageThroughActiveFavoritesOnly() throws Exception {
+        Instant now = Instant.now();
+        Product first = productRepository.save(new Product("First", "Newest", "books", new BigDecimal("5.00"), 1));
+        Product deleted = productRepository.save(new Product("Gone", "Deleted", "books", new BigDecimal("6.00"), 1));
+        Product tieLowerId = productRepository.save(new Product("Tie A", "Same time", "books", new BigDecimal("7.00"), 1));
+        Product tieHigherId = productRepository.save(new Product("Tie B", "Same time", "books", new BigDecimal("8.00"), 1));
+        deleted.markDeleted(now);
+        favoriteRepository.save(new Favorite(userId, first.getId(), now));
+        favoriteRepository.save(new Favorite(userId, deleted.getId(), now.minusSeconds(5)));
+        // Same timestamp: product id breaks the tie, higher id first.
+        favoriteRepository.save(new Favorite(userId, tieHigherId.getId(), now.minusSeconds(10)));
+        favoriteRepository.save(new Favorite(userId, tieLowerId.getId(), now.minusSeconds(10)));
+
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        String firstPage = mockMvc.perform(get("/api/v1/favorites")
+                        .param("size", "2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.data.items[1].id").value(tieHigherId.getId()))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).at("/data/pagination/nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/favorites")
+                        .param("size", "2")
+                        .param("cursor", cursor)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].id").value(tieLowerId.getId()))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(false))
+                .andExpect(jsonPath("$.data.pagination.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void listFavorites_whenCursorMalformed_returnBadRequest() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(get("/api/v1/favorites")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.INVALID_CURSOR));
     }
 
     @Test
@@ -159,4 +217,168 @@ class FavoriteControllerIntegrationTests {
         assertTrue(favoriteRepository.findAllByIdUserIdOrderByCreatedAtDesc(userId).isEmpty());
     }
 
+    @Test
+    void removeFavorite_whenNotFavorited_returnNotFound() throws Exception {
+        Product product = productRepository.save(
+                new Product("Puzzle", "Never favorited", "games", new BigDecimal("12.00"), 4));
+
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(delete("/api/v1/favorites/{productId}", product.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.favoriteNotFound(product.getId())));
+    }
+
+    @Test
+    void addFavorite_whenProductDeleted_returnNotFound() throws Exception {
+        Product product = productRepository.save(
+                new Product("Retired", "No longer sold", "games", new BigDecimal("3.00"), 0));
+        product.markDeleted(Instant.now());
+        productRepository.flush();
+
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(product.getId()))))
+                .andExpect(status().isNotFound());
+
+        assertTrue(favoriteRepository.findAllByIdUserIdOrderByCreatedAtDesc(userId).isEmpty());
+    }
+
+    @Test
+    void addFavorite_whenProductDeletedAfterCaching_returnNotFound() throws Exception {
+        Product product = productRepository.save(
+                new Product("Recalled", "Pulled by another instance", "games", new BigDecimal("8.00"), 2));
+        mockMvc.perform(get("/api/v1/products/{productId}", product.getId())).andExpect(status().isOk());
+        // Deleted behind this instance's back, so its detail cache still holds the product.
+        jdbcTemplate.update("update products set deleted_at = current_timestamp where id = ?", product.getId());
+
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(product.getId()))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.productNotFound(product.getId())));
+
+        assertTrue(favoriteRepository.findAllByIdUserIdOrderByCreatedAtDesc(userId).isEmpty());
+    }
+
+    @Test
+    void listProducts_whenFavoriteCountsFlushed_reportCountPerProduct() throws Exception {
+        Product popular = productRepository.save(
+                new Product("Popular", "Everyone wants it", "counted", new BigDecimal("10.00"), 5));
+        Product dropped = productRepository.save(
+                new Product("Dropped", "Favorited then removed", "counted", new BigDecimal("11.00"), 5));
+        userRepository.save(new User("second@example.com", passwordEncoder.encode(USER_PASSWORD), Role.USER));
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+        String secondToken = obtainToken(mockMvc, objectMapper, "second@example.com", USER_PASSWORD);
+
+        for (String bearer : List.of(token, secondToken)) {
+            mockMvc.perform(post("/api/v1/favorites")
+                            .header("Authorization", "Bearer " + bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AddFavoriteRequest(popular.getId()))))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(dropped.getId()))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/v1/favorites/{productId}", dropped.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        favoriteCounter.flush();
+
+        mockMvc.perform(get("/api/v1/products").param("category", "counted"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favoriteCount", popular.getId()).value(2))
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favoriteCount", dropped.getId()).value(0));
+    }
+
+    @Test
+    void listProducts_whenFavoritesWrittenAroundCounter_reconcileRecountsThem() throws Exception {
+        Product seeded = productRepository.save(
+                new Product("Seeded", "Favorited by a seeder", "recounted", new BigDecimal("10.00"), 5));
+        Product drifted = productRepository.save(
+                new Product("Drifted", "Count outlived its favorites", "recounted", new BigDecimal("11.00"), 5));
+        Long userId = userRepository.findByEmailIgnoreCase(USER_EMAIL).orElseThrow().getId();
+        Long secondId = userRepository.save(
+                new User("second@example.com", passwordEncoder.encode(USER_PASSWORD), Role.USER)).getId();
+        favoriteRepository.saveAllAndFlush(List.of(
+                new Favorite(userId, seeded.getId(), Instant.now()),
+                new Favorite(secondId, seeded.getId(), Instant.now())));
+        favoriteCounter.increment(drifted.getId());
+        favoriteCounter.flush();
+
+        favoriteCounter.reconcile();
+
+        mockMvc.perform(get("/api/v1/products").param("category", "recounted"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favoriteCount", seeded.getId()).value(2))
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favoriteCount", drifted.getId()).value(0));
+    }
+
+    @Test
+    void listAndGetProduct_whenAuthenticated_flagFavoritedProducts() throws Exception {
+        Product liked = productRepository.save(
+                new Product("Liked", "On the wishlist", "flagged", new BigDecimal("10.00"), 5));
+        Product other = productRepository.save(
+                new Product("Other", "Not on the wishlist", "flagged", new BigDecimal("11.00"), 5));
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(liked.getId()))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/products").param("category", "flagged").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favorited", liked.getId()).value(true))
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favorited", other.getId()).value(false));
+        mockMvc.perform(get("/api/v1/products/{productId}", liked.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.favorited").value(true));
+        mockMvc.perform(get("/api/v1/products").param("category", "flagged"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].favorited").doesNotExist());
+
+        mockMvc.perform(delete("/api/v1/favorites/{productId}", liked.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/products").param("category", "flagged").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[?(@.id == %d)].favorited", liked.getId()).value(false));
+    }
+
+    @Test
+    void getTrending_whenProductFavorited_rankItInItsCategory() throws Exception {
+        Product favorited = productRepository.save(
+                new Product("Hyped", "Everyone is adding it", "trendy", new BigDecimal("10.00"), 5));
+        productRepository.save(new Product("Quiet", "Nobody noticed", "trendy", new BigDecimal("11.00"), 5));
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(favorited.getId()))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/products/trending").param("category", "trendy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.category").value("trendy"))
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].product.id").value(favorited.getId()))
+                .andExpect(jsonPath("$.data.items[0].score").value(1.0));
+        mockMvc.perform(get("/api/v1/products/trending").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+    }
 }
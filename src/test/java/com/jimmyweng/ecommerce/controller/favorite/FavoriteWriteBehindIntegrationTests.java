@@ -0,0 +1,139 @@
+package com.jimmyweng.ecommerce.controller.favorite;
+
+import static com.jimmyweng.ecommerce.testsupport.TestAuthUtils.obtainToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.controller.favorite.dto.AddFavoriteRequest;
+import com.jimmyweng.ecommerce.model.User;
+import com.jimmyweng.ecommerce.model.favorite.Favorite;
+import com.jimmyweng.ecommerce.model.favorite.FavoriteId;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.UserRepository;
+import com.jimmyweng.ecommerce.repository.favorite.FavoriteRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.favorite.FavoriteWriteBehind;
+import com.jimmyweng.ecommerce.service.trending.TrendingProduct;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The scheduled flush is pushed out of the way; tests flush explicitly on their own thread, so the
+ * batch joins the test transaction and is rolled back with it.
+ */
+@SpringBootTest(properties = {
+    "app.favorites.write-behind.enabled=true",
+    "app.favorites.write-behind.directory=target/favorites-write-behind",
+    "app.favorites.write-behind.flush-interval=PT1H",
+    "app.trending.decay-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class FavoriteWriteBehindIntegrationTests {
+
+    private static final String USER_EMAIL = "write-behind@example.com";
+    private static final String USER_PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FavoriteWriteBehind writeBehind;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void toggles_whenNotYetFlushed_visibleToOwnReadsThenWrittenByFlush() throws Exception {
+        Long userId = userRepository.save(
+                new User(USER_EMAIL, passwordEncoder.encode(USER_PASSWORD), Role.USER)).getId();
+        Product stored = productRepository.save(new Product("Stored", "Old favorite", "games", new BigDecimal("5.00"), 1));
+        Product added = productRepository.save(new Product("Added", "New favorite", "games", new BigDecimal("6.00"), 1));
+        favoriteRepository.saveAndFlush(new Favorite(userId, stored.getId(), Instant.now().minusSeconds(60)));
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddFavoriteRequest(added.getId()))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.id").value(added.getId()));
+        mockMvc.perform(delete("/api/v1/favorites/{productId}", stored.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/favorites").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].id").value(added.getId()));
+        assertTrue(favoriteRepository.existsById(new FavoriteId(userId, stored.getId())));
+
+        writeBehind.flush();
+
+        assertEquals(
+                List.of(added.getId()),
+                favoriteRepository.findAllByIdUserIdOrderByCreatedAtDesc(userId).stream()
+                        .map(Favorite::getProductId)
+                        .toList());
+        assertTrue(writeBehind.pendingFor(USER_EMAIL).isEmpty());
+    }
+
+    @Test
+    void flush_whenAddsRepeatedOrAlreadyStored_recordTrendingOnlyForCreatedRows() throws Exception {
+        Long userId = userRepository.save(
+                new User(USER_EMAIL, passwordEncoder.encode(USER_PASSWORD), Role.USER)).getId();
+        Product stored = productRepository.save(new Product("Stored", "Old favorite", "wb-trend", new BigDecimal("5.00"), 1));
+        Product tapped = productRepository.save(new Product("Tapped", "Hearted repeatedly", "wb-trend", new BigDecimal("6.00"), 1));
+        favoriteRepository.saveAndFlush(new Favorite(userId, stored.getId(), Instant.now().minusSeconds(60)));
+        String token = obtainToken(mockMvc, objectMapper, USER_EMAIL, USER_PASSWORD);
+
+        for (Product product : List.of(stored, tapped, tapped, tapped)) {
+            mockMvc.perform(post("/api/v1/favorites")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AddFavoriteRequest(product.getId()))))
+                    .andExpect(status().isAccepted());
+        }
+        assertTrue(trendingService.top("wb-trend", 10).isEmpty());
+
+        writeBehind.flush();
+
+        assertEquals(
+                List.of(new TrendingProduct(tapped.getId(), 1.0)),
+                trendingService.top("wb-trend", 10));
+    }
+}
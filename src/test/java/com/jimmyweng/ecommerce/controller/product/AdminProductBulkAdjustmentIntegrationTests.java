@@ -0,0 +1,208 @@
+package com.jimmyweng.ecommerce.controller.product;
+
+import static com.jimmyweng.ecommerce.testsupport.TestAuthUtils.obtainToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.controller.product.dto.BulkAdjustmentRequest;
+import com.jimmyweng.ecommerce.controller.product.dto.BulkAdjustmentRequest.Item;
+import com.jimmyweng.ecommerce.model.User;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.UserRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductBulkJobRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Not {@code @Transactional}: chunks and checkpoints commit independently, which a test-managed
+ * transaction would swallow. Fixtures are removed after each test instead.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminProductBulkAdjustmentIntegrationTests {
+
+    private static final String ADMIN_EMAIL = "bulk-admin@example.com";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBulkJobRepository productBulkJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+    private String token;
+    private Product lamp;
+    private Product chair;
+    private Product rug;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        admin = userRepository.saveAndFlush(
+                new User(ADMIN_EMAIL, passwordEncoder.encode(ADMIN_PASSWORD), Role.ADMIN));
+        lamp = productRepository.saveAndFlush(new Product("Lamp", "Warm", "home", new BigDecimal("25.00"), 7));
+        chair = productRepository.saveAndFlush(new Product("Chair", "Mesh", "home", new BigDecimal("199.00"), 3));
+        rug = productRepository.saveAndFlush(new Product("Rug", "Wool", "home", new BigDecimal("45.00"), 2));
+        token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productBulkJobRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void adjustProducts_whenItemsMixed_applyMatchingRowsAndCountRejections() throws Exception {
+        // Warm the detail cache so the adjustment has something to invalidate.
+        mockMvc.perform(get("/api/v1/products/{productId}", lamp.getId()))
+                .andExpect(jsonPath("$.data.price").value(25.00));
+
+        BulkAdjustmentRequest request = new BulkAdjustmentRequest(List.of(
+                new Item(lamp.getId(), new BigDecimal("19.99"), null, null),
+                new Item(chair.getId(), null, 10, 0L),
+                new Item(rug.getId(), new BigDecimal("50.00"), 1, 5L),
+                new Item(999_999L, new BigDecimal("1.00"), null, null)), null);
+
+        adjust(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.totalRows").value(4))
+                .andExpect(jsonPath("$.data.processedRows").value(4))
+                .andExpect(jsonPath("$.data.updatedRows").value(2))
+                .andExpect(jsonPath("$.data.conflictRows").value(1))
+                .andExpect(jsonPath("$.data.missingRows").value(1))
+                .andExpect(jsonPath("$.data.rejections[0].productId").value(rug.getId()))
+                .andExpect(jsonPath("$.data.rejections[0].reason").value("VERSION_CONFLICT"))
+                .andExpect(jsonPath("$.data.rejections[1].reason").value("NOT_FOUND"));
+
+        Product adjustedLamp = productRepository.findById(lamp.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("19.99").compareTo(adjustedLamp.getPrice()));
+        assertEquals(7, adjustedLamp.getStock());
+        assertEquals(1L, adjustedLamp.getVersion());
+        Product adjustedChair = productRepository.findById(chair.getId()).orElseThrow();
+        assertEquals(10, adjustedChair.getStock());
+        assertEquals(0, new BigDecimal("199.00").compareTo(adjustedChair.getPrice()));
+        assertEquals(0L, productRepository.findById(rug.getId()).orElseThrow().getVersion());
+        mockMvc.perform(get("/api/v1/products/{productId}", lamp.getId()))
+                .andExpect(jsonPath("$.data.price").value(19.99));
+    }
+
+    @Test
+    void adjustProducts_whenProductListedTwice_applyBothRowsInOrder() throws Exception {
+        BulkAdjustmentRequest request = new BulkAdjustmentRequest(List.of(
+                new Item(lamp.getId(), new BigDecimal("19.99"), null, 0L),
+                new Item(lamp.getId(), null, 4, 1L),
+                new Item(lamp.getId(), null, 9, 0L)), null);
+
+        adjust(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.processedRows").value(3))
+                .andExpect(jsonPath("$.data.updatedRows").value(2))
+                .andExpect(jsonPath("$.data.conflictRows").value(1))
+                .andExpect(jsonPath("$.data.missingRows").value(0))
+                .andExpect(jsonPath("$.data.rejections[0].productId").value(lamp.getId()))
+                .andExpect(jsonPath("$.data.rejections[0].reason").value("VERSION_CONFLICT"));
+
+        Product adjustedLamp = productRepository.findById(lamp.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("19.99").compareTo(adjustedLamp.getPrice()));
+        assertEquals(4, adjustedLamp.getStock());
+        assertEquals(2L, adjustedLamp.getVersion());
+    }
+
+    @Test
+    void adjustProducts_whenResumed_continueFromCheckpointOnly() throws Exception {
+        BulkAdjustmentRequest request = new BulkAdjustmentRequest(List.of(
+                new Item(lamp.getId(), null, 1, null),
+                new Item(chair.getId(), null, 2, null),
+                new Item(rug.getId(), null, 3, null)), null);
+        long jobId = jobId(adjust(request).andExpect(status().isOk()));
+        // Simulate a run that died after committing the first chunk.
+        jdbcTemplate.update(
+                "update product_bulk_jobs set checkpoint_rows = 2, updated_rows = 2, status = 'FAILED' where id = ?",
+                jobId);
+
+        adjust(new BulkAdjustmentRequest(request.items(), jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.jobId").value(jobId))
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.processedRows").value(3))
+                .andExpect(jsonPath("$.data.updatedRows").value(3));
+
+        assertEquals(1L, productRepository.findById(lamp.getId()).orElseThrow().getVersion());
+        assertEquals(1L, productRepository.findById(chair.getId()).orElseThrow().getVersion());
+        assertEquals(2L, productRepository.findById(rug.getId()).orElseThrow().getVersion());
+        mockMvc.perform(get("/api/v1/admin/products/bulk-adjustments/{jobId}", jobId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.processedRows").value(3));
+    }
+
+    @Test
+    void adjustProducts_whenResumedWithDifferentItems_returnConflict() throws Exception {
+        long jobId = jobId(adjust(new BulkAdjustmentRequest(
+                        List.of(new Item(lamp.getId(), null, 1, null)), null))
+                .andExpect(status().isOk()));
+
+        adjust(new BulkAdjustmentRequest(List.of(new Item(lamp.getId(), null, 2, null)), jobId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.BULK_JOB_PAYLOAD_MISMATCH));
+    }
+
+    @Test
+    void adjustProducts_whenItemChangesNothing_returnBadRequest() throws Exception {
+        adjust(new BulkAdjustmentRequest(List.of(new Item(lamp.getId(), null, null, null)), null))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("items[0].adjusting price or stock is required"));
+    }
+
+    private ResultActions adjust(BulkAdjustmentRequest request) throws Exception {
+        return mockMvc.perform(post("/api/v1/admin/products/bulk-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .header("Authorization", "Bearer " + token));
+    }
+
+    private long jobId(ResultActions result) throws Exception {
+        JsonNode body = objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+        return body.get("data").get("jobId").asLong();
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -152,6 +153,42 @@ class AdminProductControllerIntegrationTests {
         assertEquals(25, updated.getStock());
     }
 
+    @Test
+    void updateProduct_whenDetailCached_nextReadReturnsNewVersion() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+        Product saved = productRepository.saveAndFlush(
+                new Product(
+                        "Cached Title",
+                        "Cached description",
+                        "board-games",
+                        new BigDecimal("49.99"),
+                        10));
+
+        mockMvc.perform(get("/api/v1/products/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Cached Title"));
+
+        UpdateProductRequest request =
+                new UpdateProductRequest(
+                        "Fresh Title",
+                        "Cached description",
+                        "board-games",
+                        new BigDecimal("49.99"),
+                        10,
+                        saved.getVersion());
+
+        mockMvc.perform(put("/api/v1/admin/products/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Fresh Title"))
+                .andExpect(jsonPath("$.data.version").value(1));
+    }
+
     @Test
     void updateProduct_whenTargetMissing_returnNotFound() throws Exception {
         String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
@@ -232,6 +269,29 @@ class AdminProductControllerIntegrationTests {
                 deleted.getCreatedAt()) || deleted.getDeletedAt().equals(deleted.getCreatedAt()));
     }
 
+    @Test
+    void deleteProduct_whenDetailCached_nextReadReturnsNotFound() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+        Product saved = productRepository.saveAndFlush(
+                new Product(
+                        "Cached Then Deleted",
+                        "Should disappear",
+                        "misc",
+                        new BigDecimal("19.99"),
+                        5));
+
+        mockMvc.perform(get("/api/v1/products/{id}", saved.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/admin/products/{id}", saved.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/products/{id}", saved.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.productNotFound(saved.getId())));
+    }
+
     @Test
     void deleteProduct_whenUserNotAdmin_returnForbidden() throws Exception {
         Product saved = productRepository.saveAndFlush(
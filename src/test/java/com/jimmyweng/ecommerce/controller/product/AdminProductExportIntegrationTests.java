@@ -0,0 +1,144 @@
+package com.jimmyweng.ecommerce.controller.product;
+
+import static com.jimmyweng.ecommerce.testsupport.TestAuthUtils.obtainToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.model.User;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.UserRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Not {@code @Transactional}: the export reads through its own connection pool, so fixtures must be
+ * committed to be visible and are removed after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminProductExportIntegrationTests {
+
+    private static final String ADMIN_EMAIL = "export-admin@example.com";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.saveAndFlush(
+                new User(ADMIN_EMAIL, passwordEncoder.encode(ADMIN_PASSWORD), Role.ADMIN));
+        Product deleted = new Product("Retired Item", "Gone", "misc", new BigDecimal("1.00"), 0);
+        deleted.markDeleted(Instant.now());
+        products = productRepository.saveAllAndFlush(List.of(
+                new Product("Desk Lamp", "Warm light", "home", new BigDecimal("25.50"), 7),
+                new Product("Chair, \"Ergo\"", "Mesh back\nadjustable", "home", new BigDecimal("199.00"), 3),
+                deleted));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch(products);
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void exportProducts_whenNdjson_streamActiveProductsInIdOrder() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+        MvcResult started = mockMvc.perform(get("/api/v1/admin/products/export")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(products.get(0).getId().longValue(), first.get("id").asLong());
+        assertEquals("Desk Lamp", first.get("title").asText());
+        assertTrue(lines[0].contains("\"price\":25.50"));
+        assertEquals("Mesh back\nadjustable", objectMapper.readTree(lines[1]).get("description").asText());
+    }
+
+    @Test
+    void exportProducts_whenCsvWithGzip_streamCompressedCsv() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+        MvcResult started = mockMvc.perform(get("/api/v1/admin/products/export")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        String csv;
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\n");
+        assertEquals("id,title,description,category,price,stock,createdAt,updatedAt,version", lines[0]);
+        assertTrue(lines[1].startsWith(products.get(0).getId() + ",Desk Lamp,Warm light,home,25.50,7,"));
+        assertEquals(products.get(1).getId() + ",\"Chair, \"\"Ergo\"\"\",\"Mesh back", lines[2]);
+    }
+
+    @Test
+    void exportProducts_whenFormatUnsupported_returnBadRequest() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+        mockMvc.perform(get("/api/v1/admin/products/export")
+                        .param("format", "xml")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ret_code").value(-1));
+    }
+}
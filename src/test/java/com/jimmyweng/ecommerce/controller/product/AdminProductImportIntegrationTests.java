@@ -0,0 +1,175 @@
+package com.jimmyweng.ecommerce.controller.product;
+
+import static com.jimmyweng.ecommerce.testsupport.TestAuthUtils.obtainToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jimmyweng.ecommerce.constant.ErrorMessages;
+import com.jimmyweng.ecommerce.constant.Role;
+import com.jimmyweng.ecommerce.model.User;
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.UserRepository;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Not {@code @Transactional}: every import batch commits on its own, which a test-managed
+ * transaction would swallow. Fixtures are removed after each test instead.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminProductImportIntegrationTests {
+
+    private static final String ADMIN_EMAIL = "import-admin@example.com";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.saveAndFlush(
+                new User(ADMIN_EMAIL, passwordEncoder.encode(ADMIN_PASSWORD), Role.ADMIN));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void importProducts_whenNdjsonMixesCreatesUpdatesAndBadRows_reportPerRowOutcome() throws Exception {
+        Product existing = productRepository.saveAndFlush(
+                new Product("Desk Lamp", "Warm light", "home", new BigDecimal("25.50"), 7));
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+        // Warm the detail cache so the import has something to invalidate.
+        mockMvc.perform(get("/api/v1/products/{productId}", existing.getId()))
+                .andExpect(jsonPath("$.data.title").value("Desk Lamp"));
+
+        String body = String.join("\n",
+                "{\"title\":\"Chair\",\"category\":\"Home\",\"price\":199.00,\"stock\":3}",
+                "{\"id\":" + existing.getId() + ",\"title\":\"Desk Lamp v2\",\"category\":\"home\","
+                        + "\"price\":27.00,\"stock\":5,\"version\":0,\"createdAt\":\"2024-01-01T00:00:00Z\"}",
+                "",
+                "{\"title\":\"\",\"category\":\"home\",\"price\":-1,\"stock\":1}",
+                "{\"id\":999999,\"title\":\"Ghost\",\"category\":\"home\",\"price\":1.00,\"stock\":1}",
+                "{not json",
+                "{\"title\":\"Rug\",\"category\":\"home\",\"price\":45.00,\"stock\":2}");
+
+        mockMvc.perform(post("/api/v1/admin/products/import")
+                        .contentType("application/x-ndjson")
+                        .content(body)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(2))
+                .andExpect(jsonPath("$.data.updated").value(1))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andExpect(jsonPath("$.data.errors[0].line").value(4))
+                .andExpect(jsonPath("$.data.errors[0].message")
+                        .value("price must be greater than 0.0, title must not be blank"))
+                .andExpect(jsonPath("$.data.errors[1].line").value(6))
+                .andExpect(jsonPath("$.data.errors[2].line").value(5))
+                .andExpect(jsonPath("$.data.errors[2].message").value(ErrorMessages.productNotFound(999999)))
+                .andExpect(jsonPath("$.data.errorsTruncated").value(false));
+
+        List<Product> products = productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+        assertEquals(List.of("Desk Lamp v2", "Chair", "Rug"), products.stream().map(Product::getTitle).toList());
+        assertEquals(1L, products.get(0).getVersion());
+        assertEquals("home", products.get(1).getCategory());
+        mockMvc.perform(get("/api/v1/products/{productId}", existing.getId()))
+                .andExpect(jsonPath("$.data.title").value("Desk Lamp v2"))
+                .andExpect(jsonPath("$.data.stock").value(5));
+    }
+
+    @Test
+    void importProducts_whenGzippedCsv_parseQuotedFieldsAndSkipUnknownColumns() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+        String csv = "id,title,description,category,price,stock,createdAt\r\n"
+                + ",\"Chair, \"\"Ergo\"\"\",\"Mesh back\nadjustable\",home,199.00,3,2024-01-01T00:00:00Z\r\n"
+                + ",Desk Lamp,,home,abc,7,\r\n"
+                + ",Rug,Wool,home,45.00,2,\r\n";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(post("/api/v1/admin/products/import")
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compressed.toByteArray())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(2))
+                .andExpect(jsonPath("$.data.failed").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(4))
+                .andExpect(jsonPath("$.data.errors[0].message").value("price is not a number: abc"));
+
+        Product chair = productRepository.findAll().stream()
+                .filter(product -> product.getTitle().startsWith("Chair"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Chair, \"Ergo\"", chair.getTitle());
+        assertEquals("Mesh back\nadjustable", chair.getDescription());
+    }
+
+    @Test
+    void importProducts_whenCsvHeaderMissingColumns_returnBadRequest() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/admin/products/import")
+                        .contentType("text/csv")
+                        .content("title,price\nChair,10.00\n")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("CSV header is missing columns: category, stock"));
+    }
+
+    @Test
+    void importProducts_whenContentTypeUnsupported_returnUnsupportedMediaType() throws Exception {
+        String token = obtainToken(mockMvc, objectMapper, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+        mockMvc.perform(post("/api/v1/admin/products/import")
+                        .contentType("application/xml")
+                        .content("<products/>")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.ret_code").value(-1));
+    }
+}
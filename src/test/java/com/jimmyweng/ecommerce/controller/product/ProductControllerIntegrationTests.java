@@ -1,23 +1,34 @@
 package com.jimmyweng.ecommerce.controller.product;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
 import com.jimmyweng.ecommerce.model.product.Product;
 import com.jimmyweng.ecommerce.repository.product.ProductRepository;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -67,6 +78,97 @@ class ProductControllerIntegrationTests {
                 .andExpect(jsonPath("$.data.pagination.hasNext").value(false));
     }
 
+    @Test
+    void listProducts_whenSortedByPriceWithinRange_pagesThroughKeysetCursor() throws Exception {
+        productRepository.saveAll(List.of(
+                new Product("Cheap Lens", "Too cheap", "lenses", new BigDecimal("5.00"), 1),
+                new Product("Prime Lens", "Fast", "lenses", new BigDecimal("20.00"), 1),
+                new Product("Zoom Lens", "Versatile", "lenses", new BigDecimal("20.00"), 1),
+                new Product("Macro Lens", "Close-up", "lenses", new BigDecimal("35.00"), 1),
+                new Product("Tele Lens", "Too dear", "lenses", new BigDecimal("90.00"), 1)));
+
+        String body = mockMvc.perform(get("/api/v1/products")
+                        .param("category", "lenses")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "50")
+                        .param("sort", "price_desc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[*].title").value(contains("Macro Lens", "Zoom Lens")))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(true))
+                .andExpect(jsonPath("$.data.pagination.totalElements").doesNotExist())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = JsonPath.read(body, "$.data.pagination.nextCursor");
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("category", "lenses")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "50")
+                        .param("sort", "price_desc")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[*].title").value(contains("Prime Lens")))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(false))
+                .andExpect(jsonPath("$.data.pagination.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/v1/products").param("sort", "price_asc").param("cursor", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.INVALID_CURSOR));
+    }
+
+    @Test
+    void listProducts_whenNewestPagedByCursor_returnsEachProductOnce() throws Exception {
+        List<Product> saved = productRepository.saveAllAndFlush(List.of(
+                new Product("Tent", "Two person", "camping", new BigDecimal("120.00"), 2),
+                new Product("Stove", "Gas", "camping", new BigDecimal("45.00"), 0),
+                new Product("Lantern", "LED", "camping", new BigDecimal("25.00"), 7)));
+
+        String body = mockMvc.perform(get("/api/v1/products").param("category", "camping").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<Integer> firstPage = JsonPath.read(body, "$.data.items[*].id");
+        String cursor = JsonPath.read(body, "$.data.pagination.nextCursor");
+        String next = mockMvc.perform(get("/api/v1/products")
+                        .param("category", "camping")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(false))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<Integer> secondPage = JsonPath.read(next, "$.data.items[*].id");
+
+        List<Integer> walked = new ArrayList<>(firstPage);
+        walked.addAll(secondPage);
+        assertEquals(
+                saved.stream().map(product -> product.getId().intValue()).sorted().toList(),
+                walked.stream().sorted().toList());
+        mockMvc.perform(get("/api/v1/products").param("category", "camping").param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[*].title").value(hasItems("Tent", "Lantern")))
+                .andExpect(jsonPath("$.data.items.length()").value(2));
+    }
+
+    @Test
+    void listProducts_whenListingOptionsInvalid_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("sort", "rating"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.unknownSort("rating")));
+        mockMvc.perform(get("/api/v1/products").param("minPrice", "50").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.INVALID_PRICE_RANGE));
+        mockMvc.perform(get("/api/v1/products").param("search", "lens").param("sort", "price_asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value(ErrorMessages.LISTING_OPTIONS_WITH_SEARCH));
+    }
+
     @Test
     void listProducts_whenSearchingByKeyword_matchesTitleOrDescription() throws Exception {
         productRepository.saveAll(List.of(
@@ -122,4 +224,113 @@ class ProductControllerIntegrationTests {
                 .andExpect(jsonPath("$.ret_code").value(-1))
                 .andExpect(jsonPath("$.msg").value(ErrorMessages.productNotFound(product.getId())));
     }
+
+    @Test
+    void getProduct_whenIfNoneMatchMatches_returnsNotModifiedWithoutBody() throws Exception {
+        Product product = productRepository.save(
+                new Product("Vintage Camera", "Film", "photo", new BigDecimal("89.00"), 2));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/products/{productId}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MvcResult second = mockMvc.perform(get("/api/v1/products/{productId}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+
+        MvcResult notModified = mockMvc.perform(get("/api/v1/products/{productId}", product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertTrue(notModified.getResponse().getContentAsString().isEmpty());
+        // A favorite toggle does not move updatedAt, so If-Modified-Since must never validate a detail.
+        mockMvc.perform(get("/api/v1/products/{productId}", product.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2999 23:59:59 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listProducts_whenIfNoneMatchMatches_returnsNotModified() throws Exception {
+        productRepository.save(new Product("Tripod", "Aluminium", "photo", new BigDecimal("35.00"), 6));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/products").param("category", "photo"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult second = mockMvc.perform(get("/api/v1/products").param("category", "photo"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+
+        mockMvc.perform(get("/api/v1/products").param("category", "photo").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // Without Last-Modified, If-Modified-Since alone can never produce a 304 for a listing.
+        mockMvc.perform(get("/api/v1/products")
+                        .param("category", "photo")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2999 23:59:59 GMT"))
+                .andExpect(status().isOk());
+
+        productRepository.save(new Product("Lens Cap", "Plastic", "photo", new BigDecimal("5.00"), 40));
+
+        mockMvc.perform(get("/api/v1/products").param("category", "photo").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2));
+    }
+
+    @Test
+    void getProducts_whenIdsGiven_returnsActiveProductsInRequestOrder() throws Exception {
+        Product first = productRepository.save(
+                new Product("Notebook", "Dotted", "stationery", new BigDecimal("6.50"), 30));
+        Product second = productRepository.save(
+                new Product("Fountain Pen", "Steel nib", "stationery", new BigDecimal("42.00"), 8));
+        Product deleted = productRepository.save(
+                new Product("Blotter", "Discontinued", "stationery", new BigDecimal("3.00"), 1));
+        deleted.markDeleted(Instant.now());
+        productRepository.save(deleted);
+
+        // Warm one entry so the response mixes cache hits and the IN-query misses.
+        mockMvc.perform(get("/api/v1/products/{productId}", first.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/batch")
+                        .param("ids", String.join(",",
+                                second.getId().toString(),
+                                deleted.getId().toString(),
+                                first.getId().toString(),
+                                second.getId().toString())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ret_code").value(0))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.data.items[0].title").value("Fountain Pen"))
+                .andExpect(jsonPath("$.data.items[1].id").value(first.getId()))
+                .andExpect(jsonPath("$.data.missingIds[0]").value(deleted.getId()));
+    }
+
+    @Test
+    void getProducts_whenTooManyIds_returnsBadRequest() throws Exception {
+        String ids = LongStream.rangeClosed(1, ProductController.MAX_BATCH_IDS + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ret_code").value(-1))
+                .andExpect(jsonPath("$.msg").value("ids size must be between 1 and " + ProductController.MAX_BATCH_IDS));
+    }
+
+    @Test
+    void getProducts_whenIdEmpty_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", "1,,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ret_code").value(-1))
+                .andExpect(jsonPath("$.msg").value("ids[1] must not be null"));
+    }
 }
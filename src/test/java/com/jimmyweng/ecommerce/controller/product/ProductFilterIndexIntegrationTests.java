@@ -0,0 +1,101 @@
+package com.jimmyweng.ecommerce.controller.product;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jimmyweng.ecommerce.model.product.Product;
+import com.jimmyweng.ecommerce.repository.product.ProductRepository;
+import com.jimmyweng.ecommerce.service.catalog.CatalogFilterIndexService;
+import com.jimmyweng.ecommerce.service.catalog.CatalogSnapshotService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Scheduled refreshes are pushed out of the way; the test replays the change feed and rebuilds the
+ * index on its own thread, so both see the fixture inside the test transaction.
+ */
+@SpringBootTest(properties = {
+    "catalog.snapshot.enabled=true",
+    "catalog.snapshot.directory=target/filter-index-snapshot",
+    "catalog.snapshot.refresh-interval=PT1H",
+    "catalog.snapshot.write-interval=PT1H",
+    "catalog.snapshot.delta-overlap=PT1H",
+    "catalog.filter-index.enabled=true",
+    "catalog.filter-index.rebuild-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ProductFilterIndexIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogFilterIndexService catalogFilterIndexService;
+
+    @Test
+    void listProducts_whenIndexBuilt_filtersInMemoryAndLoadsOnlyThePage() throws Exception {
+        List<Product> saved = productRepository.saveAllAndFlush(List.of(
+                new Product("Trowel", "Hand tool", "index-garden", new BigDecimal("8.00"), 4),
+                new Product("Hose", "Sold out", "index-garden", new BigDecimal("30.00"), 0),
+                new Product("Rake", "Leaves", "index-garden", new BigDecimal("24.00"), 2),
+                new Product("Shears", "Hedges", "index-garden", new BigDecimal("24.00"), 6),
+                new Product("Mower", "Too dear", "index-garden", new BigDecimal("240.00"), 1)));
+        catalogSnapshotService.refresh();
+        catalogFilterIndexService.rebuild();
+        // Deleted after the rebuild: the index still lists it, hydration drops it.
+        Product shears = saved.get(3);
+        shears.markDeleted(shears.getCreatedAt());
+        productRepository.saveAndFlush(shears);
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("category", "index-garden")
+                        .param("minPrice", "5")
+                        .param("maxPrice", "100")
+                        .param("inStock", "true")
+                        .param("sort", "price_desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[*].title").value(contains("Rake", "Trowel")))
+                .andExpect(jsonPath("$.data.pagination.hasNext").value(false));
+    }
+
+    @Test
+    void listProducts_whenPageRowsChangedSinceRebuild_answerFromDatabase() throws Exception {
+        List<Product> saved = productRepository.saveAllAndFlush(List.of(
+                new Product("Kettle", "Steel", "index-kitchen", new BigDecimal("20.00"), 3),
+                new Product("Toaster", "Two slots", "index-kitchen", new BigDecimal("35.00"), 2),
+                new Product("Blender", "Glass jug", "index-kitchen", new BigDecimal("50.00"), 5)));
+        catalogSnapshotService.refresh();
+        catalogFilterIndexService.rebuild();
+        // Changed after the rebuild: the index still has the kettle in stock and the toaster at 35.
+        Product kettle = saved.get(0);
+        kettle.applyUpdate(kettle.getTitle(), kettle.getDescription(), kettle.getCategory(), kettle.getPrice(), 0);
+        Product toaster = saved.get(1);
+        toaster.applyUpdate(
+                toaster.getTitle(), toaster.getDescription(), toaster.getCategory(), new BigDecimal("60.00"), 2);
+        productRepository.saveAllAndFlush(List.of(kettle, toaster));
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("category", "index-kitchen")
+                        .param("inStock", "true")
+                        .param("sort", "price_asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[*].title").value(contains("Blender", "Toaster")));
+    }
+}
@@ -0,0 +1,90 @@
+package com.jimmyweng.ecommerce.datasource.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProfilingDataSourceTests {
+
+    private static final String SELECT_SQL = "select x from system_range(1, ?)";
+
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1");
+        dataSource = new ProfilingDataSource("REPLICA_1", h2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlProfile.end();
+    }
+
+    @Test
+    void getConnection_whenRequestProfiled_recordStatementsRowsAndRoutingKey() throws Exception {
+        SqlProfile profile = SqlProfile.start();
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (int limit = 1; limit <= 3; limit++) {
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+                    statement.setInt(1, limit);
+                    drain(statement.executeQuery());
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                drain(statement.executeQuery("select 1"));
+            }
+        }
+
+        assertEquals(4, profile.getStatements());
+        assertEquals(7, profile.getRows());
+        assertTrue(profile.getDbNanos() > 0);
+        assertEquals(Set.of("REPLICA_1"), profile.getRoutingKeys());
+        Map.Entry<String, Integer> repeated = profile.mostRepeated();
+        assertEquals(SELECT_SQL, repeated.getKey());
+        assertEquals(3, repeated.getValue());
+    }
+
+    @Test
+    void getConnection_whenRequestNotProfiled_returnPooledConnectionUnwrapped() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(Proxy.isProxyClass(connection.getClass()));
+        }
+    }
+
+    @Test
+    void prepareStatement_whenProfiled_keepProxyIdentityForHashLookups() throws Exception {
+        SqlProfile.start();
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+            Set<Statement> registry = new HashSet<>();
+            registry.add(statement);
+
+            assertTrue(registry.remove(statement));
+        }
+    }
+
+    private static void drain(ResultSet resultSet) throws Exception {
+        try (resultSet) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticFavorite;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticItem;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticOrder;
+import com.jimmyweng.ecommerce.loadtest.SyntheticActivity.SyntheticUser;
+import java.time.Instant;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class SyntheticActivityTests {
+
+    private static final Instant NEWEST = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Test
+    void user_whenSameSeedAndIndex_returnSameActivity() {
+        ActivitySeedProperties properties = new ActivitySeedProperties();
+
+        // Workers generate disjoint user ranges concurrently, so order of generation must not matter.
+        assertEquals(
+                new SyntheticActivity(42L, 500, properties).user(9_999, NEWEST),
+                new SyntheticActivity(42L, 500, properties).user(9_999, NEWEST));
+    }
+
+    @Test
+    void user_whenGenerated_staysWithinConfiguredRanges() {
+        ActivitySeedProperties properties = new ActivitySeedProperties();
+        SyntheticActivity activity = new SyntheticActivity(7L, 50, properties);
+        Instant oldest = NEWEST.minus(properties.getHistory());
+
+        LongStream.range(0, 2_000).mapToObj(index -> activity.user(index, NEWEST)).forEach(user -> {
+            assertTrue(user.email().startsWith(SyntheticActivity.EMAIL_PREFIX));
+            assertTrue(!user.createdAt().isBefore(oldest) && !user.createdAt().isAfter(NEWEST));
+            assertTrue(user.favorites().size() <= 2 * properties.getFavoritesPerUser());
+            assertEquals(
+                    user.favorites().size(),
+                    user.favorites().stream().map(SyntheticFavorite::product).distinct().count());
+            assertTrue(user.orders().size() <= 2 * properties.getOrdersPerUser());
+            user.favorites().forEach(favorite -> assertTrue(!favorite.createdAt().isBefore(user.createdAt())));
+            user.orders().forEach(order -> assertOrderInRange(user, order, properties));
+        });
+    }
+
+    @Test
+    void user_whenZipfSkewed_concentrateFavoritesOnFewProducts() {
+        ActivitySeedProperties properties = new ActivitySeedProperties();
+        SyntheticActivity activity = new SyntheticActivity(42L, 1_000, properties);
+        long[] favoritesPerProduct = new long[1_000];
+
+        LongStream.range(0, 5_000)
+                .mapToObj(index -> activity.user(index, NEWEST))
+                .flatMap(user -> user.favorites().stream())
+                .forEach(favorite -> favoritesPerProduct[favorite.product()]++);
+
+        long total = LongStream.of(favoritesPerProduct).sum();
+        long topTen = LongStream.of(favoritesPerProduct).boxed()
+                .sorted((a, b) -> Long.compare(b, a))
+                .limit(10)
+                .mapToLong(Long::longValue)
+                .sum();
+        // Under s = 1 over 1,000 products the top 1% of products draws roughly 39% of picks;
+        // uniform picking would give 1%.
+        assertTrue(topTen * 100 / total > 20);
+    }
+
+    private void assertOrderInRange(SyntheticUser user, SyntheticOrder order, ActivitySeedProperties properties) {
+        assertTrue(order.idempotencyKey().startsWith("loadtest-"));
+        assertTrue(!order.createdAt().isBefore(user.createdAt()) && !order.createdAt().isAfter(NEWEST));
+        assertTrue(order.items().size() >= 1 && order.items().size() <= properties.getMaxItemsPerOrder());
+        for (SyntheticItem item : order.items()) {
+            assertTrue(item.product() >= 0 && item.product() < 50);
+            assertTrue(item.quantity() >= 1 && item.quantity() <= 3);
+        }
+    }
+}
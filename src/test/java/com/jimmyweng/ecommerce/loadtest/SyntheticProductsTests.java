@@ -0,0 +1,51 @@
+package com.jimmyweng.ecommerce.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.jimmyweng.ecommerce.loadtest.SyntheticProducts.SyntheticProduct;
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class SyntheticProductsTests {
+
+    @Test
+    void row_whenSameSeedAndIndex_returnSameProduct() {
+        SyntheticProducts first = new SyntheticProducts(42L);
+        SyntheticProducts second = new SyntheticProducts(42L);
+
+        // Order of generation must not matter, since workers produce disjoint ranges concurrently.
+        assertEquals(first.row(123_456), second.row(123_456));
+        assertEquals(first.row(7), new SyntheticProducts(42L).row(7));
+    }
+
+    @Test
+    void row_whenSeedDiffers_returnDifferentDataSet() {
+        SyntheticProducts first = new SyntheticProducts(42L);
+        SyntheticProducts second = new SyntheticProducts(43L);
+
+        long differing = LongStream.range(0, 100)
+                .filter(index -> !first.row(index).equals(second.row(index)))
+                .count();
+
+        assertTrue(differing > 90);
+        assertNotEquals(first.row(0), first.row(1));
+    }
+
+    @Test
+    void row_whenGenerated_staysWithinSeedRanges() {
+        SyntheticProducts products = new SyntheticProducts(7L);
+
+        LongStream.range(0, 10_000).mapToObj(products::row).forEach(this::assertInRange);
+    }
+
+    private void assertInRange(SyntheticProduct product) {
+        assertTrue(product.title().startsWith(SyntheticProducts.TITLE_PREFIX));
+        assertTrue(product.price().compareTo(new BigDecimal("5.00")) >= 0);
+        assertTrue(product.price().compareTo(new BigDecimal("200.00")) <= 0);
+        assertEquals(2, product.price().scale());
+        assertTrue(product.stock() >= 10 && product.stock() < 100);
+    }
+}
@@ -0,0 +1,86 @@
+package com.jimmyweng.ecommerce.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+class LogExecutionAspectTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LogExecutionProperties properties = new LogExecutionProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.setSlowThreshold(Duration.ofMinutes(1));
+        properties.setSampleRate(0);
+    }
+
+    @Test
+    void logAround_whenCallFastAndNotSampled_recordTimerWithoutFormattingArgs() {
+        Target target = advised();
+        CountingArg arg = new CountingArg();
+
+        target.find(arg);
+        target.find(arg);
+
+        assertEquals(2, timerCount("success"));
+        assertEquals(0, arg.formatted.get());
+    }
+
+    @Test
+    void logAround_whenCallSlowOrFailing_logWithArgsAndRecordOutcome() {
+        properties.setSlowThreshold(Duration.ZERO);
+        Target target = advised();
+        CountingArg arg = new CountingArg();
+
+        target.find(arg);
+        assertThrows(IllegalStateException.class, () -> target.fail(arg));
+
+        assertEquals(1, timerCount("success"));
+        assertEquals(1, timerCount("error"));
+        assertEquals(2, arg.formatted.get());
+    }
+
+    private Target advised() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LogExecutionAspect(meterRegistry, properties));
+        return factory.getProxy();
+    }
+
+    private long timerCount(String outcome) {
+        return meterRegistry.get(LogExecutionAspect.TIMER).tag("outcome", outcome).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+
+    static class Target {
+
+        @LogExecution
+        public String find(CountingArg arg) {
+            return "found";
+        }
+
+        @LogExecution
+        public String fail(CountingArg arg) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    static class CountingArg {
+
+        private final AtomicInteger formatted = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            formatted.incrementAndGet();
+            return "arg";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.jimmyweng.ecommerce.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class NonBlockingAsyncAppenderTests {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("test");
+    private final StalledAppender downstream = new StalledAppender();
+    private final NonBlockingAsyncAppender appender = new NonBlockingAsyncAppender();
+
+    @BeforeEach
+    void setUp() {
+        // A standalone context has no MDC adapter until given the one slf4j's MDC writes to.
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        downstream.setContext(context);
+        downstream.start();
+        appender.setContext(context);
+        appender.setName("ASYNC_TEST");
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setMaxBlockMillis(5_000);
+        appender.addAppender(downstream);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        downstream.release.countDown();
+        appender.stop();
+        MDC.clear();
+    }
+
+    @Test
+    void append_whenQueueNearFull_dropInfoButKeepWarnAndError() throws Exception {
+        appender.doAppend(event(Level.INFO, "first"));
+        assertTrue(downstream.writing.await(5, TimeUnit.SECONDS));
+        // The writer is stuck on "first"; the queue (4 slots, 2 reserved) fills up behind it.
+        appender.doAppend(event(Level.INFO, "info-1"));
+        appender.doAppend(event(Level.INFO, "info-2"));
+        appender.doAppend(event(Level.INFO, "info-3"));
+        appender.doAppend(event(Level.DEBUG, "dropped"));
+        appender.doAppend(event(Level.WARN, "warn"));
+        Thread blockedCaller = new Thread(() -> appender.doAppend(event(Level.ERROR, "error")));
+        blockedCaller.start();
+
+        downstream.release.countDown();
+        blockedCaller.join(5_000);
+        appender.stop();
+
+        assertEquals(1, appender.getDroppedCount());
+        assertEquals(0, appender.getDroppedWarnCount());
+        assertEquals(
+                List.of("first", "info-1", "info-2", "info-3", "warn", "error"),
+                downstream.received.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    @Test
+    void append_whenQueueStaysFull_dropWarnAfterBoundedWait() throws Exception {
+        appender.setMaxBlockMillis(50);
+        appender.doAppend(event(Level.INFO, "first"));
+        assertTrue(downstream.writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            appender.doAppend(event(Level.WARN, "warn-" + i));
+        }
+
+        long start = System.nanoTime();
+        appender.doAppend(event(Level.ERROR, "error"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 40 && waitedMillis < 2_000, "waited " + waitedMillis + " ms");
+        assertEquals(1, appender.getDroppedWarnCount());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void append_whenCallerHasMdc_captureItBeforeHandOff() throws Exception {
+        MDC.put(RequestCorrelationFilter.CORRELATION_ID_KEY, "corr-1");
+        ILoggingEvent event = event(Level.INFO, "with mdc");
+        appender.doAppend(event);
+        MDC.clear();
+
+        downstream.release.countDown();
+        appender.stop();
+
+        assertEquals("corr-1", downstream.received.getFirst().getMDCPropertyMap().get("correlationId"));
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private static class StalledAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import com.jimmyweng.ecommerce.repository.product.ProductListingQuery;
+import com.jimmyweng.ecommerce.repository.product.ProductSort;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class CatalogFilterIndexTests {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+    private static final List<String> CATEGORIES = List.of("games", "books", "garden");
+    private static final List<BigDecimal> BANDS =
+            List.of(new BigDecimal("10"), new BigDecimal("25"), new BigDecimal("50"));
+
+    @Test
+    void page_whenWalkedWithCursors_matchesFilteredAndSortedCatalog() {
+        List<CatalogEntry> entries = catalog(500, new Random(7));
+        CatalogFilterIndex index = CatalogFilterIndex.build(1L, entries, BANDS);
+        Map<Long, CatalogEntry> byId = entries.stream().collect(Collectors.toMap(CatalogEntry::id, Function.identity()));
+
+        for (ProductSort sort : ProductSort.values()) {
+            for (String category : new String[] {null, "books"}) {
+                for (boolean inStock : new boolean[] {false, true}) {
+                    ProductListingQuery filter = new ProductListingQuery(
+                            category, new BigDecimal("12.50"), new BigDecimal("48.00"), inStock, sort, null, null, null);
+                    assertEquals(expected(entries, filter), walk(index, filter, byId), sort + "/" + category + "/" + inStock);
+                }
+            }
+        }
+    }
+
+    @Test
+    void page_whenOffsetGiven_skipsMatchesAndReportsHasNext() {
+        List<CatalogEntry> entries = catalog(40, new Random(11));
+        CatalogFilterIndex index = CatalogFilterIndex.build(1L, entries, BANDS);
+        ProductListingQuery filter =
+                new ProductListingQuery("games", null, null, false, ProductSort.NEWEST, null, null, null);
+        List<Long> all = expected(entries, filter);
+
+        CatalogFilterIndex.Page page = index.page(filter, 3, 4);
+
+        assertEquals(all.subList(3, 7), page.productIds());
+        assertEquals(all.size() > 7, page.hasNext());
+    }
+
+    @Test
+    void page_whenCategoryUnknownOrRangeEmpty_returnsNothing() {
+        CatalogFilterIndex index = CatalogFilterIndex.build(1L, catalog(50, new Random(3)), BANDS);
+
+        CatalogFilterIndex.Page unknown = index.page(
+                new ProductListingQuery("toys", null, null, false, ProductSort.PRICE_ASC, null, null, null), 0, 10);
+        CatalogFilterIndex.Page inverted = index.page(new ProductListingQuery(
+                null, new BigDecimal("30"), new BigDecimal("20"), false, ProductSort.NEWEST, null, null, null), 0, 10);
+
+        assertEquals(List.of(), unknown.productIds());
+        assertFalse(unknown.hasNext());
+        assertEquals(List.of(), inverted.productIds());
+    }
+
+    /** Pages of 7 through the whole result, resuming each page from the previous page's last row. */
+    private static List<Long> walk(CatalogFilterIndex index, ProductListingQuery filter, Map<Long, CatalogEntry> byId) {
+        List<Long> walked = new ArrayList<>();
+        ProductListingQuery query = filter;
+        while (true) {
+            CatalogFilterIndex.Page page = index.page(query, 0, 7);
+            walked.addAll(page.productIds());
+            if (!page.hasNext()) {
+                return walked;
+            }
+            CatalogEntry last = byId.get(page.productIds().get(page.productIds().size() - 1));
+            query = new ProductListingQuery(
+                    filter.category(),
+                    filter.minPrice(),
+                    filter.maxPrice(),
+                    filter.inStock(),
+                    filter.sort(),
+                    last.createdAt(),
+                    last.price(),
+                    last.id());
+        }
+    }
+
+    private static List<Long> expected(List<CatalogEntry> entries, ProductListingQuery filter) {
+        Comparator<CatalogEntry> order = switch (filter.sort()) {
+            case NEWEST -> Comparator.comparing(CatalogEntry::createdAt)
+                    .thenComparing(CatalogEntry::id)
+                    .reversed();
+            case PRICE_ASC -> Comparator.comparing(CatalogEntry::price).thenComparing(CatalogEntry::id);
+            case PRICE_DESC -> Comparator.comparing(CatalogEntry::price)
+                    .thenComparing(CatalogEntry::id)
+                    .reversed();
+        };
+        return entries.stream()
+                .filter(entry -> filter.category() == null || filter.category().equals(entry.category()))
+                .filter(entry -> filter.minPrice() == null || entry.price().compareTo(filter.minPrice()) >= 0)
+                .filter(entry -> filter.maxPrice() == null || entry.price().compareTo(filter.maxPrice()) <= 0)
+                .filter(entry -> !filter.inStock() || entry.stock() > 0)
+                .sorted(order)
+                .map(CatalogEntry::id)
+                .toList();
+    }
+
+    /** Prices repeat and creation times collide, so the id tie-breakers are exercised. */
+    private static List<CatalogEntry> catalog(int size, Random random) {
+        List<CatalogEntry> entries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Instant createdAt = NOW.minusSeconds(random.nextInt(size / 4 + 1));
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(60) * 100 + 50, 2);
+            entries.add(new CatalogEntry(
+                    id,
+                    "Product " + id,
+                    CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                    price,
+                    random.nextInt(4),
+                    1L,
+                    createdAt,
+                    createdAt,
+                    true));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,74 @@
+package com.jimmyweng.ecommerce.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jimmyweng.ecommerce.repository.product.CatalogEntry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CatalogSnapshotCodecTests {
+
+    private static final Instant OFFSET = Instant.parse("2025-01-02T03:04:05.123456Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_whenWrittenSnapshot_returnsSameEntriesAndOffset() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        List<CatalogEntry> entries = List.of(
+                entry(1L, "Mechanical Keyboard", "peripherals", "129.90"),
+                entry(7L, "咖啡豆 Espresso", "grocery", "12.00"));
+
+        CatalogSnapshotCodec.write(file, new CatalogSnapshot(OFFSET, entries));
+        CatalogSnapshot restored = CatalogSnapshotCodec.read(file);
+
+        assertEquals(OFFSET, restored.changeFeedOffset());
+        assertEquals(entries, restored.entries());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void read_whenFileCorrupted_throwsIOException() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshotCodec.write(
+                file, new CatalogSnapshot(OFFSET, List.of(entry(1L, "Desk Lamp", "home", "25.50"))));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshotCodec.read(file));
+    }
+
+    @Test
+    void apply_whenChangeIsOlderOrDeleted_keepsLatestActiveState() {
+        ActiveCatalog catalog = new ActiveCatalog();
+        catalog.replaceAll(new CatalogSnapshot(OFFSET, List.of(entry(1L, "Desk Lamp", "home", "25.50"))));
+
+        CatalogEntry stale = new CatalogEntry(
+                1L, "Old Lamp", "home", new BigDecimal("20.00"), 3, 0L, OFFSET, OFFSET.minusSeconds(60), true);
+        catalog.apply(stale);
+        assertEquals("Desk Lamp", catalog.get(1L).orElseThrow().title());
+        assertEquals(OFFSET, catalog.changeFeedOffset());
+
+        Instant deletedAt = OFFSET.plusSeconds(5);
+        catalog.apply(new CatalogEntry(
+                1L, "Desk Lamp", "home", new BigDecimal("25.50"), 3, 2L, OFFSET, deletedAt, false));
+        assertTrue(catalog.get(1L).isEmpty());
+        assertEquals(deletedAt, catalog.changeFeedOffset());
+    }
+
+    private static CatalogEntry entry(Long id, String title, String category, String price) {
+        return new CatalogEntry(
+                id, title, category, new BigDecimal(price), 10, 1L, OFFSET.minusSeconds(3600), OFFSET, true);
+    }
+}
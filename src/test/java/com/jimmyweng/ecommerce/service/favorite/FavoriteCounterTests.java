@@ -0,0 +1,127 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.jimmyweng.ecommerce.repository.favorite.ProductFavoriteCountRepository;
+import com.jimmyweng.ecommerce.service.lease.JobLeaseService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+
+class FavoriteCounterTests {
+
+    private final FavoriteCountWriter writer = mock(FavoriteCountWriter.class);
+    private final JobLeaseService jobLeaseService = mock(JobLeaseService.class);
+    private final FavoriteCounter counter = new FavoriteCounter(
+            new FavoriteCountProperties(), writer, mock(ProductFavoriteCountRepository.class), jobLeaseService);
+
+    @Test
+    void flush_whenUpdatedConcurrently_writeNetDeltaPerProduct() throws Exception {
+        Map<Long, Long> written = recordWrites();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    counter.increment(1L);
+                    counter.increment(2L);
+                    counter.decrement(2L);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        counter.flush();
+
+        assertEquals(Map.of(1L, 8_000L), written);
+    }
+
+    @Test
+    void flush_whenNothingChanged_skipWriter() {
+        counter.increment(1L);
+        counter.decrement(1L);
+
+        counter.flush();
+
+        verify(writer, never()).write(anyList());
+    }
+
+    @Test
+    void flush_whenWriteFails_keepDeltasForNextFlush() {
+        counter.increment(1L);
+        doThrow(new QueryTimeoutException("primary unavailable")).when(writer).write(anyList());
+        counter.flush();
+
+        Map<Long, Long> written = recordWrites();
+        counter.increment(1L);
+        counter.flush();
+
+        assertEquals(Map.of(1L, 2L), written);
+    }
+
+    @Test
+    void reconcile_whenDeltasPending_flushThenRecountEachRange() {
+        Map<Long, Long> written = recordWrites();
+        counter.increment(1L);
+        when(writer.maxProductId()).thenReturn(1_200L);
+
+        counter.reconcile();
+
+        InOrder inOrder = inOrder(writer);
+        inOrder.verify(writer).write(anyList());
+        inOrder.verify(writer).recount(0, 500);
+        inOrder.verify(writer).recount(500, 1_000);
+        inOrder.verify(writer).recount(1_000, 1_500);
+        verify(writer, times(3)).recount(anyLong(), anyLong());
+        assertEquals(Map.of(1L, 1L), written);
+    }
+
+    @Test
+    void reconcile_whenFlushFails_skipRecount() {
+        counter.increment(1L);
+        when(writer.maxProductId()).thenReturn(1_200L);
+        doThrow(new QueryTimeoutException("primary unavailable")).when(writer).write(anyList());
+
+        counter.reconcile();
+
+        verify(writer, never()).recount(anyLong(), anyLong());
+    }
+
+    @Test
+    void reconcileOnOneInstance_whenLeaseHeldElsewhere_skipRecount() {
+        when(jobLeaseService.tryClaim(eq("favorite-count-reconcile"), any())).thenReturn(false);
+
+        counter.reconcileOnOneInstance();
+
+        verify(writer, never()).maxProductId();
+        verify(writer, never()).recount(anyLong(), anyLong());
+    }
+
+    private Map<Long, Long> recordWrites() {
+        Map<Long, Long> written = new HashMap<>();
+        doAnswer(invocation -> {
+            List<Map.Entry<Long, Long>> deltas = invocation.getArgument(0);
+            deltas.forEach(delta -> written.merge(delta.getKey(), delta.getValue(), Long::sum));
+            return null;
+        }).when(writer).write(anyList());
+        return written;
+    }
+}
@@ -0,0 +1,118 @@
+package com.jimmyweng.ecommerce.service.favorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+
+class FavoriteWriteBehindTests {
+
+    private static final String EMAIL = "toggler@example.com";
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private final FavoriteBatchWriter batchWriter = mock(FavoriteBatchWriter.class);
+    private final FavoriteWriteBehindProperties properties = new FavoriteWriteBehindProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+    }
+
+    @Test
+    void flush_whenSameFavoriteToggledRepeatedly_writeOnlyLatestToggle() throws Exception {
+        FavoriteWriteBehind writeBehind = open();
+
+        writeBehind.accept(new FavoriteToggle(EMAIL, 1L, true, NOW));
+        writeBehind.accept(new FavoriteToggle(EMAIL, 1L, false, NOW.plusSeconds(1)));
+        writeBehind.accept(new FavoriteToggle(EMAIL, 1L, true, NOW.plusSeconds(2)));
+        writeBehind.accept(new FavoriteToggle(EMAIL, 2L, true, NOW.plusSeconds(3)));
+        assertEquals(2, writeBehind.pendingFor(EMAIL).size());
+
+        writeBehind.flush();
+
+        verify(batchWriter).write(List.of(
+                new FavoriteToggle(EMAIL, 1L, true, NOW.plusSeconds(2)),
+                new FavoriteToggle(EMAIL, 2L, true, NOW.plusSeconds(3))));
+        assertTrue(writeBehind.pendingFor(EMAIL).isEmpty());
+        assertEquals(0, segmentCount());
+    }
+
+    @Test
+    void open_whenUnflushedSegmentsLeft_replayThemInOrder() throws Exception {
+        FavoriteWriteBehind crashed = open();
+        crashed.accept(new FavoriteToggle(EMAIL, 1L, true, NOW));
+        crashed.accept(new FavoriteToggle(EMAIL, 1L, false, NOW.plusSeconds(1)));
+        crashed.accept(new FavoriteToggle(EMAIL, 2L, true, NOW.plusSeconds(2)));
+
+        FavoriteWriteBehind restarted = open();
+
+        assertFalse(restarted.pendingFor(EMAIL).get(1L).add());
+        assertTrue(restarted.pendingFor(EMAIL).get(2L).add());
+        restarted.flush();
+        assertEquals(0, segmentCount());
+    }
+
+    @Test
+    void open_whenLastRecordTornOrCorrupt_replayOnlyCompleteRecords() throws Exception {
+        FavoriteWriteBehind crashed = open();
+        crashed.accept(new FavoriteToggle(EMAIL, 1L, true, NOW));
+        crashed.accept(new FavoriteToggle(EMAIL, 2L, true, NOW.plusSeconds(1)));
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        List<String> records = Files.readAllLines(segment);
+        // Record 2 rewritten with a flipped digit, then cut mid-email without its newline: both
+        // still split into four well-formed fields.
+        String corrupt = records.get(1).replace("\t2\t", "\t3\t");
+        String torn = records.get(1).substring(0, records.get(1).length() - 8);
+        Files.writeString(segment, records.get(0) + "\n" + corrupt + "\n" + torn);
+
+        FavoriteWriteBehind restarted = open();
+
+        assertEquals(List.of(1L), List.copyOf(restarted.pendingFor(EMAIL).keySet()));
+        assertTrue(restarted.pendingFor("toggler@exa").isEmpty());
+    }
+
+    @Test
+    void flush_whenWriteFails_keepTogglesPendingAndOnDisk() throws Exception {
+        FavoriteWriteBehind writeBehind = open();
+        writeBehind.accept(new FavoriteToggle(EMAIL, 1L, true, NOW));
+        doThrow(new QueryTimeoutException("primary unavailable")).when(batchWriter).write(anyList());
+
+        writeBehind.flush();
+
+        assertTrue(writeBehind.pendingFor(EMAIL).get(1L).add());
+        assertEquals(1, segmentCount());
+    }
+
+    private FavoriteWriteBehind open() throws Exception {
+        FavoriteWriteBehind writeBehind = new FavoriteWriteBehind(properties, batchWriter, new SimpleMeterRegistry());
+        writeBehind.open();
+        return writeBehind;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
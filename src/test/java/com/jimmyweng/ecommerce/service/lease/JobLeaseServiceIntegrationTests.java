@@ -0,0 +1,38 @@
+package com.jimmyweng.ecommerce.service.lease;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.jimmyweng.ecommerce.repository.JobLeaseRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLeaseServiceIntegrationTests {
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void tryClaim_whenLeaseHeld_refuseUntilItExpires() {
+        assertTrue(jobLeaseService.tryClaim("held", Duration.ofHours(1)));
+        assertFalse(jobLeaseService.tryClaim("held", Duration.ofHours(1)));
+
+        assertTrue(jobLeaseService.tryClaim("expired", Duration.ZERO));
+        assertTrue(jobLeaseService.tryClaim("expired", Duration.ofHours(1)));
+        assertFalse(jobLeaseService.tryClaim("expired", Duration.ofHours(1)));
+    }
+}
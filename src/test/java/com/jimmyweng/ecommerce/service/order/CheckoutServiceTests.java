@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.jimmyweng.ecommerce.constant.ErrorMessages;
@@ -22,7 +23,10 @@ import com.jimmyweng.ecommerce.repository.product.ProductRepository;
 import com.jimmyweng.ecommerce.service.order.CheckoutService.CheckoutResult;
 import com.jimmyweng.ecommerce.service.order.dto.CreateOrderCommand;
 import com.jimmyweng.ecommerce.service.order.dto.OrderItemCommand;
+import com.jimmyweng.ecommerce.service.trending.TrendingService;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,6 +39,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 class CheckoutServiceTests {
@@ -48,6 +54,15 @@ class CheckoutServiceTests {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private CheckoutMetrics checkoutMetrics;
+
+    @Mock
+    private TrendingService trendingService;
+
     @InjectMocks
     private CheckoutService checkoutService;
 
@@ -83,6 +98,7 @@ class CheckoutServiceTests {
         assertSame(existingOrder, result.order());
         verifyNoInteractions(productRepository);
         verify(orderRepository, never()).save(any(Order.class));
+        verify(checkoutMetrics).recordDuplicate();
     }
 
     @Test
@@ -99,7 +115,7 @@ class CheckoutServiceTests {
                 ResourceNotFoundException.class,
                 () -> checkoutService.createOrder("buyer@example.com", command));
         assertEquals(ErrorMessages.productNotFound(2L), exception.getMessage());
-        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt(), any());
         verify(orderRepository, never()).save(any(Order.class));
     }
 
@@ -115,14 +131,18 @@ class CheckoutServiceTests {
         Product second = createProduct(2L, "Lamp", new BigDecimal("20.00"));
         when(productRepository.findAllByIdInAndDeletedAtIsNull(anyCollection())).thenReturn(List.of(first, second));
 
-        when(productRepository.decrementStock(1L, 1)).thenReturn(1);
-        when(productRepository.decrementStock(2L, 1)).thenReturn(0);
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:00:00Z"));
+        when(productRepository.decrementStock(eq(1L), eq(1), any())).thenReturn(1);
+        when(productRepository.decrementStock(eq(2L), eq(1), any())).thenReturn(0);
 
         OutOfStockException exception = assertThrows(
                 OutOfStockException.class,
                 () -> checkoutService.createOrder("buyer@example.com", command));
         assertEquals(ErrorMessages.outOfStock(2L), exception.getMessage());
         verify(orderRepository, never()).save(any(Order.class));
+        verify(checkoutMetrics).recordOutOfStock();
+        verify(checkoutMetrics, never()).recordCreated();
+        verifyNoInteractions(trendingService);
     }
 
     @Test
@@ -138,12 +158,23 @@ class CheckoutServiceTests {
         Product second = createProduct(3L, "Mouse", new BigDecimal("50.00"));
         when(productRepository.findAllByIdInAndDeletedAtIsNull(anyCollection())).thenReturn(List.of(first, second));
 
-        when(productRepository.decrementStock(3L, 1)).thenReturn(1);
-        when(productRepository.decrementStock(5L, 2)).thenReturn(1);
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:00:00.123456789Z"));
+        when(productRepository.decrementStock(eq(3L), eq(1), any())).thenReturn(1);
+        when(productRepository.decrementStock(eq(5L), eq(2), any())).thenReturn(1);
         // Return the same Order instance passed to save(...) so assertions can inspect it.
         when(orderRepository.save(any(Order.class))).then(AdditionalAnswers.returnsFirstArg());
 
-        CheckoutResult result = checkoutService.createOrder("buyer@example.com", command);
+        CheckoutResult result;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            result = checkoutService.createOrder("buyer@example.com", command);
+            // Nothing is counted until the transaction commits.
+            verify(checkoutMetrics, never()).recordCreated();
+            verifyNoInteractions(trendingService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
 
         verify(orderRepository).save(any(Order.class));
 
@@ -153,12 +184,17 @@ class CheckoutServiceTests {
         assertEquals(5L, persisted.getItems().getLast().getProduct().getId());
         assertEquals(new BigDecimal("350.00"), persisted.getTotalAmount());
         assertFalse(result.duplicate());
+        verify(checkoutMetrics).recordCreated();
+        verify(trendingService).recordOrderLine(eq(5L), any(), eq(2));
+        verify(trendingService).recordOrderLine(eq(3L), any(), eq(1));
 
         // test method called order and decrement product stock by productId asc
         InOrder inOrder = inOrder(productRepository);
         inOrder.verify(productRepository).findAllByIdInAndDeletedAtIsNull(anyCollection());
-        inOrder.verify(productRepository).decrementStock(3L, 1);
-        inOrder.verify(productRepository).decrementStock(5L, 2);
+        inOrder.verify(productRepository).decrementStock(eq(3L), eq(1), any());
+        inOrder.verify(productRepository).decrementStock(eq(5L), eq(2), any());
+        // updated_at is written at the column's microsecond precision.
+        verify(productRepository).decrementStock(3L, 1, Instant.parse("2026-01-01T00:00:00.123456Z"));
     }
 
     private Product createProduct(Long id, String title, BigDecimal price) {
@@ -0,0 +1,29 @@
+package com.jimmyweng.ecommerce.service.product;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.jimmyweng.ecommerce.config.datasource.ExportDataSourceProperties;
+import com.jimmyweng.ecommerce.exception.ExportCapacityExceededException;
+import com.jimmyweng.ecommerce.service.product.ProductExportService.ProductExport;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ProductExportServiceTests {
+
+    @Test
+    void openExport_whenBodyNeverRuns_closeReturnsSlotOnce() {
+        ExportDataSourceProperties properties = new ExportDataSourceProperties();
+        properties.setPoolSize(1);
+        ProductExportService service = new ProductExportService(mock(DataSource.class), properties);
+
+        ProductExport abandoned = service.openExport(ProductFileFormat.NDJSON);
+        assertThrows(ExportCapacityExceededException.class, () -> service.openExport(ProductFileFormat.CSV));
+
+        abandoned.close();
+        abandoned.close();
+
+        service.openExport(ProductFileFormat.CSV);
+        assertThrows(ExportCapacityExceededException.class, () -> service.openExport(ProductFileFormat.CSV));
+    }
+}
@@ -0,0 +1,153 @@
+package com.jimmyweng.ecommerce.service.trending;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Accuracy of the sketches against exact counts on a Zipf-distributed stream, the popularity shape
+ * the trending endpoint sees.
+ */
+class TrendingSketchTests {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int EVENTS = 200_000;
+    private static final int WIDTH = 1024;
+    private static final int DEPTH = 4;
+
+    @Test
+    void countMinSketch_onZipfStream_neverUndercountsAndStaysWithinErrorBound() {
+        long[] exact = new long[PRODUCTS];
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        zipfStream().forEach(product -> {
+            exact[product]++;
+            sketch.add(product, 1);
+        });
+
+        double bound = Math.E / sketch.width() * EVENTS;
+        int withinBound = 0;
+        for (int product = 0; product < PRODUCTS; product++) {
+            double error = sketch.estimate(product) - exact[product];
+            assertTrue(error >= 0, "undercounted product " + product);
+            if (error <= bound) {
+                withinBound++;
+            }
+        }
+        // The guarantee is per key with probability 1 - e^-depth (98%).
+        assertTrue(withinBound >= PRODUCTS * (1 - Math.exp(-DEPTH)), "within bound: " + withinBound);
+    }
+
+    @Test
+    void top_onZipfStream_recallsExactTopTen() {
+        long[] exact = new long[PRODUCTS];
+        TrendingSketch sketch = new TrendingSketch(WIDTH, DEPTH, 100);
+        zipfStream().forEach(product -> {
+            exact[product]++;
+            sketch.add(product, 1);
+        });
+
+        Set<Long> exactTop = IntStream.range(0, PRODUCTS).boxed()
+                .sorted(Comparator.comparingLong((Integer product) -> exact[product]).reversed())
+                .limit(10)
+                .map(Integer::longValue)
+                .collect(Collectors.toSet());
+        List<TrendingProduct> top = sketch.top(10);
+
+        long recalled = top.stream().filter(trending -> exactTop.contains(trending.productId())).count();
+        assertTrue(recalled >= 9, "recalled " + recalled + " of the exact top 10");
+        for (TrendingProduct trending : top) {
+            double relativeError = trending.score() / exact[(int) trending.productId()] - 1;
+            assertTrue(relativeError >= 0 && relativeError < 0.05, "relative error " + relativeError);
+        }
+    }
+
+    @Test
+    void stripedTop_onZipfStream_recallsExactTopTenAcrossStripes() {
+        long[] exact = new long[PRODUCTS];
+        StripedTrendingSketch sketch = new StripedTrendingSketch(8, WIDTH, DEPTH, 100);
+        zipfStream().forEach(product -> {
+            exact[product]++;
+            sketch.add(product, 1);
+        });
+
+        Set<Long> exactTop = IntStream.range(0, PRODUCTS).boxed()
+                .sorted(Comparator.comparingLong((Integer product) -> exact[product]).reversed())
+                .limit(10)
+                .map(Integer::longValue)
+                .collect(Collectors.toSet());
+        List<TrendingProduct> top = sketch.top(10);
+
+        assertEquals(8, sketch.stripes());
+        assertEquals(10, top.size());
+        assertEquals(EVENTS, sketch.total(), 1e-6);
+        long recalled = top.stream().filter(trending -> exactTop.contains(trending.productId())).count();
+        assertTrue(recalled >= 9, "recalled " + recalled + " of the exact top 10");
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).score() >= top.get(i).score(), "merged ranking out of order at " + i);
+        }
+    }
+
+    @Test
+    void scale_whenDecayed_keepsRankingAndShrinksScores() {
+        TrendingSketch sketch = new TrendingSketch(64, 2, 4);
+        sketch.add(1L, 10);
+        sketch.add(2L, 4);
+
+        sketch.scale(0.5);
+
+        List<TrendingProduct> top = sketch.top(2);
+        assertEquals(new TrendingProduct(1L, 5), top.get(0));
+        assertEquals(new TrendingProduct(2L, 2), top.get(1));
+        assertEquals(7, sketch.total());
+    }
+
+    @Test
+    void offer_whenCapacityExceeded_evictsSmallestAndCarriesItsCountAsError() {
+        SpaceSaving topK = new SpaceSaving(2);
+        topK.offer(1L, 5);
+        topK.offer(2L, 1);
+
+        topK.offer(3L, 2);
+
+        List<SpaceSaving.Counter> counters = topK.counters();
+        assertEquals(2, counters.size());
+        assertEquals(1L, counters.get(0).key());
+        assertEquals(3L, counters.get(1).key());
+        assertEquals(3, counters.get(1).count());
+        assertEquals(1, counters.get(1).error());
+    }
+
+    /**
+     * Product ids with probability proportional to {@code 1 / rank}, shuffled so popularity is not
+     * correlated with id order.
+     */
+    private static IntStream zipfStream() {
+        Random random = new Random(42);
+        int[] idOfRank = IntStream.range(0, PRODUCTS).toArray();
+        for (int i = PRODUCTS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = idOfRank[i];
+            idOfRank[i] = idOfRank[j];
+            idOfRank[j] = swap;
+        }
+        double[] cumulative = new double[PRODUCTS];
+        double sum = 0;
+        for (int rank = 0; rank < PRODUCTS; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        double total = sum;
+        return IntStream.range(0, EVENTS).map(event -> {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            return idOfRank[rank >= 0 ? rank : Math.min(PRODUCTS - 1, -rank - 1)];
+        });
+    }
+}